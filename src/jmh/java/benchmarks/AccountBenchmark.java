@@ -0,0 +1,87 @@
+package benchmarks;
+
+import accounts.Account;
+import accounts.CheckingAccount;
+import accounts.SavingsAccount;
+import customers.Customer;
+import customers.RegularCustomer;
+import exceptions.BankException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link Account#processTransaction(double, String)} for both account types, cycling
+ * over a working set of accounts so larger books also exercise cache misses.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountBenchmark {
+
+  @Param({"Savings", "Checking"})
+  public String accountType;
+
+  @Param({"1", "1000", "100000"})
+  public int accountCount;
+
+  private Account[] accounts;
+  private int cursor;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Customer customer = new RegularCustomer("Bench", 30, "555-0000", "1 Bench St");
+    accounts = new Account[accountCount];
+    for (int i = 0; i < accountCount; i++) {
+      accounts[i] =
+          accountType.equals("Savings")
+              ? new SavingsAccount(customer, 10_000.0)
+              : new CheckingAccount(customer, 10_000.0);
+    }
+  }
+
+  /** A validated deposit followed by a validated withdrawal, leaving the balance unchanged. */
+  @Benchmark
+  public double depositThenWithdraw() throws BankException {
+    Account account = nextAccount();
+    account.processTransaction(25.0, "Deposit");
+    account.processTransaction(25.0, "Withdrawal");
+    return account.getBalance();
+  }
+
+  /** A withdrawal the account rejects, exercising the failure path. */
+  @Benchmark
+  public Object rejectedWithdrawal() {
+    try {
+      nextAccount().processTransaction(1_000_000.0, "Withdrawal");
+      return null;
+    } catch (BankException e) {
+      return e;
+    }
+  }
+
+  /** The same rejected withdrawal through the non-throwing path, which returns a status code. */
+  @Benchmark
+  public byte rejectedWithdrawalStatus() {
+    return nextAccount().tryProcessCents(1_000_000_00, "Withdrawal");
+  }
+
+  private Account nextAccount() {
+    Account account = accounts[cursor];
+    cursor = cursor + 1 == accountCount ? 0 : cursor + 1;
+    return account;
+  }
+}
@@ -0,0 +1,81 @@
+package benchmarks;
+
+import accounts.Account;
+import accounts.AccountManager;
+import accounts.CheckingAccount;
+import customers.Customer;
+import customers.RegularCustomer;
+import exceptions.AccountNotFoundException;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lookup latency of {@link AccountManager#findAccount(String)} at increasing book sizes, next to
+ * the linear scan it replaced.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountManagerBenchmark {
+
+  private static final int LOOKUP_KEYS = 4_096;
+
+  @Param({"1000", "100000", "1000000"})
+  public int accountCount;
+
+  private AccountManager accountManager;
+  private Account[] accounts;
+  private String[] keys;
+  private int cursor;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Customer customer = new RegularCustomer("Bench", 30, "555-0000", "1 Bench St");
+    accountManager = new AccountManager();
+    accounts = new Account[accountCount];
+    for (int i = 0; i < accountCount; i++) {
+      accounts[i] = new CheckingAccount(customer, 100.0);
+      accountManager.addAccount(accounts[i]);
+    }
+
+    SplittableRandom random = new SplittableRandom(42);
+    keys = new String[LOOKUP_KEYS];
+    for (int i = 0; i < LOOKUP_KEYS; i++) {
+      keys[i] = accounts[random.nextInt(accountCount)].getAccountNumber();
+    }
+  }
+
+  @Benchmark
+  public Account findAccount() throws AccountNotFoundException {
+    return accountManager.findAccount(nextKey());
+  }
+
+  /** The pre-index behaviour: an equals scan over every registered account. */
+  @Benchmark
+  public Account linearScanBaseline() {
+    String key = nextKey();
+    for (Account account : accounts) {
+      if (account.getAccountNumber().equals(key)) return account;
+    }
+    return null;
+  }
+
+  private String nextKey() {
+    return keys[cursor++ & (LOOKUP_KEYS - 1)];
+  }
+}
@@ -0,0 +1,61 @@
+package benchmarks;
+
+import accounts.Account;
+import accounts.CheckingAccount;
+import customers.RegularCustomer;
+import exceptions.BankException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of deposit/withdrawal pairs when every thread works on its own account, on one thread
+ * and on all of them. Accounts share no lock, so the total rate should grow with the thread count.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountScalingBenchmark {
+
+  /** The calling thread's own account. */
+  @State(Scope.Thread)
+  public static class OwnAccount {
+    Account account;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      account =
+          new CheckingAccount(new RegularCustomer("Bench", 30, "555-0000", "1 Bench St"), 0.0);
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public double oneThread(OwnAccount own) throws BankException {
+    return depositThenWithdraw(own.account);
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public double allThreads(OwnAccount own) throws BankException {
+    return depositThenWithdraw(own.account);
+  }
+
+  private static double depositThenWithdraw(Account account) throws BankException {
+    account.processTransaction(5.0, "Deposit");
+    account.processTransaction(5.0, "Withdrawal");
+    return account.getBalance();
+  }
+}
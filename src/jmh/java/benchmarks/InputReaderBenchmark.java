@@ -0,0 +1,81 @@
+package benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.ConsoleInputReader;
+import utils.FastInputReader;
+import utils.InputReader;
+
+/**
+ * Ingestion throughput of piped input: {@link ConsoleInputReader} (Scanner) against {@link
+ * FastInputReader}, each reading records of one int, one decimal and one string line.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InputReaderBenchmark {
+
+  @Param({"10000"})
+  public int records;
+
+  private byte[] input;
+  private PrintStream originalOut;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < records; i++) {
+      sb.append(i % 9 + 1).append('\n');
+      sb.append(i).append('.').append(i % 100).append('\n');
+      sb.append("Customer ").append(i).append('\n');
+    }
+    input = sb.toString().getBytes(StandardCharsets.UTF_8);
+    originalOut = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+  }
+
+  @TearDown(Level.Trial)
+  public void restoreOut() {
+    System.setOut(originalOut);
+  }
+
+  @Benchmark
+  public double scannerReader() {
+    return readAll(new ConsoleInputReader(new ByteArrayInputStream(input)));
+  }
+
+  @Benchmark
+  public double fastReader() {
+    return readAll(new FastInputReader(Channels.newChannel(new ByteArrayInputStream(input)), true));
+  }
+
+  private double readAll(InputReader reader) {
+    double sum = 0;
+    for (int i = 0; i < records; i++) {
+      sum += reader.readInt("Choice: ", 1, 9);
+      sum += reader.readDouble("Amount: ", 0);
+      sum += reader.readString("Name: ").length();
+    }
+    return sum;
+  }
+}
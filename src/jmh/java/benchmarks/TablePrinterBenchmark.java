@@ -0,0 +1,80 @@
+package benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.ConsoleTablePrinter;
+import utils.StreamingTablePrinter;
+
+/**
+ * Rendering throughput of {@link ConsoleTablePrinter} with standard output discarded, and of {@link
+ * StreamingTablePrinter} streaming the same rows into a discarding writer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TablePrinterBenchmark {
+
+  private static final String[] HEADERS = {
+    "TRANSACTION ID", "ACCOUNT NUMBER", "TYPE", "AMOUNT", "DATE"
+  };
+
+  @Param({"100", "10000"})
+  public int rowCount;
+
+  private final ConsoleTablePrinter printer = new ConsoleTablePrinter();
+  private final StreamingTablePrinter streamingPrinter =
+      new StreamingTablePrinter(Writer.nullWriter(), StreamingTablePrinter.DEFAULT_SAMPLE_ROWS);
+  private String[][] rows;
+  private PrintStream originalOut;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    rows = new String[rowCount][];
+    for (int i = 0; i < rowCount; i++) {
+      rows[i] =
+          new String[] {
+            "TXN" + i,
+            "ACC" + (i % 1_000),
+            i % 3 == 0 ? "WITHDRAWAL" : "DEPOSIT",
+            "+$" + i + ".00",
+            "18-10-2026 09:30:00"
+          };
+    }
+    originalOut = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+  }
+
+  @TearDown(Level.Trial)
+  public void restoreOut() {
+    System.setOut(originalOut);
+  }
+
+  @Benchmark
+  public void printTable() {
+    printer.printTable(HEADERS, rows);
+  }
+
+  @Benchmark
+  public long streamTable() {
+    return streamingPrinter.printTable(HEADERS, Arrays.asList(rows).iterator());
+  }
+}
@@ -0,0 +1,91 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import transactions.Transaction;
+import transactions.TransactionManager;
+
+/**
+ * Throughput of {@link TransactionManager} reads and appends against a prefilled history spread
+ * over {@value #ACCOUNTS} accounts.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class TransactionManagerBenchmark {
+
+  static final int ACCOUNTS = 1_000;
+  private static final int POOL_SIZE = 4_096;
+
+  @Param({"1000", "100000", "1000000"})
+  public int historySize;
+
+  private TransactionManager transactionManager;
+  private Transaction[] pool;
+  private int cursor;
+
+  @Setup(Level.Trial)
+  public void createPool() {
+    pool = new Transaction[POOL_SIZE];
+    for (int i = 0; i < pool.length; i++) {
+      String type = i % 3 == 0 ? "WITHDRAWAL" : "DEPOSIT";
+      pool[i] = Transaction.ofCents(accountNumber(i % ACCOUNTS), type, 10_00 + i, 100_00);
+    }
+  }
+
+  /** Rebuilt every iteration so appends measured in one iteration do not grow the next. */
+  @Setup(Level.Iteration)
+  public void prefill() {
+    transactionManager = new TransactionManager();
+    for (int i = 0; i < historySize; i++) transactionManager.addTransaction(pool[i % pool.length]);
+  }
+
+  @Benchmark
+  public int addTransaction() {
+    transactionManager.addTransaction(pool[nextIndex() & (POOL_SIZE - 1)]);
+    return transactionManager.getTransactionCount();
+  }
+
+  @Benchmark
+  public double calculateTotalDeposits() {
+    return transactionManager.calculateTotalDeposits();
+  }
+
+  @Benchmark
+  public double calculateTotalWithdrawals() {
+    return transactionManager.calculateTotalWithdrawals();
+  }
+
+  @Benchmark
+  public double getTotalDepositsForAccount() {
+    return transactionManager.getTotalDeposits(accountNumber(nextIndex() % ACCOUNTS));
+  }
+
+  @Benchmark
+  public Transaction[] filterTransactionsByAccount() {
+    return transactionManager.getTransactionsForAccount(accountNumber(nextIndex() % ACCOUNTS));
+  }
+
+  private int nextIndex() {
+    cursor = (cursor + 1) & Integer.MAX_VALUE;
+    return cursor;
+  }
+
+  private static String accountNumber(int index) {
+    return "ACC" + index;
+  }
+}
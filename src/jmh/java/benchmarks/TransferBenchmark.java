@@ -0,0 +1,87 @@
+package benchmarks;
+
+import accounts.Account;
+import accounts.AccountManager;
+import accounts.CheckingAccount;
+import accounts.SavingsAccount;
+import accounts.TransferProcessor;
+import customers.Customer;
+import customers.RegularCustomer;
+import exceptions.BankException;
+import exceptions.InsufficientFundsException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import transactions.TransactionManager;
+
+/**
+ * Throughput of transfers between random pairs of a shared set of accounts, on one thread and on
+ * all of them. Balances are updated under the two account locks only, but both legs are recorded
+ * under the transaction manager's monitor, which bounds how far the total rate can grow.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransferBenchmark {
+
+  private static final int ACCOUNTS = 64;
+
+  /** Accounts shared by every thread, rebuilt each iteration so the history does not pile up. */
+  @State(Scope.Benchmark)
+  public static class Bank {
+    Account[] accounts;
+    TransferProcessor processor;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+      Customer customer = new RegularCustomer("Bench", 30, "555-0000", "1 Bench St");
+      AccountManager accountManager = new AccountManager();
+      accounts = new Account[ACCOUNTS];
+      for (int i = 0; i < ACCOUNTS; i++) {
+        accounts[i] =
+            i % 2 == 0 ? new SavingsAccount(customer, 600.0) : new CheckingAccount(customer, 100.0);
+        accountManager.addAccount(accounts[i]);
+      }
+      processor = new TransferProcessor(accountManager, new TransactionManager());
+    }
+  }
+
+  @Benchmark
+  @Threads(1)
+  public boolean oneThread(Bank bank) throws BankException {
+    return randomTransfer(bank);
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public boolean allThreads(Bank bank) throws BankException {
+    return randomTransfer(bank);
+  }
+
+  /** Transfers a random amount between two distinct random accounts; returns false if refused. */
+  private static boolean randomTransfer(Bank bank) throws BankException {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int source = random.nextInt(ACCOUNTS);
+    int target = (source + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+    try {
+      bank.processor.transfer(
+          bank.accounts[source], bank.accounts[target], random.nextLong(1, 5_000));
+      return true;
+    } catch (InsufficientFundsException refused) {
+      return false;
+    }
+  }
+}
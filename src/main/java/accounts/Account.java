@@ -2,40 +2,101 @@ package accounts;
 
 import customers.Customer;
 import exceptions.BankException;
+import exceptions.InsufficientFundsException;
 import exceptions.InvalidAmountException;
+import java.util.concurrent.locks.ReentrantLock;
+import metrics.Counter;
+import metrics.LatencyHistogram;
+import metrics.MetricsRegistry;
 import transactions.Transactable;
+import transactions.TransactionStatus;
+import transactions.TransactionType;
+import utils.IdAllocator;
+import utils.Money;
 
 /**
  * Abstract base class for bank accounts, implementing {@link Transactable} for transactions.
- * Manages account number, customer, status, and balance.
+ * Manages account number, customer, status, and balance. Balances are held exactly in cents; the
+ * double-based methods are converting views kept for existing callers.
+ *
+ * <p>Every balance mutation runs under a lock owned by the account, so validating and applying a
+ * transaction is one atomic step per account while operations on different accounts never contend.
  */
 public abstract class Account implements Transactable {
   private static final String DEFAULT_STATUS = "Active";
-  private static int accountCounter = 0;
-  private final String accountNumber;
+
+  /** Returned by {@link #withdrawCents(long)} when the account refuses the withdrawal. */
+  public static final long WITHDRAWAL_REJECTED = Long.MIN_VALUE;
+
+  private static final IdAllocator ACCOUNT_IDS = new IdAllocator("ACC");
+  private static final LatencyHistogram TRANSACTION_LATENCY =
+      MetricsRegistry.global().histogram("account_process_transaction_nanos");
+  private static final Counter TRANSACTIONS_REJECTED =
+      MetricsRegistry.global().counter("account_transactions_rejected_total");
+
+  private final long id;
+  private String accountNumber;
   private final Customer customer;
   private final String status;
-  private double balance;
+  private final ReentrantLock lock = new ReentrantLock();
+  private volatile long balance;
+  private volatile int lastClosedPeriod;
 
   Account(Customer customer) {
-    this.accountNumber = generateAccountNumber();
+    this.id = ACCOUNT_IDS.next();
     this.balance = 0;
     this.customer = customer;
     this.status = DEFAULT_STATUS;
   }
 
-  private static String generateAccountNumber() {
-    return "ACC" + String.format("%03d", ++accountCounter);
+  /** Recreates an account saved by an earlier run; its ID is never issued again. */
+  Account(long id, Customer customer, long balanceCents, String status) {
+    ACCOUNT_IDS.advancePast(id);
+    this.id = id;
+    this.balance = balanceCents;
+    this.customer = customer;
+    this.status = status;
+  }
+
+  /** Returns the numeric ID of an account number, or -1 if it is not a generated account number. */
+  static long idOf(String accountNumber) {
+    return ACCOUNT_IDS.parse(accountNumber);
   }
 
   // getters
 
-  public static int getAccountCounter() {
-    return accountCounter;
+  /** Returns the highest account ID reserved so far; see {@link IdAllocator#getHighWaterMark()}. */
+  public static long getAccountCounter() {
+    return ACCOUNT_IDS.getHighWaterMark();
   }
 
+  /** Ensures accounts created from now on get IDs above {@code id}, e.g. after a restore. */
+  public static void advanceAccountCounterPast(long id) {
+    ACCOUNT_IDS.advancePast(id);
+  }
+
+  /**
+   * Ensures accounts created from now on do not reuse {@code accountNumber}, e.g. one named by a
+   * journaled transaction. Numbers that were not generated for an account are ignored.
+   */
+  public static void advanceAccountCounterPast(String accountNumber) {
+    long id = idOf(accountNumber);
+    if (id >= 0) ACCOUNT_IDS.advancePast(id);
+  }
+
+  /** Returns the numeric account ID; unlike the account number, it orders accounts correctly. */
+  public long getId() {
+    return id;
+  }
+
+  /** Returns the display account number, e.g. {@code ACC007}, rendered on first use. */
   public String getAccountNumber() {
-    return accountNumber;
+    String number = accountNumber;
+    if (number == null) {
+      number = ACCOUNT_IDS.format(id);
+      accountNumber = number;
+    }
+    return number;
   }
 
   public Customer getCustomer() {
@@ -46,59 +107,287 @@ public abstract class Account implements Transactable {
     return status;
   }
 
+  /** Returns the balance in major units; a converting view over {@link #getBalanceCents()}. */
   public double getBalance() {
+    return Money.toDouble(balance);
+  }
+
+  /** Returns the exact balance in cents. */
+  public long getBalanceCents() {
     return balance;
   }
 
   // setters
 
   public void setBalance(double balance) {
-    this.balance = balance;
+    setBalanceCents(Money.fromDouble(balance));
+  }
+
+  public void setBalanceCents(long balanceCents) {
+    lock.lock();
+    try {
+      this.balance = balanceCents;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Returns the most recent period closed on this account by period-end processing, as a {@link
+   * PeriodEndProcessor#periodIndex period index}, or 0 if none has been.
+   */
+  public int getLastClosedPeriod() {
+    return lastClosedPeriod;
+  }
+
+  /** Records the most recent period closed on this account, e.g. when restoring it. */
+  public void setLastClosedPeriod(int period) {
+    lock.lock();
+    try {
+      this.lastClosedPeriod = period;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Returns the lock guarding this account's balance; held while validating and applying. */
+  final ReentrantLock getLock() {
+    return lock;
   }
 
   // methods
 
   public void deposit(double amount) {
-    this.balance += amount;
+    depositCents(Money.fromDouble(amount));
+  }
+
+  public void depositCents(long amountCents) {
+    lock.lock();
+    try {
+      this.balance = Money.add(this.balance, amountCents);
+    } finally {
+      lock.unlock();
+    }
   }
 
   public double withdraw(double amount) {
-    this.balance -= amount;
-    return this.balance;
+    long result = withdrawCents(Money.fromDouble(amount));
+    return result == WITHDRAWAL_REJECTED ? -1 : Money.toDouble(result);
+  }
+
+  /**
+   * Withdraws the amount in cents.
+   *
+   * @param amountCents the amount to withdraw in cents
+   * @return the new balance in cents, or {@link #WITHDRAWAL_REJECTED} if a subclass refuses it
+   */
+  public long withdrawCents(long amountCents) {
+    lock.lock();
+    try {
+      this.balance = Money.subtract(this.balance, amountCents);
+      return this.balance;
+    } finally {
+      lock.unlock();
+    }
   }
 
   /**
-   * Processes a deposit or withdrawal transaction after validation.
+   * Processes a transaction of the given kind after validation. Validation and the balance update
+   * happen under the account lock, so concurrent callers cannot both pass the same check.
    *
-   * @param amount the transaction amount (must be positive)
-   * @param type the transaction type ("Deposit" or "Withdrawal")
-   * @throws BankException if validation fails or type is invalid
+   * @param amount the transaction amount; signed for a {@link TransactionType#REVERSAL}
+   * @param type the kind of transaction
+   * @throws BankException if validation fails or the kind cannot be posted directly
    */
   @Override
-  public void processTransaction(double amount, String type) throws BankException {
-    validateAmount(amount, type);
+  public void processTransaction(double amount, TransactionType type) throws BankException {
+    processTransactionCents(toCents(amount), type);
+  }
 
-    if (type.equalsIgnoreCase("Deposit")) this.deposit(amount);
-    else if (type.equalsIgnoreCase("Withdrawal")) this.withdraw(amount);
-    else throw new BankException("Invalid transaction type: " + type);
+  /**
+   * Processes a transaction of an exact amount in cents, resolving the type name once.
+   *
+   * @param amountCents the transaction amount in cents
+   * @param type the transaction type name, e.g. "Deposit" or "Withdrawal", in any case
+   * @throws BankException if validation fails, the type is invalid or the balance would overflow
+   */
+  public void processTransactionCents(long amountCents, String type) throws BankException {
+    TransactionType resolved = TransactionType.of(type);
+    if (resolved == null) throw new BankException("Invalid transaction type: " + type);
+    processTransactionCents(amountCents, resolved);
   }
 
   /**
-   * Validates the transaction amount based on type.
+   * Processes a transaction of an exact amount in cents. A thin wrapper over {@link
+   * #tryProcessCents(long, TransactionType)} that turns a rejection into an exception.
+   *
+   * @param amountCents the transaction amount in cents; signed for a reversal
+   * @param type the kind of transaction
+   * @throws BankException if validation fails, the kind cannot be posted directly or the balance
+   *     would overflow
+   */
+  public void processTransactionCents(long amountCents, TransactionType type) throws BankException {
+    lock.lock();
+    try {
+      byte status = tryProcessCents(amountCents, type);
+      if (status != TransactionStatus.OK) throw rejection(status, amountCents, type);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Processes a transaction given by type name without throwing; see {@link #tryProcessCents(long,
+   * TransactionType)}.
+   *
+   * @param type the transaction type name, e.g. "Deposit" or "Withdrawal", in any case
+   * @return {@link TransactionStatus#INVALID_TYPE} if the name is not a {@link TransactionType}
+   */
+  public byte tryProcessCents(long amountCents, String type) {
+    TransactionType resolved = TransactionType.of(type);
+    if (resolved != null) return tryProcessCents(amountCents, resolved);
+    TRANSACTIONS_REJECTED.increment();
+    return TransactionStatus.INVALID_TYPE;
+  }
+
+  /**
+   * Processes a transaction of an exact amount in cents without throwing. Validation and the
+   * balance update happen under the account lock, as in {@link #processTransactionCents(long,
+   * TransactionType)}, but a rejection is reported as a status code and allocates nothing, so a
+   * feed with many rejects does not pay for building exceptions.
+   *
+   * <p>Deposits and interest credit the account; withdrawals are subject to the account's rules;
+   * fees are charged without those rules but never beyond the balance; a reversal credits a
+   * positive amount like a deposit and debits a negative one like a withdrawal, under the same
+   * rules. Transfers are rejected with {@link TransactionStatus#INVALID_TYPE}: both legs must be
+   * posted by a {@link TransferProcessor}.
+   *
+   * @param amountCents the transaction amount in cents; signed for a reversal
+   * @param type the kind of transaction
+   * @return {@link TransactionStatus#OK} if the balance was updated, otherwise the reason it was
+   *     not
+   */
+  public byte tryProcessCents(long amountCents, TransactionType type) {
+    long started = System.nanoTime();
+    byte status = TransactionStatus.INVALID_TYPE;
+    lock.lock();
+    try {
+      status =
+          switch (type) {
+            case DEPOSIT, INTEREST -> tryDepositCents(amountCents);
+            case WITHDRAWAL -> tryWithdrawCents(amountCents);
+            case FEE -> tryChargeCents(amountCents);
+            case REVERSAL -> tryAdjustCents(amountCents);
+            case TRANSFER_IN, TRANSFER_OUT -> TransactionStatus.INVALID_TYPE;
+          };
+      return status;
+    } finally {
+      lock.unlock();
+      TRANSACTION_LATENCY.recordSince(started);
+      if (status != TransactionStatus.OK) TRANSACTIONS_REJECTED.increment();
+    }
+  }
+
+  private byte tryDepositCents(long amountCents) {
+    if (amountCents <= 0) return TransactionStatus.INVALID_AMOUNT;
+    if (Money.addOverflows(balance, amountCents)) return TransactionStatus.AMOUNT_OUT_OF_RANGE;
+    depositCents(amountCents);
+    return TransactionStatus.OK;
+  }
+
+  private byte tryWithdrawCents(long amountCents) {
+    byte status = checkWithdrawalCents(amountCents);
+    if (status != TransactionStatus.OK) return status;
+    try {
+      if (withdrawCents(amountCents) == WITHDRAWAL_REJECTED) {
+        return TransactionStatus.INSUFFICIENT_FUNDS;
+      }
+    } catch (ArithmeticException e) {
+      return TransactionStatus.AMOUNT_OUT_OF_RANGE;
+    }
+    return TransactionStatus.OK;
+  }
+
+  private byte tryChargeCents(long amountCents) {
+    if (amountCents <= 0) return TransactionStatus.INVALID_AMOUNT;
+    if (amountCents > balance) return TransactionStatus.INSUFFICIENT_FUNDS;
+    this.balance = balance - amountCents;
+    return TransactionStatus.OK;
+  }
+
+  private byte tryAdjustCents(long amountCents) {
+    if (amountCents > 0) return tryDepositCents(amountCents);
+    if (amountCents == 0) return TransactionStatus.INVALID_AMOUNT;
+    if (amountCents == Long.MIN_VALUE) return TransactionStatus.AMOUNT_OUT_OF_RANGE;
+    return tryWithdrawCents(-amountCents);
+  }
+
+  /**
+   * Builds the exception for a rejected transaction. Called with the lock still held, so the
+   * account's own validation can describe the state that caused the rejection.
+   */
+  private BankException rejection(byte status, long amountCents, TransactionType type) {
+    switch (status) {
+      case TransactionStatus.INVALID_AMOUNT, TransactionStatus.INSUFFICIENT_FUNDS -> {
+        try {
+          validateAmountCents(amountCents, type);
+        } catch (BankException e) {
+          return e;
+        } catch (ArithmeticException e) {
+          break;
+        }
+        return new InsufficientFundsException(TransactionStatus.describe(status));
+      }
+      case TransactionStatus.INVALID_TYPE -> {
+        return transferOnly(type);
+      }
+      default -> {}
+    }
+    return new InvalidAmountException("Amount exceeds the supported balance range");
+  }
+
+  /**
+   * Validates the transaction amount for the given kind.
    *
    * @param amount the transaction amount
-   * @param type the transaction type ("Deposit" or "Withdrawal")
-   * @throws BankException if the amount is invalid for the transaction type
+   * @param type the kind of transaction
+   * @throws BankException if the amount is invalid for the kind, or the kind cannot be posted
+   *     directly
    */
   @Override
-  public void validateAmount(double amount, String type) throws BankException {
-    if (type.equalsIgnoreCase("Deposit")) validateDeposit(amount);
+  public void validateAmount(double amount, TransactionType type) throws BankException {
+    validateAmountCents(toCents(amount), type);
+  }
 
-    if (type.equalsIgnoreCase("Withdrawal")) validateWithdrawal(amount);
+  private void validateAmountCents(long amountCents, TransactionType type) throws BankException {
+    switch (type) {
+      case DEPOSIT, INTEREST -> validateDepositCents(amountCents);
+      case WITHDRAWAL -> validateWithdrawalCents(amountCents);
+      case FEE -> {
+        if (amountCents <= 0) throw new InvalidAmountException("Amount must be positive");
+        if (amountCents > balance) {
+          throw new InsufficientFundsException("Insufficient funds for fee");
+        }
+      }
+      case REVERSAL -> {
+        if (amountCents == 0) throw new InvalidAmountException("Amount must not be zero");
+        if (amountCents > 0) validateDepositCents(amountCents);
+        else if (amountCents != Long.MIN_VALUE) validateWithdrawalCents(-amountCents);
+      }
+      case TRANSFER_IN, TRANSFER_OUT -> throw transferOnly(type);
+    }
+  }
+
+  private static BankException transferOnly(TransactionType type) {
+    return new BankException("Invalid transaction type: " + type + " is posted by transfers only");
   }
 
   public void validateDeposit(double amount) throws InvalidAmountException {
-    if (amount <= 0) throw new InvalidAmountException("Amount must be positive");
+    validateDepositCents(toCents(amount));
+  }
+
+  public void validateDepositCents(long amountCents) throws InvalidAmountException {
+    if (amountCents <= 0) throw new InvalidAmountException("Amount must be positive");
   }
 
   public abstract void displayAccountDetails();
@@ -106,4 +395,40 @@ public abstract class Account implements Transactable {
   public abstract String getAccountType();
 
   protected abstract void validateWithdrawal(double amount) throws BankException;
+
+  /**
+   * Validates a withdrawal of an exact amount in cents. Defaults to the double-based check;
+   * concrete accounts override it with exact cent comparisons.
+   */
+  protected void validateWithdrawalCents(long amountCents) throws BankException {
+    validateWithdrawal(Money.toDouble(amountCents));
+  }
+
+  /**
+   * Checks a withdrawal of an exact amount in cents without throwing; called under the lock.
+   * Defaults to translating {@link #validateWithdrawalCents}; concrete accounts override it with
+   * exception-free comparisons and implement the throwing check on top of it.
+   *
+   * @return {@link TransactionStatus#OK} if the account allows the withdrawal
+   */
+  protected byte checkWithdrawalCents(long amountCents) {
+    try {
+      validateWithdrawalCents(amountCents);
+      return TransactionStatus.OK;
+    } catch (InvalidAmountException e) {
+      return TransactionStatus.INVALID_AMOUNT;
+    } catch (BankException e) {
+      return TransactionStatus.INSUFFICIENT_FUNDS;
+    } catch (ArithmeticException e) {
+      return TransactionStatus.AMOUNT_OUT_OF_RANGE;
+    }
+  }
+
+  private static long toCents(double amount) throws InvalidAmountException {
+    try {
+      return Money.fromDouble(amount);
+    } catch (ArithmeticException e) {
+      throw new InvalidAmountException("Amount is out of range: " + amount);
+    }
+  }
 }
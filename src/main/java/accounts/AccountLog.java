@@ -0,0 +1,13 @@
+package accounts;
+
+/** Durable sink that records each account when it is registered with an {@link AccountManager}. */
+public interface AccountLog {
+
+  /**
+   * Records a newly registered account, with its customer, terms and opening balance.
+   *
+   * @param account the account being registered
+   * @throws java.io.UncheckedIOException if the account could not be recorded
+   */
+  void append(Account account);
+}
@@ -1,71 +1,191 @@
 package accounts;
 
 import exceptions.AccountNotFoundException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import metrics.Counter;
+import metrics.LatencyHistogram;
+import metrics.MetricsRegistry;
 import utils.ConsoleTablePrinter;
+import utils.IdIndex;
 import utils.InputReader;
+import utils.Money;
+import utils.Page;
+import utils.PagedView;
 import utils.TablePrinter;
 
-/** Manages a collection of bank accounts with fixed capacity. */
+/**
+ * Manages a growable collection of bank accounts.
+ *
+ * <p>Accounts are kept in insertion order and indexed by numeric account ID in an {@link IdIndex},
+ * so lookups take constant time regardless of how many accounts are registered. An account number
+ * is parsed back to its ID instead of being hashed as a string.
+ *
+ * <p>The manager is thread-safe. Registrations hold a write lock; lookups read the index
+ * optimistically without locking and retry under the read lock only if a registration ran at the
+ * same time, so concurrent sessions looking up accounts never contend with each other.
+ */
 public class AccountManager {
-  private static final int MAX_ACCOUNTS = 50;
-
-  private final Account[] accounts;
-  private int accountCount;
+  private static final int INITIAL_CAPACITY = 64;
+  private static final LatencyHistogram LOOKUP_LATENCY =
+      MetricsRegistry.global().histogram("account_lookup_nanos");
+  private static final Counter LOOKUP_MISSES =
+      MetricsRegistry.global().counter("account_lookup_misses_total");
+
+  private final StampedLock lock = new StampedLock();
+  private final IdIndex<Account> accounts =
+      new IdIndex<>(new Account[INITIAL_CAPACITY], Account::getId);
   private final TablePrinter printer;
+  private AccountLog accountLog;
 
   public AccountManager() {
-    this.accounts = new Account[MAX_ACCOUNTS];
-    this.accountCount = 0;
     this.printer = new ConsoleTablePrinter();
   }
 
   public int getAccountCount() {
-    return accountCount;
+    return accounts.size();
+  }
+
+  /**
+   * Attaches a durable log that records every subsequently registered account. Attach it after
+   * restoring the log's accounts so restored accounts are not recorded twice.
+   *
+   * @param accountLog the log to write to, or null to stop logging
+   */
+  public void setAccountLog(AccountLog accountLog) {
+    long stamp = lock.writeLock();
+    try {
+      this.accountLog = accountLog;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
   }
 
+  /**
+   * Registers an account, growing the underlying storage and index as needed. The account is
+   * recorded in the attached log first, so it is not registered if recording it fails.
+   *
+   * @throws java.io.UncheckedIOException if the attached log cannot record the account
+   */
   public void addAccount(Account account) {
-    if (accountCount < MAX_ACCOUNTS) this.accounts[this.accountCount++] = account;
-    else System.out.println("Account limit reached.");
+    long stamp = lock.writeLock();
+    try {
+      if (accountLog != null) accountLog.append(account);
+      accounts.add(account);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /** Returns the registered accounts in insertion order, as of the call. */
+  Account[] accountsSnapshot() {
+    long stamp = lock.readLock();
+    try {
+      return accounts.copyOfRange(0, accounts.size());
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /** Makes room for at least {@code capacity} accounts at once, e.g. before a bulk restore. */
+  public void ensureCapacity(int capacity) {
+    long stamp = lock.writeLock();
+    try {
+      accounts.ensureCapacity(capacity);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
   }
 
+  /**
+   * Finds an account by number; a thin wrapper over {@link #tryFindAccount} for callers that treat
+   * an unknown number as an error.
+   *
+   * @throws AccountNotFoundException if no account has that number
+   */
   public Account findAccount(String accountNumber) throws AccountNotFoundException {
-    for (int i = 0; i < this.accountCount; i++) {
-      if (this.accounts[i].getAccountNumber().equals(accountNumber)) {
-        return this.accounts[i];
+    Account account = tryFindAccount(accountNumber);
+    if (account != null) return account;
+    throw new AccountNotFoundException("Account with number " + accountNumber + " not found.");
+  }
+
+  /**
+   * Finds an account by number without throwing, so looking up unknown numbers, e.g. in a feed with
+   * many bad references, allocates nothing.
+   *
+   * @return the account, or null if no account has that number
+   */
+  public Account tryFindAccount(String accountNumber) {
+    long started = System.nanoTime();
+    long id = Account.idOf(accountNumber);
+    Account account = null;
+    if (id >= 0) {
+      long stamp = lock.tryOptimisticRead();
+      account = accounts.find(id);
+      if (!lock.validate(stamp)) {
+        stamp = lock.readLock();
+        try {
+          account = accounts.find(id);
+        } finally {
+          lock.unlockRead(stamp);
+        }
       }
     }
-    throw new AccountNotFoundException("Account with number " + accountNumber + " not found.");
+    LOOKUP_LATENCY.recordSince(started);
+    if (account == null) LOOKUP_MISSES.increment();
+    return account;
   }
 
   /**
-   * Displays a tabular view of all accounts and summary statistics.
+   * Returns up to {@code pageSize} accounts in registration order, starting at the cursor.
    *
-   * @param inputReader used to pause execution after display
+   * @param cursor {@link Page#FIRST} or the {@code nextCursor} of a previous page
+   * @param pageSize the maximum number of accounts to return
+   * @return the page and the cursor of the account after it
+   * @throws IllegalArgumentException if the cursor or page size is invalid
    */
-  public void viewAllAccounts(InputReader inputReader) {
-    String[] headers = {"ACCOUNT NUMBER", "CUSTOMER NAME", "TYPE", "BALANCE", "STATUS"};
+  public Page<Account> getAccountsPage(long cursor, int pageSize) {
+    long stamp = lock.readLock();
+    try {
+      int count = accounts.size();
+      Page.checkRequest(cursor, pageSize, count);
+      int from = (int) cursor;
+      int to = (int) Math.min(count, from + (long) pageSize);
+      List<Account> items = Arrays.asList(accounts.copyOfRange(from, to));
+      return new Page<>(items, to, to < count);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
 
-    if (accountCount == 0) {
+  /**
+   * Displays a tabular view of the accounts one page at a time, with summary statistics.
+   *
+   * @param inputReader used to choose pages and pause execution after display
+   */
+  public void viewAllAccounts(InputReader inputReader) {
+    if (accounts.size() == 0) {
       System.out.println("No accounts available.");
       inputReader.waitForEnter();
       return;
     }
 
-    String[][] data = buildTableData();
+    PagedView.browse(this::getAccountCount, this::showAccountsPage, inputReader);
+  }
 
-    printer.printTable(headers, data);
+  private void showAccountsPage(long cursor) {
+    String[] headers = {"ACCOUNT NUMBER", "CUSTOMER NAME", "TYPE", "BALANCE", "STATUS"};
+    printer.printTable(headers, buildTableData(getAccountsPage(cursor, PagedView.PAGE_SIZE)));
 
     System.out.println();
-    System.out.println("Total Accounts: " + this.accountCount);
-    System.out.println("Total Bank Balance: $" + getTotalBalance());
-
-    inputReader.waitForEnter();
+    System.out.println("Total Accounts: " + accounts.size());
+    System.out.println("Total Bank Balance: $" + Money.format(getTotalBalanceCents()));
   }
 
-  /** Constructs a 2D array of formatted account data for tabular display. */
-  private String[][] buildTableData() {
-    return java.util.stream.IntStream.range(0, this.accountCount)
-        .mapToObj(i -> this.accounts[i])
+  /** Constructs a 2D array of formatted account data for one page of the table. */
+  private String[][] buildTableData(Page<Account> page) {
+    return page.items().stream()
         .map(
             acc ->
                 new String[] {
@@ -79,7 +199,7 @@ public class AccountManager {
   }
 
   private String formatAccountBalance(Account account) {
-    return "$" + String.format("%.2f", account.getBalance());
+    return "$" + Money.format(account.getBalanceCents());
   }
 
   /** Formats customer name with account-specific details (overdraft limit or interest rate). */
@@ -109,9 +229,15 @@ public class AccountManager {
   }
 
   public double getTotalBalance() {
-    double totalBalance = 0;
-    for (int i = 0; i < this.accountCount; i++) totalBalance += this.accounts[i].getBalance();
+    return Money.toDouble(getTotalBalanceCents());
+  }
 
+  /** Returns the exact sum of all account balances in cents. */
+  public long getTotalBalanceCents() {
+    long totalBalance = 0;
+    for (Account account : accountsSnapshot()) {
+      totalBalance = Money.add(totalBalance, account.getBalanceCents());
+    }
     return totalBalance;
   }
 }
@@ -0,0 +1,125 @@
+package accounts;
+
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import transactions.Transaction;
+import transactions.TransactionManager;
+import transactions.TransactionStatus;
+import transactions.TransactionType;
+
+/**
+ * Applies large batches of deposit and withdrawal instructions, e.g. from an end-of-day feed. Fees
+ * and interest are accepted too. Reversals and transfer legs are rejected with {@link
+ * TransactionStatus#INVALID_TYPE}: a reversal must name the transaction it undoes, so it is posted
+ * by a {@link ReversalProcessor}, and a transfer needs two accounts, so it is posted by a {@link
+ * TransferProcessor}.
+ *
+ * <p>Each distinct account number is resolved once, instructions are grouped by account, and each
+ * group is applied in input order while holding that account's lock. Lookups and transactions use
+ * the non-throwing {@link AccountManager#tryFindAccount} and {@link Account#tryProcessCents}, so
+ * rejected items are reported as {@link TransactionStatus} codes without building exceptions, and
+ * nothing is printed. An item whose transaction cannot be recorded, e.g. because the journal cannot
+ * be written, has its balance change undone and is reported as {@link
+ * TransactionStatus#NOT_RECORDED}.
+ */
+public class BatchProcessor {
+
+  private final AccountManager accountManager;
+  private final TransactionManager transactionManager;
+
+  public BatchProcessor(AccountManager accountManager, TransactionManager transactionManager) {
+    this.accountManager = accountManager;
+    this.transactionManager = transactionManager;
+  }
+
+  /**
+   * Processes a batch of instructions given as parallel arrays. Accepted instructions are recorded
+   * in the transaction history grouped by account; within an account they keep their input order.
+   *
+   * @param accountNumbers the account of each instruction
+   * @param types the {@link TransactionType} name of each instruction, e.g. "Deposit", any case
+   * @param amountsCents the amount of each instruction in cents
+   * @return one {@link TransactionStatus} code per instruction, in input order
+   * @throws IllegalArgumentException if the arrays differ in length
+   */
+  public byte[] processBatch(String[] accountNumbers, String[] types, long[] amountsCents) {
+    int count = accountNumbers.length;
+    if (types.length != count || amountsCents.length != count) {
+      throw new IllegalArgumentException("Batch arrays must have the same length");
+    }
+
+    // Resolve each distinct account once and assign it a group in first-seen order.
+    Map<String, Integer> groupByAccount = new HashMap<>();
+    Account[] groupAccounts = new Account[count];
+    int[] groupSizes = new int[count + 1];
+    int[] groupOf = new int[count];
+    int groupCount = 0;
+    for (int i = 0; i < count; i++) {
+      Integer group = groupByAccount.get(accountNumbers[i]);
+      if (group == null) {
+        group = groupCount++;
+        groupByAccount.put(accountNumbers[i], group);
+        groupAccounts[group] = accountManager.tryFindAccount(accountNumbers[i]);
+      }
+      groupOf[i] = group;
+      groupSizes[group + 1]++;
+    }
+
+    // Counting sort of instruction indexes by group keeps input order inside each group.
+    for (int g = 0; g < groupCount; g++) groupSizes[g + 1] += groupSizes[g];
+    int[] order = new int[count];
+    int[] next = groupSizes.clone();
+    for (int i = 0; i < count; i++) order[next[groupOf[i]]++] = i;
+
+    byte[] results = new byte[count];
+    for (int g = 0; g < groupCount; g++) {
+      Account account = groupAccounts[g];
+      int from = groupSizes[g];
+      int to = groupSizes[g + 1];
+      if (account == null) {
+        for (int k = from; k < to; k++) results[order[k]] = TransactionStatus.ACCOUNT_NOT_FOUND;
+        continue;
+      }
+
+      account.getLock().lock();
+      try {
+        for (int k = from; k < to; k++) {
+          int i = order[k];
+          results[i] = apply(account, types[i], amountsCents[i]);
+        }
+      } finally {
+        account.getLock().unlock();
+      }
+    }
+    return results;
+  }
+
+  private byte apply(Account account, String type, long amountCents) {
+    TransactionType resolved = TransactionType.of(type);
+    if (resolved == null
+        || resolved == TransactionType.REVERSAL
+        || resolved == TransactionType.TRANSFER_IN
+        || resolved == TransactionType.TRANSFER_OUT) {
+      return TransactionStatus.INVALID_TYPE;
+    }
+
+    long balanceBefore = account.getBalanceCents();
+    byte status = account.tryProcessCents(amountCents, resolved);
+    if (status != TransactionStatus.OK) return status;
+
+    // The caller holds the account lock, so undoing the balance change cannot lose another update.
+    try {
+      transactionManager.addTransaction(
+          Transaction.ofCents(
+              account.getAccountNumber(), resolved, amountCents, account.getBalanceCents()));
+      return TransactionStatus.OK;
+    } catch (ArithmeticException e) {
+      account.setBalanceCents(balanceBefore);
+      return TransactionStatus.AMOUNT_OUT_OF_RANGE;
+    } catch (UncheckedIOException | IllegalStateException | IllegalArgumentException e) {
+      account.setBalanceCents(balanceBefore);
+      return TransactionStatus.NOT_RECORDED;
+    }
+  }
+}
@@ -1,17 +1,21 @@
 package accounts;
 
 import customers.Customer;
+import customers.PremiumCustomer;
 import exceptions.InsufficientFundsException;
+import exceptions.InvalidAmountException;
+import transactions.TransactionStatus;
+import utils.Money;
 
 /** Represents a checking account with overdraft protection and monthly fees. */
 public class CheckingAccount extends Account {
 
-  private final double overdraftLimit;
-  private final double monthlyFee;
+  private final long overdraftLimit;
+  private final long monthlyFee;
 
   private static final String ACCOUNT_TYPE = "Checking";
-  private static final double OVERDRAFT_LIMIT = 1_000.0;
-  private static final double MONTHLY_FEE = 10.0;
+  private static final long OVERDRAFT_LIMIT = 1_000_00;
+  private static final long MONTHLY_FEE = 10_00;
 
   public CheckingAccount(Customer customer, double initialDeposit) {
     super(customer);
@@ -20,33 +24,93 @@ public class CheckingAccount extends Account {
     this.monthlyFee = MONTHLY_FEE;
   }
 
+  private CheckingAccount(
+      long id,
+      Customer customer,
+      long balanceCents,
+      String status,
+      long overdraftLimitCents,
+      long monthlyFeeCents) {
+    super(id, customer, balanceCents, status);
+    this.overdraftLimit = overdraftLimitCents;
+    this.monthlyFee = monthlyFeeCents;
+  }
+
+  /**
+   * Recreates a checking account saved by an earlier run, e.g. from a snapshot, keeping its ID,
+   * balance and terms.
+   *
+   * @return the restored account
+   */
+  public static CheckingAccount restore(
+      long id,
+      Customer customer,
+      long balanceCents,
+      String status,
+      long overdraftLimitCents,
+      long monthlyFeeCents) {
+    return new CheckingAccount(
+        id, customer, balanceCents, status, overdraftLimitCents, monthlyFeeCents);
+  }
+
   public double getMonthlyFee() {
-    return monthlyFee;
+    return Money.toDouble(monthlyFee);
   }
 
   public double getOverdraftLimit() {
+    return Money.toDouble(overdraftLimit);
+  }
+
+  public long getMonthlyFeeCents() {
+    return monthlyFee;
+  }
+
+  public long getOverdraftLimitCents() {
     return overdraftLimit;
   }
 
-  /** Deducts the monthly fee from the account balance if sufficient funds exist. */
-  public void applyMonthlyFee() {
-    if (getBalance() > this.monthlyFee) {
-      this.setBalance(this.getBalance() - this.monthlyFee);
+  /**
+   * Deducts the monthly fee from the account balance if sufficient funds exist and the customer's
+   * fees are not waived.
+   *
+   * @return the fee charged in cents, or 0 if none was charged
+   */
+  public long applyMonthlyFee() {
+    if (hasWaivedFees()) return 0;
+    getLock().lock();
+    try {
+      if (getBalanceCents() > this.monthlyFee) {
+        this.setBalanceCents(Money.subtract(getBalanceCents(), this.monthlyFee));
+        return this.monthlyFee;
+      }
+      return 0;
+    } finally {
+      getLock().unlock();
     }
   }
 
+  /** Returns true if the account holder is a premium customer, whose monthly fees are waived. */
+  public boolean hasWaivedFees() {
+    return getCustomer() instanceof PremiumCustomer premium && premium.hasWaivedFees();
+  }
+
   /**
    * Withdraws the specified amount, allowing overdraft up to the limit.
    *
-   * @param amount the amount to withdraw
-   * @return the new balance if successful, or -1 if overdraft limit exceeded
+   * @param amountCents the amount to withdraw in cents
+   * @return the new balance in cents, or {@link #WITHDRAWAL_REJECTED} if overdraft limit exceeded
    */
   @java.lang.Override
-  public double withdraw(double amount) {
-    if (amount - this.getBalance() < this.overdraftLimit) {
-      return super.withdraw(amount);
+  public long withdrawCents(long amountCents) {
+    getLock().lock();
+    try {
+      if (Money.subtract(amountCents, this.getBalanceCents()) <= this.overdraftLimit) {
+        return super.withdrawCents(amountCents);
+      }
+      return WITHDRAWAL_REJECTED;
+    } finally {
+      getLock().unlock();
     }
-    return -1;
   }
 
   @java.lang.Override
@@ -73,11 +137,32 @@ public class CheckingAccount extends Account {
    *
    * @param amount the amount to withdraw
    * @throws InsufficientFundsException if the withdrawal would exceed the overdraft limit
+   * @throws InvalidAmountException if the resulting balance would be out of range
    */
   @Override
-  protected void validateWithdrawal(double amount) throws InsufficientFundsException {
-    if (amount - this.getBalance() > this.overdraftLimit) {
+  protected void validateWithdrawal(double amount)
+      throws InsufficientFundsException, InvalidAmountException {
+    validateWithdrawalCents(Money.fromDouble(amount));
+  }
+
+  @Override
+  protected void validateWithdrawalCents(long amountCents)
+      throws InsufficientFundsException, InvalidAmountException {
+    byte status = checkWithdrawalCents(amountCents);
+    if (status == TransactionStatus.AMOUNT_OUT_OF_RANGE) {
+      throw new InvalidAmountException("Amount exceeds the supported balance range");
+    }
+    if (status != TransactionStatus.OK) {
       throw new InsufficientFundsException("Withdrawal amount exceeds overdraft limit.");
     }
   }
+
+  @Override
+  protected byte checkWithdrawalCents(long amountCents) {
+    long balance = this.getBalanceCents();
+    if (Money.subtractOverflows(amountCents, balance)) return TransactionStatus.AMOUNT_OUT_OF_RANGE;
+    return amountCents - balance > this.overdraftLimit
+        ? TransactionStatus.INSUFFICIENT_FUNDS
+        : TransactionStatus.OK;
+  }
 }
@@ -0,0 +1,189 @@
+package accounts;
+
+import java.time.YearMonth;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import transactions.Transaction;
+import transactions.TransactionManager;
+import transactions.TransactionType;
+
+/**
+ * Closes a monthly period on every account: charges checking account fees, except where the
+ * customer's fees are waived, and credits savings account interest. Both are recorded as {@code
+ * FEE} and {@code INTEREST} transactions.
+ *
+ * <p>The accounts are split into ranges that a {@link ForkJoinPool} sweeps on all cores. Each
+ * account is locked only while its own period is closed and its posting is recorded, so tellers
+ * keep working during the run and the history and journal see each account's postings in balance
+ * order. Every account remembers the last period closed on it, which makes a rerun of the same
+ * period (e.g. after a crash) skip the accounts that were already done. The close is recorded in
+ * the transaction log right after the account's postings, so a journal replay restores it even if
+ * no snapshot was written since.
+ */
+public class PeriodEndProcessor {
+
+  /** Accounts per fork-join leaf; large enough to amortise the cost of a task. */
+  private static final int LEAF_SIZE = 1024;
+
+  private final AccountManager accountManager;
+  private final TransactionManager transactionManager;
+  private final ForkJoinPool pool;
+
+  public PeriodEndProcessor(AccountManager accountManager, TransactionManager transactionManager) {
+    this(accountManager, transactionManager, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Creates a processor that runs on the given pool.
+   *
+   * @param pool the pool whose parallelism bounds the number of accounts closed at once
+   */
+  public PeriodEndProcessor(
+      AccountManager accountManager, TransactionManager transactionManager, ForkJoinPool pool) {
+    this.accountManager = accountManager;
+    this.transactionManager = transactionManager;
+    this.pool = pool;
+  }
+
+  /** Returns the index stored as an account's last closed period; it increases month by month. */
+  public static int periodIndex(YearMonth period) {
+    return period.getYear() * 12 + period.getMonthValue();
+  }
+
+  /**
+   * Closes the period on every account registered when the call starts. Accounts whose last closed
+   * period is this one or later are skipped.
+   *
+   * @param period the month being closed
+   * @return counts and totals of the run
+   */
+  public Result closePeriod(YearMonth period) {
+    long started = System.nanoTime();
+    Account[] accounts = accountManager.accountsSnapshot();
+    Totals totals = pool.invoke(new Sweep(accounts, 0, accounts.length, periodIndex(period)));
+    return new Result(
+        period,
+        accounts.length,
+        totals.skipped,
+        totals.feesCharged,
+        totals.feeCents,
+        totals.interestPosted,
+        totals.interestCents,
+        System.nanoTime() - started);
+  }
+
+  /**
+   * Outcome of closing a period.
+   *
+   * @param period the month closed
+   * @param accounts number of accounts swept
+   * @param skipped number of accounts on which the period was already closed
+   * @param feesCharged number of monthly fees charged
+   * @param feeCents total fees charged, in cents
+   * @param interestPosted number of interest credits posted
+   * @param interestCents total interest credited, in cents
+   * @param elapsedNanos wall-clock time of the run
+   */
+  public record Result(
+      YearMonth period,
+      int accounts,
+      int skipped,
+      int feesCharged,
+      long feeCents,
+      int interestPosted,
+      long interestCents,
+      long elapsedNanos) {
+
+    /** Returns the number of accounts swept per second. */
+    public double accountsPerSecond() {
+      return elapsedNanos == 0 ? 0 : accounts * 1e9 / elapsedNanos;
+    }
+  }
+
+  // ==================== SWEEP ====================
+
+  /** Closes the period on one account, recording its posting before releasing the lock. */
+  private void close(Account account, int period, Totals totals) {
+    account.getLock().lock();
+    try {
+      if (account.getLastClosedPeriod() >= period) {
+        totals.skipped++;
+        return;
+      }
+      if (account instanceof CheckingAccount checking) {
+        long fee = checking.applyMonthlyFee();
+        if (fee > 0) {
+          totals.feesCharged++;
+          totals.feeCents += fee;
+          post(account, TransactionType.FEE, fee);
+        }
+      } else if (account instanceof SavingsAccount savings) {
+        long interest = savings.applyMonthlyInterest();
+        if (interest > 0) {
+          totals.interestPosted++;
+          totals.interestCents += interest;
+          post(account, TransactionType.INTEREST, interest);
+        }
+      }
+      account.setLastClosedPeriod(period);
+      transactionManager.recordPeriodClose(account.getAccountNumber(), period);
+    } finally {
+      account.getLock().unlock();
+    }
+  }
+
+  private void post(Account account, TransactionType type, long amountCents) {
+    transactionManager.addTransaction(
+        Transaction.ofCents(
+            account.getAccountNumber(), type, amountCents, account.getBalanceCents()));
+  }
+
+  private final class Sweep extends RecursiveTask<Totals> {
+    private static final long serialVersionUID = 1L;
+
+    private final Account[] accounts;
+    private final int from;
+    private final int to;
+    private final int period;
+
+    Sweep(Account[] accounts, int from, int to, int period) {
+      this.accounts = accounts;
+      this.from = from;
+      this.to = to;
+      this.period = period;
+    }
+
+    @Override
+    protected Totals compute() {
+      if (to - from > LEAF_SIZE) {
+        int middle = (from + to) >>> 1;
+        Sweep left = new Sweep(accounts, from, middle, period);
+        left.fork();
+        Totals right = new Sweep(accounts, middle, to, period).compute();
+        return left.join().add(right);
+      }
+
+      Totals totals = new Totals();
+      for (int i = from; i < to; i++) close(accounts[i], period, totals);
+      return totals;
+    }
+  }
+
+  /** Per-task counters, summed as tasks join. */
+  private static final class Totals {
+    int skipped;
+    int feesCharged;
+    long feeCents;
+    int interestPosted;
+    long interestCents;
+
+    Totals add(Totals other) {
+      skipped += other.skipped;
+      feesCharged += other.feesCharged;
+      feeCents += other.feeCents;
+      interestPosted += other.interestPosted;
+      interestCents += other.interestCents;
+      return this;
+    }
+  }
+}
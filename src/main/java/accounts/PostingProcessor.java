@@ -0,0 +1,47 @@
+package accounts;
+
+import exceptions.BankException;
+import transactions.Transaction;
+import transactions.TransactionManager;
+import transactions.TransactionType;
+
+/**
+ * Posts a single deposit, withdrawal or fee to an account and records it in the history.
+ *
+ * <p>The account is locked while the amount is applied, the transaction is built from the resulting
+ * balance and the transaction is recorded, as {@link TransferProcessor} and {@link
+ * PeriodEndProcessor} do. Concurrent postings to one account therefore each record the balance they
+ * produced, and the history and journal see them in balance order.
+ */
+public class PostingProcessor {
+
+  private final TransactionManager transactionManager;
+
+  public PostingProcessor(TransactionManager transactionManager) {
+    this.transactionManager = transactionManager;
+  }
+
+  /**
+   * Applies a posting to an account and records it.
+   *
+   * @param account the account to post to
+   * @param type the kind of posting
+   * @param amountCents the amount in cents
+   * @return the transaction added to the history
+   * @throws BankException if the account's rules refuse the posting
+   */
+  public Transaction post(Account account, TransactionType type, long amountCents)
+      throws BankException {
+    account.getLock().lock();
+    try {
+      account.processTransactionCents(amountCents, type);
+      Transaction transaction =
+          Transaction.ofCents(
+              account.getAccountNumber(), type, amountCents, account.getBalanceCents());
+      transactionManager.addTransaction(transaction);
+      return transaction;
+    } finally {
+      account.getLock().unlock();
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package accounts;
+
+import exceptions.AccountNotFoundException;
+import exceptions.BankException;
+import exceptions.InsufficientFundsException;
+import transactions.Transaction;
+import transactions.TransactionManager;
+import transactions.TransactionType;
+
+/**
+ * Undoes an earlier deposit, withdrawal, fee, interest credit or reversal by posting a {@code
+ * REVERSAL} with the opposite effect on the same account.
+ *
+ * <p>The reversal records the ID of the transaction it undoes, and each transaction can be reversed
+ * at most once. It is applied like a deposit or a withdrawal of its amount, so the account's rules
+ * (minimum balance, overdraft limit) still hold. The account is locked while the original is
+ * checked, the balance is updated and the reversal is recorded, so two tellers reversing the same
+ * transaction cannot both succeed. Transfers are undone by transferring back.
+ */
+public class ReversalProcessor {
+
+  private final AccountManager accountManager;
+  private final TransactionManager transactionManager;
+
+  public ReversalProcessor(AccountManager accountManager, TransactionManager transactionManager) {
+    this.accountManager = accountManager;
+    this.transactionManager = transactionManager;
+  }
+
+  /**
+   * Reverses one of an account's transactions.
+   *
+   * @param accountNumber the account the transaction was posted to
+   * @param transactionId the display ID of the transaction to undo
+   * @return the reversal added to the history
+   * @throws AccountNotFoundException if the account does not exist
+   * @throws InsufficientFundsException if the account's rules refuse the reversing debit
+   * @throws BankException if the account has no such transaction, it was already reversed or it is
+   *     a transfer leg
+   */
+  public Transaction reverse(String accountNumber, String transactionId) throws BankException {
+    Account account = accountManager.findAccount(accountNumber);
+    String number = account.getAccountNumber();
+    account.getLock().lock();
+    try {
+      Transaction original = transactionManager.findTransaction(number, transactionId);
+      if (original == null) {
+        throw new BankException("Transaction " + transactionId + " not found on " + number);
+      }
+      if (transactionManager.isReversed(original)) {
+        throw new BankException("Transaction " + transactionId + " was already reversed");
+      }
+      long amountCents;
+      try {
+        amountCents = Transaction.reversalAmountOf(original);
+      } catch (IllegalArgumentException e) {
+        throw new BankException(e.getMessage());
+      }
+
+      account.processTransactionCents(amountCents, TransactionType.REVERSAL);
+      Transaction reversal = Transaction.reversalOf(original, account.getBalanceCents());
+      transactionManager.addTransaction(reversal);
+      return reversal;
+    } finally {
+      account.getLock().unlock();
+    }
+  }
+}
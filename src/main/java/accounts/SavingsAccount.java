@@ -2,15 +2,18 @@ package accounts;
 
 import customers.Customer;
 import exceptions.InsufficientFundsException;
+import exceptions.InvalidAmountException;
+import transactions.TransactionStatus;
+import utils.Money;
 
 /** Represents a savings account with an interest rate and a minimum balance requirement. */
 public class SavingsAccount extends Account {
 
   private final double interestRate;
-  private final double minimumBalance;
+  private final long minimumBalance;
 
   private static final double INTEREST_RATE = 3.5;
-  private static final double MINIMUM_BALANCE = 500.0;
+  private static final long MINIMUM_BALANCE = 500_00;
   private static final String ACCOUNT_TYPE = "Savings";
 
   public SavingsAccount(Customer customer, double initialDeposit) {
@@ -20,11 +23,44 @@ public class SavingsAccount extends Account {
     this.minimumBalance = MINIMUM_BALANCE;
   }
 
+  private SavingsAccount(
+      long id,
+      Customer customer,
+      long balanceCents,
+      String status,
+      double interestRate,
+      long minimumBalanceCents) {
+    super(id, customer, balanceCents, status);
+    this.interestRate = interestRate;
+    this.minimumBalance = minimumBalanceCents;
+  }
+
+  /**
+   * Recreates a savings account saved by an earlier run, e.g. from a snapshot, keeping its ID,
+   * balance and terms.
+   *
+   * @return the restored account
+   */
+  public static SavingsAccount restore(
+      long id,
+      Customer customer,
+      long balanceCents,
+      String status,
+      double interestRate,
+      long minimumBalanceCents) {
+    return new SavingsAccount(
+        id, customer, balanceCents, status, interestRate, minimumBalanceCents);
+  }
+
   public double getInterestRate() {
     return interestRate;
   }
 
   public double getMinimumBalance() {
+    return Money.toDouble(minimumBalance);
+  }
+
+  public long getMinimumBalanceCents() {
     return minimumBalance;
   }
 
@@ -33,19 +69,51 @@ public class SavingsAccount extends Account {
     return this.getBalance() * this.interestRate;
   }
 
+  /**
+   * Calculates one month's interest on the current balance, treating the interest rate as an annual
+   * percentage. Rounded to the nearest cent; 0 for a balance that is not positive.
+   *
+   * @return the interest in cents
+   */
+  public long calculateMonthlyInterestCents() {
+    long balance = getBalanceCents();
+    return balance <= 0 ? 0 : Math.round(balance * this.interestRate / 1200.0);
+  }
+
+  /**
+   * Credits one month's interest to the balance.
+   *
+   * @return the interest credited in cents
+   */
+  public long applyMonthlyInterest() {
+    getLock().lock();
+    try {
+      long interest = calculateMonthlyInterestCents();
+      if (interest > 0) depositCents(interest);
+      return interest;
+    } finally {
+      getLock().unlock();
+    }
+  }
+
   /**
    * Withdraws the specified amount from the account, ensuring the minimum balance is maintained.
    *
-   * @param amount the amount to withdraw
-   * @return the new balance after withdrawal, or -1 if withdrawal would breach minimum balance
+   * @param amountCents the amount to withdraw in cents
+   * @return the new balance in cents, or {@link #WITHDRAWAL_REJECTED} if withdrawal would breach
+   *     minimum balance
    */
   @java.lang.Override
-  public double withdraw(double amount) {
-
-    if (this.getBalance() - amount >= this.minimumBalance) {
-      return super.withdraw(amount);
+  public long withdrawCents(long amountCents) {
+    getLock().lock();
+    try {
+      if (Money.subtract(this.getBalanceCents(), amountCents) >= this.minimumBalance) {
+        return super.withdrawCents(amountCents);
+      }
+      return WITHDRAWAL_REJECTED;
+    } finally {
+      getLock().unlock();
     }
-    return -1;
   }
 
   @java.lang.Override
@@ -58,7 +126,7 @@ public class SavingsAccount extends Account {
     System.out.println("Account Type: " + this.getAccountType());
     System.out.println("Current Balance: " + this.getBalance());
     System.out.println("Interest Rate: " + this.interestRate);
-    System.out.println("Minimum Balance: " + this.minimumBalance);
+    System.out.println("Minimum Balance: " + this.getMinimumBalance());
     System.out.println("Interest: " + this.calculateInterest());
     System.out.println("+--------------------------+");
   }
@@ -74,15 +142,36 @@ public class SavingsAccount extends Account {
    * @param amount the amount to withdraw
    * @throws InsufficientFundsException if the withdrawal would result in a balance below the
    *     minimum
+   * @throws InvalidAmountException if the resulting balance would be out of range
    */
   @Override
-  protected void validateWithdrawal(double amount) throws InsufficientFundsException {
-    if (this.getBalance() - amount < this.minimumBalance) {
+  protected void validateWithdrawal(double amount)
+      throws InsufficientFundsException, InvalidAmountException {
+    validateWithdrawalCents(Money.fromDouble(amount));
+  }
+
+  @Override
+  protected void validateWithdrawalCents(long amountCents)
+      throws InsufficientFundsException, InvalidAmountException {
+    byte status = checkWithdrawalCents(amountCents);
+    if (status == TransactionStatus.AMOUNT_OUT_OF_RANGE) {
+      throw new InvalidAmountException("Amount exceeds the supported balance range");
+    }
+    if (status != TransactionStatus.OK) {
       throw new InsufficientFundsException(
           "Transaction Failed: Insufficient funds to maintain minimum balance. Current Balance: "
               + this.getBalance()
               + ", Minimum Required Balance: "
-              + this.minimumBalance);
+              + this.getMinimumBalance());
     }
   }
+
+  @Override
+  protected byte checkWithdrawalCents(long amountCents) {
+    long balance = this.getBalanceCents();
+    if (Money.subtractOverflows(balance, amountCents)) return TransactionStatus.AMOUNT_OUT_OF_RANGE;
+    return balance - amountCents < this.minimumBalance
+        ? TransactionStatus.INSUFFICIENT_FUNDS
+        : TransactionStatus.OK;
+  }
 }
@@ -0,0 +1,131 @@
+package accounts;
+
+import exceptions.AccountNotFoundException;
+import exceptions.BankException;
+import exceptions.InsufficientFundsException;
+import exceptions.InvalidAmountException;
+import metrics.Counter;
+import metrics.LatencyHistogram;
+import metrics.MetricsRegistry;
+import transactions.Transaction;
+import transactions.TransactionManager;
+import transactions.TransactionType;
+import utils.Money;
+
+/**
+ * Moves money between two accounts in one atomic step.
+ *
+ * <p>Both accounts' locks are taken in ascending account ID order, so transfers in opposite
+ * directions between the same accounts wait for each other instead of deadlocking. While both are
+ * held, the source's withdrawal rules are checked, both balances are updated and a {@code
+ * TRANSFER_OUT} and a {@code TRANSFER_IN} record are added to the history back to back. No other
+ * operation can observe money that has left one account but not reached the other, and a journal
+ * attached to the history records both legs or neither.
+ *
+ * <p>Transfers between disjoint pairs of accounts update balances in parallel, but every transfer
+ * records its legs through {@link TransactionManager#addTransactions}, which holds the manager's
+ * single monitor. That monitor, not the account locks, limits how far transfer throughput scales
+ * with threads; {@code benchmarks.TransferBenchmark} measures it.
+ */
+public class TransferProcessor {
+
+  private static final LatencyHistogram TRANSFER_LATENCY =
+      MetricsRegistry.global().histogram("account_transfer_nanos");
+  private static final Counter TRANSFERS_REJECTED =
+      MetricsRegistry.global().counter("account_transfers_rejected_total");
+
+  private final AccountManager accountManager;
+  private final TransactionManager transactionManager;
+
+  public TransferProcessor(AccountManager accountManager, TransactionManager transactionManager) {
+    this.accountManager = accountManager;
+    this.transactionManager = transactionManager;
+  }
+
+  /**
+   * Transfers an amount between two accounts looked up by number.
+   *
+   * @see #transfer(Account, Account, long)
+   * @throws AccountNotFoundException if either account does not exist
+   */
+  public Transfer transfer(String sourceNumber, String targetNumber, long amountCents)
+      throws BankException {
+    return transfer(
+        accountManager.findAccount(sourceNumber),
+        accountManager.findAccount(targetNumber),
+        amountCents);
+  }
+
+  /**
+   * Transfers an amount from {@code source} to {@code target}, or changes nothing if it is refused.
+   *
+   * @param amountCents the amount in cents (must be positive)
+   * @return the paired records added to the history
+   * @throws InvalidAmountException if the amount is not positive or the target's balance would
+   *     overflow
+   * @throws InsufficientFundsException if the source's withdrawal rules refuse the amount
+   * @throws BankException if both accounts are the same
+   */
+  public Transfer transfer(Account source, Account target, long amountCents) throws BankException {
+    long started = System.nanoTime();
+    boolean completed = false;
+    try {
+      if (source.getId() == target.getId()) {
+        throw new BankException("Cannot transfer to the same account");
+      }
+      source.validateDepositCents(amountCents);
+
+      Account first = source.getId() < target.getId() ? source : target;
+      Account second = first == source ? target : source;
+      first.getLock().lock();
+      try {
+        second.getLock().lock();
+        try {
+          Transfer transfer = apply(source, target, amountCents);
+          completed = true;
+          return transfer;
+        } finally {
+          second.getLock().unlock();
+        }
+      } finally {
+        first.getLock().unlock();
+      }
+    } finally {
+      TRANSFER_LATENCY.recordSince(started);
+      if (!completed) TRANSFERS_REJECTED.increment();
+    }
+  }
+
+  /** Applies both legs; called with both accounts locked. */
+  private Transfer apply(Account source, Account target, long amountCents) throws BankException {
+    long targetBalance;
+    try {
+      source.validateWithdrawalCents(amountCents);
+      targetBalance = Money.add(target.getBalanceCents(), amountCents);
+    } catch (ArithmeticException e) {
+      throw new InvalidAmountException("Amount exceeds the supported balance range");
+    }
+    long sourceBalance = source.withdrawCents(amountCents);
+    if (sourceBalance == Account.WITHDRAWAL_REJECTED) {
+      throw new InsufficientFundsException("Transfer refused by " + source.getAccountNumber());
+    }
+    target.setBalanceCents(targetBalance);
+
+    Transaction debit =
+        Transaction.ofCents(
+            source.getAccountNumber(), TransactionType.TRANSFER_OUT, amountCents, sourceBalance);
+    Transaction credit =
+        Transaction.ofCents(
+            target.getAccountNumber(), TransactionType.TRANSFER_IN, amountCents, targetBalance);
+    transactionManager.addTransactions(debit, credit);
+    return new Transfer(debit, credit);
+  }
+
+  /**
+   * The two records of a completed transfer.
+   *
+   * @param debit the {@code TRANSFER_OUT} record of the source account
+   * @param credit the {@code TRANSFER_IN} record of the target account
+   */
+  public record Transfer(Transaction debit, Transaction credit) {}
+}
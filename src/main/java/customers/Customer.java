@@ -1,30 +1,63 @@
 package customers;
 
-/** Abstract base class representing a bank customer with personal details. */
+import utils.IdAllocator;
+
+/**
+ * Abstract base class representing a bank customer with personal details.
+ *
+ * <p>Once registered with a {@link CustomerManager}, changing the name or contact goes through the
+ * manager, so its search indexes follow the change.
+ */
 public abstract class Customer {
-  private static int customerCounter = 0;
-  private final String customerId;
+  private static final IdAllocator CUSTOMER_IDS = new IdAllocator("CUS");
+  private final long id;
+  private String customerId;
   private String name;
   private int age;
   private String contact;
   private String address;
+  private volatile CustomerManager manager;
 
   Customer() {
-    this.customerId = generateCustomerId();
+    this.id = CUSTOMER_IDS.next();
+  }
+
+  /** Recreates a customer with an ID issued by an earlier run; the ID is never issued again. */
+  Customer(long id) {
+    CUSTOMER_IDS.advancePast(id);
+    this.id = id;
+  }
+
+  /** Returns the numeric ID of a customer ID, or -1 if it is not a generated customer ID. */
+  static long idOf(String customerId) {
+    return CUSTOMER_IDS.parse(customerId);
+  }
+
+  /** Ensures customers created from now on get IDs above {@code id}, e.g. after a restore. */
+  public static void advanceCustomerCounterPast(long id) {
+    CUSTOMER_IDS.advancePast(id);
   }
 
-  /** Generates a unique customer ID in the format "CUSxxx". */
-  private static String generateCustomerId() {
-    return "CUS" + String.format("%03d", ++customerCounter);
+  /**
+   * Returns the highest customer ID reserved so far; see {@link IdAllocator#getHighWaterMark()}.
+   */
+  public static long getCustomerCounter() {
+    return CUSTOMER_IDS.getHighWaterMark();
   }
 
-  /** Returns the total number of customers created. */
-  public static int getCustomerCounter() {
-    return customerCounter;
+  /** Returns the numeric customer ID; unlike the display ID, it orders customers correctly. */
+  public long getId() {
+    return id;
   }
 
+  /** Returns the display customer ID, e.g. {@code CUS007}, rendered on first use. */
   public String getCustomerId() {
-    return customerId;
+    String display = customerId;
+    if (display == null) {
+      display = CUSTOMER_IDS.format(id);
+      customerId = display;
+    }
+    return display;
   }
 
   public String getName() {
@@ -32,6 +65,13 @@ public abstract class Customer {
   }
 
   public void setName(String name) {
+    CustomerManager registeredWith = manager;
+    if (registeredWith == null) this.name = name;
+    else registeredWith.updateName(this, name);
+  }
+
+  /** Stores the name; called by the manager while it holds its write lock. */
+  void assignName(String name) {
     this.name = name;
   }
 
@@ -56,9 +96,21 @@ public abstract class Customer {
   }
 
   public void setContact(String contact) {
+    CustomerManager registeredWith = manager;
+    if (registeredWith == null) this.contact = contact;
+    else registeredWith.updateContact(this, contact);
+  }
+
+  /** Stores the contact; called by the manager while it holds its write lock. */
+  void assignContact(String contact) {
     this.contact = contact;
   }
 
+  /** Records the manager whose indexes must follow changes to this customer. */
+  void registerWith(CustomerManager manager) {
+    this.manager = manager;
+  }
+
   /** Displays the customer's details to the console. */
   public abstract void displayCustomerDetails();
 
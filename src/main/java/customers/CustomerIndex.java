@@ -0,0 +1,131 @@
+package customers;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Secondary indexes over registered customers: a sorted index of normalised names, a hash index of
+ * normalised contacts and a list per customer type. Each maps a key to the customers that share it
+ * in the order they were indexed.
+ *
+ * <p>Not thread-safe; {@link CustomerManager} reads it under its read lock and changes it under its
+ * write lock.
+ */
+final class CustomerIndex {
+
+  private final TreeMap<String, List<Customer>> byName = new TreeMap<>();
+  private final Map<String, List<Customer>> byContact = new HashMap<>();
+  private final Map<String, List<Customer>> byType = new HashMap<>();
+
+  /** Indexes a newly registered customer under its current name, contact and type. */
+  void add(Customer customer) {
+    addTo(byName, normalizeName(customer.getName()), customer);
+    String contact = normalizeContact(customer.getContact());
+    if (contact != null) addTo(byContact, contact, customer);
+    addTo(byType, normalizeType(customer.getCustomerType()), customer);
+  }
+
+  /** Moves a customer from its old name's entry to the new one's. */
+  void rename(Customer customer, String oldName, String newName) {
+    removeFrom(byName, normalizeName(oldName), customer);
+    addTo(byName, normalizeName(newName), customer);
+  }
+
+  /** Moves a customer from its old contact's entry to the new one's. */
+  void changeContact(Customer customer, String oldContact, String newContact) {
+    String oldKey = normalizeContact(oldContact);
+    String newKey = normalizeContact(newContact);
+    if (oldKey != null) removeFrom(byContact, oldKey, customer);
+    if (newKey != null) addTo(byContact, newKey, customer);
+  }
+
+  /**
+   * Returns up to {@code limit} customers whose normalised name starts with the normalised prefix,
+   * in name order. Only the matching entries of the sorted index are visited, so the cost is the
+   * logarithm of the number of names plus the size of the result.
+   */
+  List<Customer> findByNamePrefix(String prefix, int limit) {
+    String key = normalizeName(prefix);
+    List<Customer> found = new ArrayList<>(Math.min(limit, 16));
+    for (Map.Entry<String, List<Customer>> entry : byName.tailMap(key, true).entrySet()) {
+      if (!entry.getKey().startsWith(key)) break;
+      for (Customer customer : entry.getValue()) {
+        if (found.size() == limit) return found;
+        found.add(customer);
+      }
+    }
+    return found;
+  }
+
+  /** Returns the customers whose normalised contact equals the normalised query. */
+  List<Customer> findByContact(String contact) {
+    String key = normalizeContact(contact);
+    List<Customer> found = key == null ? null : byContact.get(key);
+    return found == null ? List.of() : List.copyOf(found);
+  }
+
+  /** Returns the live list of customers of a type, ignoring case; empty if there are none. */
+  List<Customer> ofType(String type) {
+    return byType.getOrDefault(normalizeType(type), List.of());
+  }
+
+  // ==================== NORMALISATION ====================
+
+  /** Lower-cases a name and collapses runs of whitespace into one space, trimming both ends. */
+  static String normalizeName(String name) {
+    if (name == null) return "";
+    StringBuilder normalized = new StringBuilder(name.length());
+    boolean space = false;
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (Character.isWhitespace(c)) {
+        space = normalized.length() > 0;
+      } else {
+        if (space) normalized.append(' ');
+        normalized.append(Character.toLowerCase(c));
+        space = false;
+      }
+    }
+    return normalized.toString();
+  }
+
+  /**
+   * Reduces a phone number to its digits, so {@code 555-0100} and {@code (555) 0100} match, and
+   * lower-cases and trims anything containing {@code @}. Returns null if nothing is left.
+   */
+  static String normalizeContact(String contact) {
+    if (contact == null) return null;
+    String normalized;
+    if (contact.indexOf('@') >= 0) {
+      normalized = contact.trim().toLowerCase(Locale.ROOT);
+    } else {
+      StringBuilder digits = new StringBuilder(contact.length());
+      for (int i = 0; i < contact.length(); i++) {
+        char c = contact.charAt(i);
+        if (c >= '0' && c <= '9') digits.append(c);
+      }
+      normalized =
+          digits.length() > 0 ? digits.toString() : contact.trim().toLowerCase(Locale.ROOT);
+    }
+    return normalized.isEmpty() ? null : normalized;
+  }
+
+  private static String normalizeType(String type) {
+    return type.toLowerCase(Locale.ROOT);
+  }
+
+  private static void addTo(Map<String, List<Customer>> index, String key, Customer customer) {
+    index.computeIfAbsent(key, k -> new ArrayList<>(1)).add(customer);
+  }
+
+  private static void removeFrom(Map<String, List<Customer>> index, String key, Customer customer) {
+    List<Customer> customers = index.get(key);
+    if (customers == null) return;
+    customers.remove(customer);
+    if (customers.isEmpty()) index.remove(key);
+  }
+}
@@ -0,0 +1,13 @@
+package customers;
+
+/** Durable sink that records each customer when it is registered with a {@link CustomerManager}. */
+public interface CustomerLog {
+
+  /**
+   * Records a newly registered customer.
+   *
+   * @param customer the customer being registered
+   * @throws java.io.UncheckedIOException if the customer could not be recorded
+   */
+  void append(Customer customer);
+}
@@ -1,27 +1,84 @@
 package customers;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
 import utils.ConsoleTablePrinter;
+import utils.IdIndex;
 import utils.InputReader;
+import utils.Page;
+import utils.PagedView;
 import utils.TablePrinter;
 
-/** Manages a collection of bank customers with fixed capacity. */
+/**
+ * Manages a growable collection of bank customers.
+ *
+ * <p>Customers are kept in registration order and indexed by numeric customer ID in an {@link
+ * IdIndex}, so lookups take constant time regardless of how many customers are registered.
+ * Secondary indexes find customers by name prefix, by contact and by type; they are updated when a
+ * customer is registered and when a registered customer's name or contact changes.
+ *
+ * <p>The manager is thread-safe in the same way as {@code AccountManager}: registrations hold a
+ * write lock and lookups read optimistically, retrying under the read lock only if a registration
+ * ran at the same time. Searches of the secondary indexes hold the read lock, and index updates
+ * hold the write lock.
+ */
 public class CustomerManager {
+  private static final int INITIAL_CAPACITY = 64;
 
-  private final Customer[] customers;
-  private int customerCount;
+  private final StampedLock lock = new StampedLock();
+  private final IdIndex<Customer> customers =
+      new IdIndex<>(new Customer[INITIAL_CAPACITY], Customer::getId);
   private final TablePrinter printer;
-  private static final int MAX_CUSTOMERS = 100;
+  private final CustomerIndex index = new CustomerIndex();
+  private CustomerLog customerLog;
 
   public CustomerManager() {
-    this.customers = new Customer[MAX_CUSTOMERS];
-    this.customerCount = 0;
     this.printer = new ConsoleTablePrinter();
   }
 
-  /** Adds a customer to the system if capacity allows. */
+  /**
+   * Attaches a durable log that records every subsequently registered customer. Attach it after
+   * restoring the log's customers so restored customers are not recorded twice.
+   *
+   * @param customerLog the log to write to, or null to stop logging
+   */
+  public void setCustomerLog(CustomerLog customerLog) {
+    long stamp = lock.writeLock();
+    try {
+      this.customerLog = customerLog;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Registers a customer, growing the underlying storage and index as needed. From then on the
+   * customer's name and contact setters keep this manager's search indexes up to date. The customer
+   * is recorded in the attached log first, so it is not registered if recording it fails.
+   *
+   * @throws java.io.UncheckedIOException if the attached log cannot record the customer
+   */
   public void addCustomer(Customer customer) {
-    if (customerCount < MAX_CUSTOMERS) this.customers[this.customerCount++] = customer;
-    else System.out.println("Customer limit reached.");
+    long stamp = lock.writeLock();
+    try {
+      if (customerLog != null) customerLog.append(customer);
+      customers.add(customer);
+      customer.registerWith(this);
+      index.add(customer);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /** Makes room for at least {@code capacity} customers at once, e.g. before a bulk restore. */
+  public void ensureCapacity(int capacity) {
+    long stamp = lock.writeLock();
+    try {
+      customers.ensureCapacity(capacity);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
   }
 
   /**
@@ -31,40 +88,138 @@ public class CustomerManager {
    * @return the customer if found, or null if not found
    */
   public Customer findCustomer(String customerId) {
-    for (int i = 0; i < this.customerCount; i++) {
-      if (this.customers[i].getCustomerId().equals(customerId)) {
-        return this.customers[i];
+    long id = Customer.idOf(customerId);
+    if (id < 0) return null;
+
+    long stamp = lock.tryOptimisticRead();
+    Customer customer = customers.find(id);
+    if (!lock.validate(stamp)) {
+      stamp = lock.readLock();
+      try {
+        customer = customers.find(id);
+      } finally {
+        lock.unlockRead(stamp);
       }
     }
-    return null;
+    return customer;
   }
 
   /**
-   * Displays a tabular view of all registered customers.
+   * Finds the customers whose name starts with the prefix, ignoring case and runs of whitespace, in
+   * name order. Takes time proportional to the number of matches returned, not to the number of
+   * customers.
    *
-   * @param inputReader used to pause execution after display
+   * @param prefix the start of the name; empty matches every customer
+   * @param limit the maximum number of customers to return
+   * @return up to {@code limit} matching customers
+   * @throws IllegalArgumentException if {@code limit} is not positive
    */
-  public void viewAllCustomers(InputReader inputReader) {
-    String[] headers = {"CUSTOMER ID", "NAME", "TYPE", "AGE", "CONTACT", "ADDRESS"};
+  public List<Customer> findCustomersByNamePrefix(String prefix, int limit) {
+    if (limit < 1) throw new IllegalArgumentException("Limit must be positive");
+    long stamp = lock.readLock();
+    try {
+      return index.findByNamePrefix(prefix, limit);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Finds the customers with the given contact. Phone numbers match on their digits alone, e.g.
+   * {@code 555-0100} finds {@code (555) 0100}; other contacts match ignoring case.
+   *
+   * @return the matching customers in registration order; empty if there are none
+   */
+  public List<Customer> findCustomersByContact(String contact) {
+    long stamp = lock.readLock();
+    try {
+      return index.findByContact(contact);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Returns up to {@code pageSize} customers of one type in registration order, starting at the
+   * cursor.
+   *
+   * @param type the customer type, e.g. "Premium", in any case
+   * @param cursor {@link Page#FIRST} or the {@code nextCursor} of a previous page
+   * @param pageSize the maximum number of customers to return
+   * @return the page and the cursor of the customer after it
+   * @throws IllegalArgumentException if the cursor or page size is invalid
+   */
+  public Page<Customer> getCustomersPageByType(String type, long cursor, int pageSize) {
+    long stamp = lock.readLock();
+    try {
+      List<Customer> ofType = index.ofType(type);
+      int count = ofType.size();
+      Page.checkRequest(cursor, pageSize, count);
+      int from = (int) cursor;
+      int to = (int) Math.min(count, from + (long) pageSize);
+      return new Page<>(List.copyOf(ofType.subList(from, to)), to, to < count);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /** Returns how many registered customers are of the given type, ignoring case. */
+  public int getCustomerCount(String type) {
+    long stamp = lock.readLock();
+    try {
+      return index.ofType(type).size();
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Returns up to {@code pageSize} customers in registration order, starting at the cursor.
+   *
+   * @param cursor {@link Page#FIRST} or the {@code nextCursor} of a previous page
+   * @param pageSize the maximum number of customers to return
+   * @return the page and the cursor of the customer after it
+   * @throws IllegalArgumentException if the cursor or page size is invalid
+   */
+  public Page<Customer> getCustomersPage(long cursor, int pageSize) {
+    long stamp = lock.readLock();
+    try {
+      int count = customers.size();
+      Page.checkRequest(cursor, pageSize, count);
+      int from = (int) cursor;
+      int to = (int) Math.min(count, from + (long) pageSize);
+      List<Customer> items = Arrays.asList(customers.copyOfRange(from, to));
+      return new Page<>(items, to, to < count);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
 
-    if (customerCount == 0) {
+  /**
+   * Displays a tabular view of the registered customers one page at a time.
+   *
+   * @param inputReader used to choose pages and pause execution after display
+   */
+  public void viewAllCustomers(InputReader inputReader) {
+    if (customers.size() == 0) {
       System.out.println("No customers available.");
       inputReader.waitForEnter();
       return;
     }
 
-    String[][] data = buildTableData();
+    PagedView.browse(this::getCustomerCount, this::showCustomersPage, inputReader);
+  }
 
-    printer.printTable(headers, data);
+  private void showCustomersPage(long cursor) {
+    String[] headers = {"CUSTOMER ID", "NAME", "TYPE", "AGE", "CONTACT", "ADDRESS"};
+    printer.printTable(headers, buildTableData(getCustomersPage(cursor, PagedView.PAGE_SIZE)));
 
-    System.out.println("Total Customers: " + customerCount);
-    inputReader.waitForEnter();
+    System.out.println("Total Customers: " + customers.size());
   }
 
-  /** Constructs a 2D array of formatted customer data for tabular display. */
-  private String[][] buildTableData() {
-    return java.util.stream.IntStream.range(0, customerCount)
-        .mapToObj(i -> customers[i])
+  /** Constructs a 2D array of formatted customer data for one page of the table. */
+  private String[][] buildTableData(Page<Customer> page) {
+    return page.items().stream()
         .map(
             customer ->
                 new String[] {
@@ -79,6 +234,30 @@ public class CustomerManager {
   }
 
   public int getCustomerCount() {
-    return customerCount;
+    return customers.size();
+  }
+
+  // ==================== INDEX HELPERS ====================
+
+  /** Changes a registered customer's name and moves it in the name index in one step. */
+  void updateName(Customer customer, String name) {
+    long stamp = lock.writeLock();
+    try {
+      index.rename(customer, customer.getName(), name);
+      customer.assignName(name);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /** Changes a registered customer's contact and moves it in the contact index in one step. */
+  void updateContact(Customer customer, String contact) {
+    long stamp = lock.writeLock();
+    try {
+      index.changeContact(customer, customer.getContact(), contact);
+      customer.assignContact(contact);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
   }
 }
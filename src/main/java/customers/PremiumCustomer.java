@@ -16,6 +16,26 @@ public class PremiumCustomer extends Customer {
     this.setAddress(address);
   }
 
+  private PremiumCustomer(long id, String name, int age, String contact, String address) {
+    super(id);
+    this.minimumBalance = MINIMUM_BALANCE;
+    this.setName(name);
+    this.setAge(age);
+    this.setContact(contact);
+    this.setAddress(address);
+  }
+
+  /**
+   * Recreates a customer saved by an earlier run, e.g. from a snapshot, keeping its original ID.
+   *
+   * @param id the customer's numeric ID
+   * @return the restored customer
+   */
+  public static PremiumCustomer restore(
+      long id, String name, int age, String contact, String address) {
+    return new PremiumCustomer(id, name, age, contact, address);
+  }
+
   /** Returns true as premium customers have waived monthly fees. */
   public boolean hasWaivedFees() {
     return true;
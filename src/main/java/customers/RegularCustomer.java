@@ -11,6 +11,25 @@ public class RegularCustomer extends Customer {
     this.setAddress(address);
   }
 
+  private RegularCustomer(long id, String name, int age, String contact, String address) {
+    super(id);
+    this.setName(name);
+    this.setAge(age);
+    this.setContact(contact);
+    this.setAddress(address);
+  }
+
+  /**
+   * Recreates a customer saved by an earlier run, e.g. from a snapshot, keeping its original ID.
+   *
+   * @param id the customer's numeric ID
+   * @return the restored customer
+   */
+  public static RegularCustomer restore(
+      long id, String name, int age, String contact, String address) {
+    return new RegularCustomer(id, name, age, contact, address);
+  }
+
   @java.lang.Override
   public void displayCustomerDetails() {
     System.out.println("+------------------+");
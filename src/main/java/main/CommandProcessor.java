@@ -0,0 +1,435 @@
+package main;
+
+import accounts.Account;
+import accounts.AccountManager;
+import accounts.CheckingAccount;
+import accounts.PeriodEndProcessor;
+import accounts.PostingProcessor;
+import accounts.ReversalProcessor;
+import accounts.SavingsAccount;
+import accounts.TransferProcessor;
+import customers.Customer;
+import customers.CustomerManager;
+import customers.PremiumCustomer;
+import customers.RegularCustomer;
+import exceptions.AccountNotFoundException;
+import exceptions.BankException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import reports.ColumnarExporter;
+import reports.StatementGenerator;
+import transactions.Transaction;
+import transactions.TransactionManager;
+import transactions.TransactionType;
+import utils.Money;
+
+/**
+ * Executes line-oriented banking commands without prompts, writing one compact result line per
+ * command. Used by the headless {@code --script} mode to replay operations at full speed through
+ * the same managers the interactive menu uses.
+ *
+ * <p>Commands, one per line; arguments are separated by spaces and may be double-quoted:
+ *
+ * <pre>
+ * customer regular|premium "name" age contact "address"   -> OK CUS001
+ * account savings|checking customerId initialDeposit      -> OK ACC001 500.00
+ * find name "prefix" [limit]                              -> OK 2 CUS004 CUS001
+ * find contact contact                                    -> OK 1 CUS001
+ * deposit accountNumber amount                            -> OK TXN001 600.00
+ * withdraw accountNumber amount                           -> OK TXN002 550.00
+ * fee accountNumber amount                                -> OK TXN003 545.00
+ * reverse accountNumber transactionId                     -> OK TXN004 550.00
+ * transfer fromAccount toAccount amount                   -> OK TXN005 TXN006 450.00 100.00
+ * statement accountNumber     -> OK ACC001 deposits=.. withdrawals=.. fees=.. interest=..
+ *                                transfersIn=.. transfersOut=.. reversals=.. net=.. balance=..
+ *                                count=..
+ * totals                      -> OK accounts=.. balance=.. deposits=.. withdrawals=.. fees=..
+ *                                interest=.. transfersIn=.. transfersOut=.. reversals=.. net=..
+ *                                count=..
+ * statements directory        -> OK written=.. skipped=.. statementsPerSecond=..
+ * export file                 -> OK accounts=.. transactions=.. bytes=.. megabytesPerSecond=..
+ * period yyyy-MM              -> OK 2024-01 accounts=.. fees=n/amt interest=n/amt skipped=..
+ * </pre>
+ *
+ * The {@code statements} and {@code export} commands write files on the host, and {@code period}
+ * charges fees and credits interest on every account, so they are available only to a processor
+ * created with admin commands enabled, such as the one that runs {@code --script}; elsewhere they
+ * are unknown commands.
+ *
+ * <p>A reversal posts the opposite of an earlier deposit, withdrawal, fee, interest credit or
+ * reversal on the same account, at most once per transaction and subject to the account's
+ * withdrawal rules; a transfer is undone by transferring back. Blank lines and lines starting with
+ * {@code #} are ignored. A command that fails produces {@code ERR} followed by the reason, and
+ * processing continues with the next line.
+ */
+public class CommandProcessor {
+
+  private static final double PREMIUM_MINIMUM_DEPOSIT = 10000.0;
+  private static final double SAVINGS_MINIMUM_DEPOSIT = 500.0;
+  private static final int DEFAULT_FIND_LIMIT = 10;
+
+  /**
+   * The {@code key=} prefix of each kind's total, indexed by op-code, e.g. {@code transfersIn=}.
+   */
+  private static final String[] TOTAL_KEYS = totalKeys();
+
+  private final AccountManager accountManager;
+  private final CustomerManager customerManager;
+  private final TransactionManager transactionManager;
+  private final PeriodEndProcessor periodEndProcessor;
+  private final PostingProcessor postingProcessor;
+  private final TransferProcessor transferProcessor;
+  private final ReversalProcessor reversalProcessor;
+  private final boolean adminCommands;
+  private final List<String> arguments = new ArrayList<>();
+
+  /** Creates a processor that accepts every command, including the admin ones. */
+  public CommandProcessor(
+      AccountManager accountManager,
+      CustomerManager customerManager,
+      TransactionManager transactionManager) {
+    this(accountManager, customerManager, transactionManager, true);
+  }
+
+  /**
+   * Creates a processor.
+   *
+   * @param adminCommands whether {@code period}, {@code statements} and {@code export} are accepted
+   */
+  public CommandProcessor(
+      AccountManager accountManager,
+      CustomerManager customerManager,
+      TransactionManager transactionManager,
+      boolean adminCommands) {
+    this.adminCommands = adminCommands;
+    this.accountManager = accountManager;
+    this.customerManager = customerManager;
+    this.transactionManager = transactionManager;
+    this.periodEndProcessor = new PeriodEndProcessor(accountManager, transactionManager);
+    this.postingProcessor = new PostingProcessor(transactionManager);
+    this.transferProcessor = new TransferProcessor(accountManager, transactionManager);
+    this.reversalProcessor = new ReversalProcessor(accountManager, transactionManager);
+  }
+
+  /**
+   * Executes every command read from {@code in}, writes the result lines and a final summary line
+   * to {@code out}, and flushes it.
+   *
+   * @return the counts and elapsed time of the run
+   * @throws IOException if reading the commands or writing the results fails
+   */
+  public Summary run(BufferedReader in, Writer out) throws IOException {
+    long started = System.nanoTime();
+    long commands = 0;
+    long failures = 0;
+    StringBuilder result = new StringBuilder(128);
+
+    String line;
+    while ((line = in.readLine()) != null) {
+      result.setLength(0);
+      if (!execute(line, result)) failures++;
+      if (result.length() == 0) continue;
+
+      commands++;
+      result.append(System.lineSeparator());
+      out.append(result);
+    }
+
+    Summary summary = new Summary(commands, failures, System.nanoTime() - started);
+    out.write(summary.toString());
+    out.write(System.lineSeparator());
+    out.flush();
+    return summary;
+  }
+
+  /**
+   * Executes one command line and appends its result, without a line separator, to {@code out}.
+   * Blank and comment lines append nothing.
+   *
+   * @return false if the command failed
+   */
+  public boolean execute(String line, StringBuilder out) {
+    try {
+      arguments.clear();
+      tokenize(line, arguments);
+      if (arguments.isEmpty() || arguments.get(0).startsWith("#")) return true;
+
+      switch (arguments.get(0).toLowerCase()) {
+        case "customer" -> createCustomer(out);
+        case "account" -> createAccount(out);
+        case "find" -> findCustomers(out);
+        case "deposit" -> post(TransactionType.DEPOSIT, out);
+        case "withdraw" -> post(TransactionType.WITHDRAWAL, out);
+        case "fee" -> post(TransactionType.FEE, out);
+        case "reverse" -> reverse(out);
+        case "transfer" -> transfer(out);
+        case "statement" -> statement(out);
+        case "totals" -> totals(out);
+        case "period" -> {
+          requireAdmin();
+          closePeriod(out);
+        }
+        case "statements" -> {
+          requireAdmin();
+          writeStatements(out);
+        }
+        case "export" -> {
+          requireAdmin();
+          export(out);
+        }
+        default -> throw new IllegalArgumentException("Unknown command: " + arguments.get(0));
+      }
+      return true;
+    } catch (BankException
+        | IllegalArgumentException
+        | ArithmeticException
+        | IOException
+        | UncheckedIOException e) {
+      out.setLength(0);
+      out.append("ERR ").append(e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Outcome of a script run.
+   *
+   * @param commands number of commands executed, excluding blank and comment lines
+   * @param failures number of those commands that produced an error
+   * @param elapsedNanos wall-clock time of the run
+   */
+  public record Summary(long commands, long failures, long elapsedNanos) {
+
+    /** Returns the number of commands executed per second. */
+    public double commandsPerSecond() {
+      return elapsedNanos == 0 ? 0 : commands * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          "SUMMARY commands=%d failures=%d elapsedMs=%.1f commandsPerSecond=%.0f",
+          commands, failures, elapsedNanos / 1e6, commandsPerSecond());
+    }
+  }
+
+  // ==================== COMMANDS ====================
+
+  private void createCustomer(StringBuilder out) {
+    expectArguments(6, "customer regular|premium name age contact address");
+    String name = arguments.get(2);
+    int age = Integer.parseInt(arguments.get(3));
+    String contact = arguments.get(4);
+    String address = arguments.get(5);
+    if (age < 0 || age > 150) throw new IllegalArgumentException("Age out of range: " + age);
+
+    Customer customer =
+        switch (arguments.get(1).toLowerCase()) {
+          case "regular" -> new RegularCustomer(name, age, contact, address);
+          case "premium" -> new PremiumCustomer(name, age, contact, address);
+          default -> throw new IllegalArgumentException(
+              "Unknown customer type: " + arguments.get(1));
+        };
+    customerManager.addCustomer(customer);
+    out.append("OK ").append(customer.getCustomerId());
+  }
+
+  private void createAccount(StringBuilder out) {
+    expectArguments(4, "account savings|checking customerId initialDeposit");
+    Customer customer = customerManager.findCustomer(arguments.get(2));
+    if (customer == null) {
+      throw new IllegalArgumentException("Customer " + arguments.get(2) + " not found");
+    }
+    boolean savings =
+        switch (arguments.get(1).toLowerCase()) {
+          case "savings" -> true;
+          case "checking" -> false;
+          default -> throw new IllegalArgumentException(
+              "Unknown account type: " + arguments.get(1));
+        };
+    double deposit = Money.toDouble(Money.parse(arguments.get(3)));
+    double minimum =
+        customer instanceof PremiumCustomer
+            ? PREMIUM_MINIMUM_DEPOSIT
+            : (savings ? SAVINGS_MINIMUM_DEPOSIT : 0.0);
+    if (deposit < minimum) {
+      throw new IllegalArgumentException("Initial deposit must be at least " + minimum);
+    }
+
+    Account account =
+        savings ? new SavingsAccount(customer, deposit) : new CheckingAccount(customer, deposit);
+    accountManager.addAccount(account);
+    out.append("OK ").append(account.getAccountNumber()).append(' ');
+    Money.appendTo(out, account.getBalanceCents());
+  }
+
+  private void findCustomers(StringBuilder out) {
+    if (arguments.size() < 3 || arguments.size() > 4) {
+      throw new IllegalArgumentException("Usage: find name prefix [limit] | find contact contact");
+    }
+    List<Customer> found =
+        switch (arguments.get(1).toLowerCase()) {
+          case "name" -> customerManager.findCustomersByNamePrefix(
+              arguments.get(2),
+              arguments.size() == 4 ? Integer.parseInt(arguments.get(3)) : DEFAULT_FIND_LIMIT);
+          case "contact" -> {
+            expectArguments(3, "find contact contact");
+            yield customerManager.findCustomersByContact(arguments.get(2));
+          }
+          default -> throw new IllegalArgumentException("Unknown search: " + arguments.get(1));
+        };
+    out.append("OK ").append(found.size());
+    for (Customer customer : found) out.append(' ').append(customer.getCustomerId());
+  }
+
+  private void post(TransactionType type, StringBuilder out) throws BankException {
+    expectArguments(3, arguments.get(0).toLowerCase() + " accountNumber amount");
+    Account account = accountManager.findAccount(arguments.get(1));
+    post(account, type, Money.parse(arguments.get(2)), out);
+  }
+
+  private void reverse(StringBuilder out) throws BankException {
+    expectArguments(3, "reverse accountNumber transactionId");
+    Transaction reversal = reversalProcessor.reverse(arguments.get(1), arguments.get(2));
+    out.append("OK ").append(reversal.getTransactionId()).append(' ');
+    Money.appendTo(out, reversal.getBalanceAfterCents());
+  }
+
+  private void post(Account account, TransactionType type, long amountCents, StringBuilder out)
+      throws BankException {
+    Transaction transaction = postingProcessor.post(account, type, amountCents);
+    out.append("OK ").append(transaction.getTransactionId()).append(' ');
+    Money.appendTo(out, transaction.getBalanceAfterCents());
+  }
+
+  private void transfer(StringBuilder out) throws BankException {
+    expectArguments(4, "transfer fromAccount toAccount amount");
+    TransferProcessor.Transfer transfer =
+        transferProcessor.transfer(
+            arguments.get(1), arguments.get(2), Money.parse(arguments.get(3)));
+
+    out.append("OK ").append(transfer.debit().getTransactionId());
+    out.append(' ').append(transfer.credit().getTransactionId()).append(' ');
+    Money.appendTo(out, transfer.debit().getBalanceAfterCents()).append(' ');
+    Money.appendTo(out, transfer.credit().getBalanceAfterCents());
+  }
+
+  private void statement(StringBuilder out) throws AccountNotFoundException {
+    expectArguments(2, "statement accountNumber");
+    Account account = accountManager.findAccount(arguments.get(1));
+    String number = account.getAccountNumber();
+
+    out.append("OK ").append(number);
+    appendTotals(out, transactionManager.getTotalsCents(number)).append(" balance=");
+    Money.appendTo(out, account.getBalanceCents())
+        .append(" count=")
+        .append(transactionManager.getTransactionCount(number));
+  }
+
+  private void totals(StringBuilder out) {
+    expectArguments(1, "totals");
+    out.append("OK accounts=").append(accountManager.getAccountCount()).append(" balance=");
+    Money.appendTo(out, accountManager.getTotalBalanceCents());
+    appendTotals(out, transactionManager.getTotalsCents())
+        .append(" count=")
+        .append(transactionManager.getTransactionCount());
+  }
+
+  private static String[] totalKeys() {
+    String[] keys = new String[TransactionType.COUNT];
+    for (TransactionType type : TransactionType.values()) {
+      String label = type.totalLabel().replace(" ", "");
+      keys[type.code()] = " " + Character.toLowerCase(label.charAt(0)) + label.substring(1) + "=";
+    }
+    return keys;
+  }
+
+  /** Appends each kind's total as {@code key=amount}, then the net change they make. */
+  private static StringBuilder appendTotals(StringBuilder out, long[] totals) {
+    for (TransactionType type : TransactionType.values()) {
+      out.append(TOTAL_KEYS[type.code()]);
+      Money.appendTo(out, totals[type.code()]);
+    }
+    out.append(" net=");
+    return Money.appendTo(out, TransactionType.netOf(totals));
+  }
+
+  /** Treats an admin command as unknown unless this processor accepts admin commands. */
+  private void requireAdmin() {
+    if (!adminCommands) {
+      throw new IllegalArgumentException("Unknown command: " + arguments.get(0));
+    }
+  }
+
+  private void writeStatements(StringBuilder out) throws IOException {
+    expectArguments(2, "statements directory");
+    StatementGenerator.Result result =
+        new StatementGenerator(accountManager, transactionManager)
+            .generate(Path.of(arguments.get(1)));
+    out.append("OK written=").append(result.written());
+    out.append(" skipped=").append(result.skipped());
+    out.append(" statementsPerSecond=").append(Math.round(result.statementsPerSecond()));
+  }
+
+  private void export(StringBuilder out) throws IOException {
+    expectArguments(2, "export file");
+    ColumnarExporter.Result result =
+        new ColumnarExporter(accountManager, transactionManager).export(Path.of(arguments.get(1)));
+    out.append("OK accounts=").append(result.accounts());
+    out.append(" transactions=").append(result.transactions());
+    out.append(" bytes=").append(result.bytes());
+    out.append(" megabytesPerSecond=").append(Math.round(result.megabytesPerSecond()));
+  }
+
+  private void closePeriod(StringBuilder out) {
+    expectArguments(2, "period yyyy-MM");
+    YearMonth period;
+    try {
+      period = YearMonth.parse(arguments.get(1));
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Invalid period: " + arguments.get(1));
+    }
+
+    PeriodEndProcessor.Result result = periodEndProcessor.closePeriod(period);
+    out.append("OK ").append(period).append(" accounts=").append(result.accounts());
+    out.append(" fees=").append(result.feesCharged()).append('/');
+    Money.appendTo(out, result.feeCents()).append(" interest=").append(result.interestPosted());
+    Money.appendTo(out.append('/'), result.interestCents())
+        .append(" skipped=")
+        .append(result.skipped());
+  }
+
+  // ==================== PARSING HELPERS ====================
+
+  private void expectArguments(int count, String usage) {
+    if (arguments.size() != count) throw new IllegalArgumentException("Usage: " + usage);
+  }
+
+  /** Splits a line on whitespace, keeping double-quoted arguments (without quotes) together. */
+  private static void tokenize(String line, List<String> into) {
+    int i = 0;
+    int length = line.length();
+    while (i < length) {
+      while (i < length && Character.isWhitespace(line.charAt(i))) i++;
+      if (i == length) break;
+
+      if (line.charAt(i) == '"') {
+        int close = line.indexOf('"', i + 1);
+        if (close < 0) throw new IllegalArgumentException("Unterminated quote");
+        into.add(line.substring(i + 1, close));
+        i = close + 1;
+      } else {
+        int start = i;
+        while (i < length && !Character.isWhitespace(line.charAt(i))) i++;
+        into.add(line.substring(start, i));
+      }
+    }
+  }
+}
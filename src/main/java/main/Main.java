@@ -3,30 +3,187 @@ package main;
 import accounts.*;
 import customers.*;
 import exceptions.*;
+import metrics.MetricsHttpServer;
+import metrics.MetricsRegistry;
+import persistence.DataDirectory;
+import server.TellerServer;
 import transactions.*;
 import utils.*;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 public class Main {
 
+    private static final int SCRIPT_BUFFER_SIZE = 1 << 16;
+    private static final String DATA_DIR_PROPERTY = "bank.data.dir";
+    private static final String METRICS_PORT_PROPERTY = "bank.metrics.port";
+    private static final int DEFAULT_SERVER_PORT = 7070;
+
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--script")) {
+            runScript(args.length > 1 ? args[1] : "-");
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--serve")) {
+            runServer(args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SERVER_PORT);
+            return;
+        }
+
         System.out.println("+-------------------------+\n| BANK ACCOUNT MANAGEMENT |\n+-------------------------+");
 
         AccountManager accountManager = new AccountManager();
         TransactionManager transactionManager = new TransactionManager();
         CustomerManager customerManager = new CustomerManager();
+        DataDirectory dataDirectory = openDataDirectory(accountManager, customerManager, transactionManager);
+        MetricsHttpServer metricsServer = startMetrics(accountManager, customerManager, transactionManager);
 
-        try (ConsoleInputReader inputReader = new ConsoleInputReader()) {
+        try (InputReader inputReader = openInputReader()) {
             int choice;
             do {
                 displayMainMenu();
                 choice = inputReader.readInt("Enter your choice: ", 1, 9);
                 handleMenuChoice(choice, accountManager, transactionManager, customerManager, inputReader);
             } while (choice != 9);
+        } finally {
+            closeDataDirectory(dataDirectory);
+            if (metricsServer != null) metricsServer.close();
         }
 
         System.out.println("Thank you for using Bank Account Management System!\nGoodbye!");
     }
 
+    /** Uses the Scanner-based reader for a terminal and the fast, prompt-free reader for piped input. */
+    private static InputReader openInputReader() {
+        return System.console() != null ? new ConsoleInputReader() : new FastInputReader(true);
+    }
+
+    /**
+     * Restores state from the directory named by the {@value #DATA_DIR_PROPERTY} system property, if set,
+     * and journals new transactions there. Exits if the directory cannot be opened.
+     */
+    private static DataDirectory openDataDirectory(
+            AccountManager accountManager, CustomerManager customerManager, TransactionManager transactionManager) {
+        String directory = System.getProperty(DATA_DIR_PROPERTY);
+        if (directory == null) return null;
+
+        long started = System.nanoTime();
+        try {
+            DataDirectory dataDirectory =
+                    DataDirectory.open(Path.of(directory), accountManager, customerManager, transactionManager);
+            DataDirectory.Recovery recovery = dataDirectory.getRecovery();
+            System.err.printf("Restored %d customers, %d accounts and %d journaled transactions in %.1f ms%n",
+                    recovery.snapshot().customers() + recovery.registrations().customers(),
+                    recovery.snapshot().accounts() + recovery.registrations().accounts(),
+                    recovery.replay().replayed(), (System.nanoTime() - started) / 1e6);
+            if (recovery.replay().unknownAccounts() > 0) {
+                System.err.println("Warning: " + recovery.replay().unknownAccounts()
+                        + " journaled transactions name unregistered accounts and were left out of the history");
+            }
+            return dataDirectory;
+        } catch (IOException e) {
+            System.err.println("Cannot open data directory " + directory + ": " + e.getMessage());
+            System.exit(1);
+            return null;
+        }
+    }
+
+    /** Writes a final snapshot and closes the journal. */
+    private static void closeDataDirectory(DataDirectory dataDirectory) {
+        if (dataDirectory == null) return;
+        try {
+            dataDirectory.close();
+        } catch (IOException e) {
+            System.err.println("Cannot write snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Publishes the metrics over JMX with gauges for the three managers, and serves them over HTTP on the
+     * loopback port named by the {@value #METRICS_PORT_PROPERTY} system property, if set.
+     */
+    private static MetricsHttpServer startMetrics(
+            AccountManager accountManager, CustomerManager customerManager, TransactionManager transactionManager) {
+        MetricsRegistry registry = MetricsRegistry.global();
+        registry.gauge("accounts", accountManager::getAccountCount);
+        registry.gauge("customers", customerManager::getCustomerCount);
+        registry.gauge("transactions", transactionManager::getTransactionCount);
+        registry.publishToJmx();
+
+        String port = System.getProperty(METRICS_PORT_PROPERTY);
+        if (port == null) return null;
+        try {
+            MetricsHttpServer server = MetricsHttpServer.start(registry, Integer.parseInt(port));
+            System.err.println("Serving metrics at http://localhost:" + server.getPort() + MetricsHttpServer.PATH);
+            return server;
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Cannot serve metrics on port " + port + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Runs commands from a file, or from stdin for "-", with no prompts; see {@link CommandProcessor}. */
+    private static void runScript(String source) {
+        AccountManager accountManager = new AccountManager();
+        CustomerManager customerManager = new CustomerManager();
+        TransactionManager transactionManager = new TransactionManager();
+        DataDirectory dataDirectory = openDataDirectory(accountManager, customerManager, transactionManager);
+        MetricsHttpServer metricsServer = startMetrics(accountManager, customerManager, transactionManager);
+        CommandProcessor processor = new CommandProcessor(accountManager, customerManager, transactionManager);
+        try (BufferedReader in = source.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in), SCRIPT_BUFFER_SIZE)
+                : Files.newBufferedReader(Path.of(source))) {
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out), SCRIPT_BUFFER_SIZE);
+            processor.run(in, out);
+        } catch (IOException e) {
+            System.err.println("Script failed: " + e.getMessage());
+            closeDataDirectory(dataDirectory);
+            System.exit(1);
+        }
+        closeDataDirectory(dataDirectory);
+        if (metricsServer != null) metricsServer.close();
+    }
+
+    /**
+     * Serves tellers over TCP on the loopback port until the process is stopped, then writes the final
+     * snapshot; see {@link TellerServer}.
+     */
+    private static void runServer(int port) {
+        AccountManager accountManager = new AccountManager();
+        CustomerManager customerManager = new CustomerManager();
+        TransactionManager transactionManager = new TransactionManager();
+        DataDirectory dataDirectory = openDataDirectory(accountManager, customerManager, transactionManager);
+        MetricsHttpServer metricsServer = startMetrics(accountManager, customerManager, transactionManager);
+        TellerServer server;
+        try {
+            server = TellerServer.start(port, accountManager, customerManager, transactionManager);
+        } catch (IOException e) {
+            System.err.println("Cannot listen on port " + port + ": " + e.getMessage());
+            closeDataDirectory(dataDirectory);
+            System.exit(1);
+            return;
+        }
+        System.err.println("Serving tellers at localhost:" + server.getPort() + " on "
+                + (server.usesVirtualThreads() ? "virtual" : "platform") + " threads");
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            closeDataDirectory(dataDirectory);
+            if (metricsServer != null) metricsServer.close();
+        }));
+        try {
+            server.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private static void displayMainMenu() {
         System.out.println("\n+-----------+\n| MAIN MENU |\n+-----------+");
         System.out.println("1. Create Account\n2. View Accounts\n3. View Customers\n4. Process Transaction");
@@ -97,9 +254,12 @@ public class Main {
     }
 
     private static Transaction buildTransaction(Account account, int transactionType, double amount) {
-        String type = transactionType == 1 ? "DEPOSIT" : "WITHDRAWAL";
-        double newBalance = transactionType == 1 ? account.getBalance() + amount : account.getBalance() - amount;
-        return new Transaction(account.getAccountNumber(), type, amount, newBalance);
+        TransactionType type = transactionType == 1 ? TransactionType.DEPOSIT : TransactionType.WITHDRAWAL;
+        long amountCents = Money.fromDouble(amount);
+        long newBalance = transactionType == 1
+                ? Money.add(account.getBalanceCents(), amountCents)
+                : Money.subtract(account.getBalanceCents(), amountCents);
+        return Transaction.ofCents(account.getAccountNumber(), type, amountCents, newBalance);
     }
 
     private static void printTransactionConfirmation(Transaction transaction, Account account) {
@@ -115,7 +275,7 @@ public class Main {
 
     private static void executeTransaction(Account account, TransactionManager transactionManager, Transaction transaction) {
         try {
-            account.processTransaction(transaction.getAmount(), transaction.getType());
+            account.processTransactionCents(transaction.getAmountCents(), transaction.getTransactionType());
             transactionManager.addTransaction(transaction);
             System.out.printf("%s Successful! New Balance: $%.2f\n", transaction.getType(), account.getBalance());
         } catch (BankException e) {
@@ -201,10 +361,13 @@ public class Main {
     }
 
     private static void displaySummary(TransactionManager transactionManager, String accountNumber, double balance) {
-        double totalDeposits = transactionManager.getTotalDeposits(accountNumber);
-        double totalWithdrawals = transactionManager.getTotalWithdrawals(accountNumber);
-        System.out.printf("\n--- Summary ---\nTotal Deposits: $%.2f\nTotal Withdrawals: $%.2f\nNet Change: $%.2f\nClosing Balance: $%.2f\n",
-                totalDeposits, totalWithdrawals, totalDeposits - totalWithdrawals, balance);
+        long[] totals = transactionManager.getTotalsCents(accountNumber);
+        System.out.println("\n--- Summary ---");
+        for (TransactionType type : TransactionType.values()) {
+            System.out.println("Total " + type.totalLabel() + ": $" + Money.format(totals[type.code()]));
+        }
+        System.out.printf("Net Change: $%s\nClosing Balance: $%.2f\n",
+                Money.format(TransactionType.netOf(totals)), balance);
     }
 
     private static void runTests(InputReader inputReader) {
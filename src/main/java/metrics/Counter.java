@@ -0,0 +1,24 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Monotonic, lock-free event counter; incrementing it does not allocate once warmed up. */
+public final class Counter implements CounterMXBean {
+
+  private final LongAdder count = new LongAdder();
+
+  Counter() {}
+
+  public void increment() {
+    count.increment();
+  }
+
+  public void add(long delta) {
+    count.add(delta);
+  }
+
+  @Override
+  public long getCount() {
+    return count.sum();
+  }
+}
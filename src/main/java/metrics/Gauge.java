@@ -0,0 +1,18 @@
+package metrics;
+
+import java.util.function.LongSupplier;
+
+/** Value read on demand, e.g. the number of registered accounts. */
+public final class Gauge implements GaugeMXBean {
+
+  private final LongSupplier value;
+
+  Gauge(LongSupplier value) {
+    this.value = value;
+  }
+
+  @Override
+  public long getValue() {
+    return value.getAsLong();
+  }
+}
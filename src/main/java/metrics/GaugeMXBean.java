@@ -0,0 +1,8 @@
+package metrics;
+
+/** JMX view of a {@link Gauge}. */
+public interface GaugeMXBean {
+
+  /** Returns the gauge's current value. */
+  long getValue();
+}
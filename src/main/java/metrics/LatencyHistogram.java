@@ -0,0 +1,139 @@
+package metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in nanoseconds with a fixed set of buckets.
+ *
+ * <p>Durations below 16 ns get a bucket each. Above that, every power of two is split into 16 equal
+ * buckets, so a reported percentile is at most 1/16 (6.25%) above the true value, from nanoseconds
+ * up to centuries, in 960 buckets. Recording computes the bucket with bit arithmetic and increments
+ * it atomically; it never allocates or blocks, so it does not distort what it measures. Percentiles
+ * are read from the live counts and are approximate while recording continues.
+ */
+public final class LatencyHistogram implements LatencyHistogramMXBean {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  static final int BUCKET_COUNT = (Long.SIZE - 1 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  LatencyHistogram() {}
+
+  /** Records the time elapsed since {@code startNanos}, a value of {@link System#nanoTime()}. */
+  public void recordSince(long startNanos) {
+    record(System.nanoTime() - startNanos);
+  }
+
+  /** Records one duration; negative durations are counted as zero. */
+  public void record(long nanos) {
+    if (nanos < 0) nanos = 0;
+    buckets.incrementAndGet(bucketOf(nanos));
+    count.increment();
+    sum.add(nanos);
+    long seen;
+    while (nanos > (seen = max.get()) && !max.compareAndSet(seen, nanos)) {}
+  }
+
+  @Override
+  public long getCount() {
+    return count.sum();
+  }
+
+  /** Returns the total of all recorded durations. */
+  public long getSum() {
+    return sum.sum();
+  }
+
+  @Override
+  public double getMean() {
+    long n = count.sum();
+    return n == 0 ? 0 : (double) sum.sum() / n;
+  }
+
+  @Override
+  public long getMax() {
+    return max.get();
+  }
+
+  @Override
+  public long getP50() {
+    return percentile(0.5);
+  }
+
+  @Override
+  public long getP99() {
+    return percentile(0.99);
+  }
+
+  @Override
+  public long getP999() {
+    return percentile(0.999);
+  }
+
+  /**
+   * Returns the upper bound of the bucket holding the given quantile, capped at the largest
+   * recorded duration, or 0 if nothing has been recorded.
+   *
+   * @param quantile between 0 and 1
+   * @throws IllegalArgumentException if the quantile is out of range
+   */
+  public long percentile(double quantile) {
+    if (!(quantile >= 0 && quantile <= 1)) {
+      throw new IllegalArgumentException("Quantile must be between 0 and 1: " + quantile);
+    }
+    long total = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) total += buckets.get(i);
+    if (total == 0) return 0;
+
+    long rank = Math.max(1, (long) Math.ceil(quantile * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += buckets.get(i);
+      if (seen >= rank) return Math.min(upperBound(i), max.get());
+    }
+    return max.get();
+  }
+
+  /** Formats the count, mean and percentiles in microseconds, e.g. for a log line. */
+  @Override
+  public String toString() {
+    return String.format(
+        "count=%d mean=%.1fus p50=%.1fus p99=%.1fus p999=%.1fus max=%.1fus",
+        getCount(),
+        getMean() / 1_000,
+        micros(getP50()),
+        micros(getP99()),
+        micros(getP999()),
+        micros(getMax()));
+  }
+
+  private static double micros(long nanos) {
+    return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+  }
+
+  // ==================== BUCKETS ====================
+
+  static int bucketOf(long nanos) {
+    if (nanos < SUB_BUCKETS) return (int) nanos;
+    int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+    int shift = exponent - SUB_BUCKET_BITS;
+    int subBucket = (int) (nanos >>> shift) & (SUB_BUCKETS - 1);
+    return (shift + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  /** Returns the largest duration that falls in the bucket. */
+  static long upperBound(int bucket) {
+    if (bucket < SUB_BUCKETS) return bucket;
+    int shift = bucket / SUB_BUCKETS - 1;
+    long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    return lower + (1L << shift) - 1;
+  }
+}
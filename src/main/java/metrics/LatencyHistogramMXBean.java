@@ -0,0 +1,17 @@
+package metrics;
+
+/** JMX view of a {@link LatencyHistogram}; all durations are in nanoseconds. */
+public interface LatencyHistogramMXBean {
+
+  long getCount();
+
+  double getMean();
+
+  long getMax();
+
+  long getP50();
+
+  long getP99();
+
+  long getP999();
+}
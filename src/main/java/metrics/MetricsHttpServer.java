@@ -0,0 +1,80 @@
+package metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves a registry's {@link MetricsRegistry#writeText text exposition} at {@code /metrics} on the
+ * loopback interface, for a local scraper or {@code curl}. Requests are handled one at a time on
+ * the server's dispatcher thread, which keeps the JVM running until the server is closed.
+ */
+public final class MetricsHttpServer implements AutoCloseable {
+
+  /** Path the metrics are served at. */
+  public static final String PATH = "/metrics";
+
+  private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private final HttpServer server;
+  private final MetricsRegistry registry;
+
+  private MetricsHttpServer(HttpServer server, MetricsRegistry registry) {
+    this.server = server;
+    this.registry = registry;
+  }
+
+  /**
+   * Starts serving on the loopback interface.
+   *
+   * @param registry the metrics to serve
+   * @param port the port to listen on, or 0 for any free port
+   * @return the running server
+   * @throws IOException if the port cannot be bound
+   */
+  public static MetricsHttpServer start(MetricsRegistry registry, int port) throws IOException {
+    HttpServer server =
+        HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+    MetricsHttpServer metricsServer = new MetricsHttpServer(server, registry);
+    server.createContext(PATH, metricsServer::handle);
+    server.setExecutor(null);
+    server.start();
+    return metricsServer;
+  }
+
+  /** Returns the port the server listens on. */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      String method = exchange.getRequestMethod();
+      if (!method.equals("GET") && !method.equals("HEAD")) {
+        exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+      byte[] body =
+          registry.writeText(new StringBuilder(4096)).toString().getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+      if (method.equals("HEAD")) {
+        exchange.sendResponseHeaders(200, -1);
+        return;
+      }
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    }
+  }
+}
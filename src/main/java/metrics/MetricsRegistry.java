@@ -0,0 +1,159 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongSupplier;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+/**
+ * Named counters, latency histograms and gauges.
+ *
+ * <p>Instruments are looked up once, typically into a static field, and then updated without
+ * touching the registry; scraping reads them while they are being updated. Names are lower-case
+ * with underscores, e.g. {@code account_lookup_nanos}, and are used as-is by {@link #writeText} and
+ * as the {@code name} key of each instrument's JMX object name. Once {@link #publishToJmx} has been
+ * called, instruments created later are registered as they are created.
+ */
+public final class MetricsRegistry {
+
+  /** JMX domain of the published instruments. */
+  public static final String JMX_DOMAIN = "bank";
+
+  private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+  private final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+  private final Map<String, LatencyHistogram> histograms = new ConcurrentSkipListMap<>();
+  private final Map<String, Gauge> gauges = new ConcurrentSkipListMap<>();
+  private MBeanServer mbeanServer;
+
+  /** Returns the registry that the application's entry points record into. */
+  public static MetricsRegistry global() {
+    return GLOBAL;
+  }
+
+  /** Returns the counter with the given name, creating it on first use. */
+  public synchronized Counter counter(String name) {
+    Counter counter = counters.get(checkName(name));
+    if (counter == null) counters.put(name, counter = publish("Counter", name, new Counter()));
+    return counter;
+  }
+
+  /** Returns the histogram with the given name, creating it on first use. */
+  public synchronized LatencyHistogram histogram(String name) {
+    LatencyHistogram histogram = histograms.get(checkName(name));
+    if (histogram == null) {
+      histograms.put(name, histogram = publish("Histogram", name, new LatencyHistogram()));
+    }
+    return histogram;
+  }
+
+  /**
+   * Registers a gauge read from {@code value} whenever the metrics are scraped, replacing any gauge
+   * of the same name, e.g. when a new account manager is created.
+   */
+  public synchronized void gauge(String name, LongSupplier value) {
+    Gauge gauge = new Gauge(value);
+    if (gauges.put(checkName(name), gauge) != null) unpublish("Gauge", name);
+    publish("Gauge", name, gauge);
+  }
+
+  /**
+   * Registers every instrument with the platform MBean server as {@code bank:type=<kind>,name=
+   * <name>}, and every instrument created afterwards as it is created.
+   *
+   * @throws IllegalStateException if an instrument cannot be registered
+   */
+  public synchronized void publishToJmx() {
+    if (mbeanServer != null) return;
+    mbeanServer = ManagementFactory.getPlatformMBeanServer();
+    counters.forEach((name, counter) -> publish("Counter", name, counter));
+    histograms.forEach((name, histogram) -> publish("Histogram", name, histogram));
+    gauges.forEach((name, gauge) -> publish("Gauge", name, gauge));
+  }
+
+  /**
+   * Appends every instrument in a plain-text exposition format, one value per line, sorted by name:
+   * counters and gauges as {@code name value}, histograms as p50/p99/p999 quantiles in nanoseconds
+   * followed by {@code name_count}, {@code name_sum} and {@code name_max}.
+   */
+  public StringBuilder writeText(StringBuilder out) {
+    counters.forEach(
+        (name, counter) -> {
+          out.append("# TYPE ").append(name).append(" counter\n");
+          out.append(name).append(' ').append(counter.getCount()).append('\n');
+        });
+    gauges.forEach(
+        (name, gauge) -> {
+          out.append("# TYPE ").append(name).append(" gauge\n");
+          out.append(name).append(' ').append(gauge.getValue()).append('\n');
+        });
+    histograms.forEach(
+        (name, histogram) -> {
+          out.append("# TYPE ").append(name).append(" summary\n");
+          quantile(out, name, "0.5", histogram.getP50());
+          quantile(out, name, "0.99", histogram.getP99());
+          quantile(out, name, "0.999", histogram.getP999());
+          out.append(name).append("_count ").append(histogram.getCount()).append('\n');
+          out.append(name).append("_sum ").append(histogram.getSum()).append('\n');
+          out.append(name).append("_max ").append(histogram.getMax()).append('\n');
+        });
+    return out;
+  }
+
+  private static void quantile(StringBuilder out, String name, String quantile, long value) {
+    out.append(name).append("{quantile=\"").append(quantile).append("\"} ");
+    out.append(value).append('\n');
+  }
+
+  private static String checkName(String name) {
+    if (!name.matches("[a-z][a-z0-9_]*")) {
+      throw new IllegalArgumentException("Invalid metric name: " + name);
+    }
+    return name;
+  }
+
+  // ==================== JMX ====================
+
+  private <T> T publish(String type, String name, T instrument) {
+    if (mbeanServer == null) return instrument;
+    Class<? super T> view = mxBeanInterface(instrument);
+    try {
+      ObjectName objectName = objectName(type, name);
+      if (!mbeanServer.isRegistered(objectName)) {
+        mbeanServer.registerMBean(new StandardMBean(instrument, view, true), objectName);
+      }
+      return instrument;
+    } catch (JMException e) {
+      throw new IllegalStateException("Cannot register metric " + name + " with JMX", e);
+    }
+  }
+
+  private void unpublish(String type, String name) {
+    if (mbeanServer == null) return;
+    try {
+      mbeanServer.unregisterMBean(objectName(type, name));
+    } catch (InstanceNotFoundException e) {
+      // Registered before JMX publishing started; nothing to remove.
+    } catch (JMException e) {
+      throw new IllegalStateException("Cannot unregister metric " + name + " from JMX", e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> Class<? super T> mxBeanInterface(T instrument) {
+    if (instrument instanceof Counter) return (Class<? super T>) CounterMXBean.class;
+    if (instrument instanceof Gauge) return (Class<? super T>) GaugeMXBean.class;
+    return (Class<? super T>) LatencyHistogramMXBean.class;
+  }
+
+  private static ObjectName objectName(String type, String name)
+      throws MalformedObjectNameException {
+    return new ObjectName(JMX_DOMAIN + ":type=" + type + ",name=" + name);
+  }
+}
@@ -0,0 +1,369 @@
+package persistence;
+
+import accounts.Account;
+import accounts.AccountManager;
+import accounts.CheckingAccount;
+import accounts.SavingsAccount;
+import customers.Customer;
+import customers.CustomerManager;
+import customers.PremiumCustomer;
+import customers.RegularCustomer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import transactions.Transaction;
+import utils.Page;
+
+/**
+ * Compact binary snapshot of every customer and account, plus the ID counters and the journal
+ * sequence it covers.
+ *
+ * <p>Layout: a 64-byte header, the distinct account statuses, one variable-length record per
+ * customer, one fixed 42-byte record per account, and a CRC32C of everything before it. Accounts
+ * refer to their customer by its position in the snapshot, so loading needs no lookups. Customers
+ * that own an account but were never registered with the {@link CustomerManager} are stored too and
+ * restored unregistered.
+ *
+ * <p>Snapshots are written through a {@link FileChannel} to a temporary file that is forced and
+ * then atomically renamed over the previous snapshot, so a crash mid-write leaves the old one
+ * intact. They are loaded from a memory-mapped, read-only view and bulk-added to presized managers.
+ */
+public final class BankSnapshot {
+
+  private static final long MAGIC = 0x424E4B534E415031L; // "BNKSNAP1"
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 64;
+  private static final int ACCOUNT_RECORD_SIZE = 42;
+  private static final int BUFFER_SIZE = 1 << 20;
+
+  static final byte REGULAR_CUSTOMER = 0;
+  static final byte PREMIUM_CUSTOMER = 1;
+  static final byte SAVINGS_ACCOUNT = 0;
+  static final byte CHECKING_ACCOUNT = 1;
+
+  /** Size in bytes of an account's type and terms, as written by {@link #putAccountTerms}. */
+  static final int ACCOUNT_TERMS_SIZE = 1 + 2 * Long.BYTES;
+
+  private static final int PAGE_SIZE = 4096;
+
+  private BankSnapshot() {}
+
+  /**
+   * Writes a snapshot of the managers' current state, replacing any existing snapshot atomically.
+   *
+   * @param file the snapshot file
+   * @param accountManager the accounts to save
+   * @param customerManager the registered customers to save
+   * @param journalSequence the last journal sequence number whose effects the state includes
+   * @throws IOException if the snapshot cannot be written
+   * @throws IllegalArgumentException if an account or customer is of an unsupported type
+   */
+  public static void write(
+      Path file,
+      AccountManager accountManager,
+      CustomerManager customerManager,
+      long journalSequence)
+      throws IOException {
+    List<Customer> customers = new ArrayList<>();
+    Map<Customer, Integer> customerIndex = new IdentityHashMap<>();
+    for (long cursor = Page.FIRST; ; ) {
+      Page<Customer> page = customerManager.getCustomersPage(cursor, PAGE_SIZE);
+      for (Customer customer : page.items()) {
+        customerIndex.put(customer, customers.size());
+        customers.add(customer);
+      }
+      cursor = page.nextCursor();
+      if (!page.hasMore()) break;
+    }
+    int registeredCustomers = customers.size();
+
+    List<Account> accounts = new ArrayList<>(accountManager.getAccountCount());
+    Map<String, Integer> statuses = new LinkedHashMap<>();
+    for (long cursor = Page.FIRST; ; ) {
+      Page<Account> page = accountManager.getAccountsPage(cursor, PAGE_SIZE);
+      for (Account account : page.items()) {
+        accounts.add(account);
+        statuses.putIfAbsent(account.getStatus(), statuses.size());
+        if (customerIndex.putIfAbsent(account.getCustomer(), customers.size()) == null) {
+          customers.add(account.getCustomer());
+        }
+      }
+      cursor = page.nextCursor();
+      if (!page.hasMore()) break;
+    }
+    if (statuses.size() > Byte.MAX_VALUE) {
+      throw new IllegalArgumentException("Too many distinct account statuses");
+    }
+
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    try (FileChannel channel =
+        FileChannel.open(
+            temporary,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      ChecksummedWriter out = new ChecksummedWriter(channel);
+
+      ByteBuffer header = out.reserve(HEADER_SIZE);
+      header.putLong(MAGIC);
+      header.putInt(VERSION);
+      header.putInt(0);
+      header.putLong(journalSequence);
+      header.putLong(Account.getAccountCounter());
+      header.putLong(Customer.getCustomerCounter());
+      header.putLong(Transaction.getTransactionCounter());
+      header.putInt(customers.size());
+      header.putInt(registeredCustomers);
+      header.putInt(accounts.size());
+      header.putInt(statuses.size());
+
+      for (String status : statuses.keySet()) out.putString(status);
+
+      for (Customer customer : customers) {
+        ByteBuffer record = out.reserve(Long.BYTES + 1 + Integer.BYTES);
+        record.putLong(customer.getId());
+        record.put(customerTypeOf(customer));
+        record.putInt(customer.getAge());
+        out.putString(customer.getName());
+        out.putString(customer.getContact());
+        out.putString(customer.getAddress());
+      }
+
+      for (Account account : accounts) {
+        ByteBuffer record = out.reserve(ACCOUNT_RECORD_SIZE);
+        record.putLong(account.getId());
+        record.putInt(customerIndex.get(account.getCustomer()));
+        record.put(statuses.get(account.getStatus()).byteValue());
+        record.putLong(account.getBalanceCents());
+        putAccountTerms(record, account);
+        record.putInt(account.getLastClosedPeriod());
+      }
+
+      out.finish();
+      channel.force(true);
+    }
+    Files.move(
+        temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Loads a snapshot into empty managers and advances the ID counters past everything it covers.
+   *
+   * @param file the snapshot file
+   * @param accountManager receives the saved accounts
+   * @param customerManager receives the saved registered customers
+   * @return what was loaded and the journal sequence the snapshot covers
+   * @throws IOException if the file cannot be read, is not a snapshot, or fails its checksum
+   */
+  public static Contents load(
+      Path file, AccountManager accountManager, CustomerManager customerManager)
+      throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_SIZE + Integer.BYTES || channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Not a bank snapshot: " + file);
+      }
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    int checksumOffset = buffer.capacity() - Integer.BYTES;
+    CRC32C crc = new CRC32C();
+    crc.update(buffer.duplicate().limit(checksumOffset));
+    if (buffer.getLong(0) != MAGIC || buffer.getInt(8) != VERSION) {
+      throw new IOException("Not a bank snapshot: " + file);
+    }
+    if (buffer.getInt(checksumOffset) != (int) crc.getValue()) {
+      throw new IOException("Snapshot checksum mismatch: " + file);
+    }
+
+    buffer.position(16);
+    long journalSequence = buffer.getLong();
+    long accountCounter = buffer.getLong();
+    long customerCounter = buffer.getLong();
+    long transactionCounter = buffer.getLong();
+    int customerCount = buffer.getInt();
+    int registeredCustomers = buffer.getInt();
+    int accountCount = buffer.getInt();
+    int statusCount = buffer.getInt();
+    buffer.position(HEADER_SIZE);
+
+    byte[] scratch = new byte[256];
+    String[] statuses = new String[statusCount];
+    for (int i = 0; i < statusCount; i++) {
+      statuses[i] = getString(buffer, scratch);
+      scratch = growScratch(scratch, buffer);
+    }
+
+    Customer[] customers = new Customer[customerCount];
+    customerManager.ensureCapacity(customerManager.getCustomerCount() + registeredCustomers);
+    for (int i = 0; i < customerCount; i++) {
+      long id = buffer.getLong();
+      byte type = buffer.get();
+      int age = buffer.getInt();
+      scratch = growScratch(scratch, buffer);
+      String name = getString(buffer, scratch);
+      scratch = growScratch(scratch, buffer);
+      String contact = getString(buffer, scratch);
+      scratch = growScratch(scratch, buffer);
+      String address = getString(buffer, scratch);
+      customers[i] = restoreCustomer(file, type, id, name, age, contact, address);
+      if (i < registeredCustomers) customerManager.addCustomer(customers[i]);
+    }
+
+    accountManager.ensureCapacity(accountManager.getAccountCount() + accountCount);
+    for (int i = 0; i < accountCount; i++) {
+      long id = buffer.getLong();
+      Customer customer = customers[buffer.getInt()];
+      String status = statuses[buffer.get()];
+      long balance = buffer.getLong();
+      byte type = buffer.get();
+      long first = buffer.getLong();
+      long second = buffer.getLong();
+      int lastClosedPeriod = buffer.getInt();
+      Account account = restoreAccount(file, type, id, customer, balance, status, first, second);
+      account.setLastClosedPeriod(lastClosedPeriod);
+      accountManager.addAccount(account);
+    }
+
+    Account.advanceAccountCounterPast(accountCounter);
+    Customer.advanceCustomerCounterPast(customerCounter);
+    Transaction.advanceTransactionCounterPast(transactionCounter);
+    return new Contents(journalSequence, registeredCustomers, accountCount);
+  }
+
+  /**
+   * Summary of a loaded snapshot.
+   *
+   * @param journalSequence the last journal sequence number the snapshot includes; replay only the
+   *     records after it
+   * @param customers number of registered customers restored
+   * @param accounts number of accounts restored
+   */
+  public record Contents(long journalSequence, int customers, int accounts) {}
+
+  // ==================== ENCODING HELPERS ====================
+
+  static byte customerTypeOf(Customer customer) {
+    if (customer instanceof RegularCustomer) return REGULAR_CUSTOMER;
+    if (customer instanceof PremiumCustomer) return PREMIUM_CUSTOMER;
+    throw new IllegalArgumentException("Unsupported customer type: " + customer.getClass());
+  }
+
+  /** Recreates a customer from its saved type code and fields. */
+  static Customer restoreCustomer(
+      Path file, byte type, long id, String name, int age, String contact, String address)
+      throws IOException {
+    return switch (type) {
+      case REGULAR_CUSTOMER -> RegularCustomer.restore(id, name, age, contact, address);
+      case PREMIUM_CUSTOMER -> PremiumCustomer.restore(id, name, age, contact, address);
+      default -> throw new IOException("Unknown customer type " + type + " in " + file);
+    };
+  }
+
+  /**
+   * Writes an account's type code and its two type-specific terms: the minimum balance and interest
+   * rate of a savings account, or the overdraft limit and monthly fee of a checking one.
+   */
+  static void putAccountTerms(ByteBuffer record, Account account) {
+    if (account instanceof SavingsAccount savings) {
+      record.put(SAVINGS_ACCOUNT);
+      record.putLong(savings.getMinimumBalanceCents());
+      record.putLong(Double.doubleToLongBits(savings.getInterestRate()));
+    } else if (account instanceof CheckingAccount checking) {
+      record.put(CHECKING_ACCOUNT);
+      record.putLong(checking.getOverdraftLimitCents());
+      record.putLong(checking.getMonthlyFeeCents());
+    } else {
+      throw new IllegalArgumentException("Unsupported account type: " + account.getClass());
+    }
+  }
+
+  /** Recreates an account from the type code and terms written by {@link #putAccountTerms}. */
+  static Account restoreAccount(
+      Path file,
+      byte type,
+      long id,
+      Customer customer,
+      long balance,
+      String status,
+      long first,
+      long second)
+      throws IOException {
+    return switch (type) {
+      case SAVINGS_ACCOUNT -> SavingsAccount.restore(
+          id, customer, balance, status, Double.longBitsToDouble(second), first);
+      case CHECKING_ACCOUNT -> CheckingAccount.restore(
+          id, customer, balance, status, first, second);
+      default -> throw new IOException("Unknown account type " + type + " in " + file);
+    };
+  }
+
+  /** Reads a length-prefixed UTF-8 string; a length of -1 stands for null. */
+  static String getString(ByteBuffer buffer, byte[] scratch) {
+    int length = buffer.getInt();
+    if (length < 0) return null;
+    buffer.get(scratch, 0, length);
+    return new String(scratch, 0, length, StandardCharsets.UTF_8);
+  }
+
+  /** Returns a scratch array large enough for the string whose length prefix comes next. */
+  static byte[] growScratch(byte[] scratch, ByteBuffer buffer) {
+    int next = buffer.getInt(buffer.position());
+    return next > scratch.length ? new byte[next] : scratch;
+  }
+
+  /** Buffers writes to a channel and keeps a running CRC32C of everything written. */
+  private static final class ChecksummedWriter {
+    private final FileChannel channel;
+    private final CRC32C crc = new CRC32C();
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    ChecksummedWriter(FileChannel channel) {
+      this.channel = channel;
+    }
+
+    /** Returns the buffer with room for at least {@code bytes} more bytes. */
+    ByteBuffer reserve(int bytes) throws IOException {
+      if (buffer.remaining() < bytes) {
+        flush();
+        if (buffer.capacity() < bytes) buffer = ByteBuffer.allocateDirect(bytes);
+      }
+      return buffer;
+    }
+
+    void putString(String value) throws IOException {
+      if (value == null) {
+        reserve(Integer.BYTES).putInt(-1);
+        return;
+      }
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      reserve(Integer.BYTES + bytes.length).putInt(bytes.length).put(bytes);
+    }
+
+    /** Flushes the buffer and appends the checksum. */
+    void finish() throws IOException {
+      flush();
+      buffer.putInt((int) crc.getValue()).flip();
+      while (buffer.hasRemaining()) channel.write(buffer);
+    }
+
+    private void flush() throws IOException {
+      buffer.flip();
+      crc.update(buffer.duplicate());
+      while (buffer.hasRemaining()) channel.write(buffer);
+      buffer.clear();
+    }
+  }
+}
@@ -0,0 +1,147 @@
+package persistence;
+
+import accounts.AccountManager;
+import customers.CustomerManager;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import transactions.TransactionManager;
+
+/**
+ * On-disk home of the bank's state: a {@link BankSnapshot} of customers and accounts, the {@link
+ * RegistrationLog} of customers and accounts registered since, and the {@link TransactionJournal}
+ * of transactions.
+ *
+ * <p>Opening the directory loads the snapshot, restores the logged registrations on top of it,
+ * replays the whole journal into the transaction history while restoring balances only from the
+ * records newer than the snapshot, and attaches the logs to the managers. {@link #checkpoint()}
+ * writes a new snapshot covering the whole journal and drops the registrations it includes; closing
+ * checkpoints once more and closes the logs.
+ */
+public final class DataDirectory implements AutoCloseable {
+
+  static final String SNAPSHOT_FILE = "snapshot.bin";
+  static final String JOURNAL_DIRECTORY = "journal";
+  static final String REGISTRY_DIRECTORY = "registry";
+
+  private final Path snapshotFile;
+  private final AccountManager accountManager;
+  private final CustomerManager customerManager;
+  private final RegistrationLog registrations;
+  private final TransactionJournal journal;
+  private final Recovery recovery;
+
+  private DataDirectory(
+      Path directory,
+      AccountManager accountManager,
+      CustomerManager customerManager,
+      RegistrationLog registrations,
+      TransactionJournal journal,
+      Recovery recovery) {
+    this.snapshotFile = directory.resolve(SNAPSHOT_FILE);
+    this.accountManager = accountManager;
+    this.customerManager = customerManager;
+    this.registrations = registrations;
+    this.journal = journal;
+    this.recovery = recovery;
+  }
+
+  /**
+   * Opens (or creates) a data directory and restores its state into empty managers.
+   *
+   * @param directory the data directory
+   * @param accountManager receives the saved accounts, and records new ones in the registration log
+   *     from now on
+   * @param customerManager receives the saved customers, and records new ones in the registration
+   *     log from now on
+   * @param transactionManager receives every journaled transaction, and records new ones in the
+   *     journal from now on
+   * @return the opened directory
+   * @throws IOException if the snapshot, registration log or journal cannot be read
+   */
+  public static DataDirectory open(
+      Path directory,
+      AccountManager accountManager,
+      CustomerManager customerManager,
+      TransactionManager transactionManager)
+      throws IOException {
+    Files.createDirectories(directory);
+    Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+    BankSnapshot.Contents snapshot =
+        Files.exists(snapshotFile)
+            ? BankSnapshot.load(snapshotFile, accountManager, customerManager)
+            : new BankSnapshot.Contents(0, 0, 0);
+
+    RegistrationLog registrations = RegistrationLog.open(directory.resolve(REGISTRY_DIRECTORY));
+    TransactionJournal journal = null;
+    try {
+      RegistrationLog.ReplayResult registered =
+          registrations.replay(accountManager, customerManager);
+      journal = TransactionJournal.open(directory.resolve(JOURNAL_DIRECTORY));
+      TransactionJournal.ReplayResult replay =
+          journal.replay(snapshot.journalSequence(), accountManager, transactionManager);
+      customerManager.setCustomerLog(registrations);
+      accountManager.setAccountLog(registrations);
+      transactionManager.setTransactionLog(journal);
+      return new DataDirectory(
+          directory,
+          accountManager,
+          customerManager,
+          registrations,
+          journal,
+          new Recovery(snapshot, registered, replay));
+    } catch (IOException | RuntimeException e) {
+      if (journal != null) journal.close();
+      registrations.close();
+      throw e;
+    }
+  }
+
+  /** Returns what was restored when the directory was opened. */
+  public Recovery getRecovery() {
+    return recovery;
+  }
+
+  /**
+   * Writes a snapshot of the current customers and accounts covering every journaled transaction,
+   * so the next open restores no balance from an older record, then deletes the registrations the
+   * snapshot includes. Replaying a record twice only resets a balance to the value it already has,
+   * and a registration logged after the rotation is kept even if the snapshot includes it too, so
+   * nothing posted or registered while the snapshot is written is lost.
+   *
+   * @throws IOException if the snapshot cannot be written or the old registrations deleted
+   */
+  public void checkpoint() throws IOException {
+    long generation = registrations.rotate();
+    long sequence = journal.getLastSequence();
+    journal.sync();
+    BankSnapshot.write(snapshotFile, accountManager, customerManager, sequence);
+    registrations.deleteBefore(generation);
+  }
+
+  /** Checkpoints and closes the registration log and journal. */
+  @Override
+  public void close() throws IOException {
+    try {
+      checkpoint();
+    } finally {
+      try {
+        journal.close();
+      } finally {
+        registrations.close();
+      }
+    }
+  }
+
+  /**
+   * What was restored on open.
+   *
+   * @param snapshot the loaded snapshot; all zeros if there was none
+   * @param registrations the customers and accounts restored from the registration log on top of it
+   * @param replay the journal records replayed on top of both
+   */
+  public record Recovery(
+      BankSnapshot.Contents snapshot,
+      RegistrationLog.ReplayResult registrations,
+      TransactionJournal.ReplayResult replay) {}
+}
@@ -0,0 +1,390 @@
+package persistence;
+
+import accounts.Account;
+import accounts.AccountLog;
+import accounts.AccountManager;
+import customers.Customer;
+import customers.CustomerLog;
+import customers.CustomerManager;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32C;
+import utils.Page;
+
+/**
+ * Append-only log of the customers and accounts registered since the last {@link BankSnapshot}.
+ *
+ * <p>The managers record each customer and account here before making it visible, so a crash before
+ * the next checkpoint loses neither, and a restarted process never hands a lost account's number to
+ * a new account. Each record is its payload length, a CRC32C of the payload, and the payload; an
+ * account's record repeats its customer, since the customer may never have been registered. On
+ * open, the first record in the newest file that is cut short or fails its checksum marks a torn
+ * tail, and the file is truncated before it.
+ *
+ * <p>The log is split into numbered generation files. A checkpoint calls {@link #rotate()} before
+ * writing its snapshot and {@link #deleteBefore(long)} after, so every registration is in the
+ * snapshot, the log, or both. Only registrations are recorded: later changes to a customer's
+ * details or an account's status are saved by the next checkpoint, and balances are restored from
+ * the {@link TransactionJournal}.
+ *
+ * <p>Appends only reach the page cache, which survives a process crash. Call {@link #sync()} to
+ * force them to the storage device as well.
+ */
+public final class RegistrationLog implements AccountLog, CustomerLog, AutoCloseable {
+
+  private static final byte CUSTOMER_RECORD = 1;
+  private static final byte ACCOUNT_RECORD = 2;
+  private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+  private static final int PAGE_SIZE = 4096;
+
+  private static final String FILE_PREFIX = "registry-";
+  private static final String FILE_SUFFIX = ".log";
+
+  private final Path directory;
+  private final CRC32C checksum = new CRC32C();
+
+  private ByteBuffer record = ByteBuffer.allocate(512);
+  private FileChannel channel;
+  private long generation;
+  private long truncatedBytes;
+
+  private RegistrationLog(Path directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Opens (or creates) the log in the given directory, truncating a torn tail record if the
+   * previous process stopped mid-append.
+   *
+   * @param directory the directory holding the generation files
+   * @return the opened log, positioned after its last intact record
+   * @throws IOException if the newest generation cannot be created or read
+   */
+  public static RegistrationLog open(Path directory) throws IOException {
+    Files.createDirectories(directory);
+    RegistrationLog log = new RegistrationLog(directory);
+    long[] generations = log.generations();
+    log.openGeneration(generations.length == 0 ? 0 : generations[generations.length - 1]);
+    log.recoverTail();
+    return log;
+  }
+
+  /** Returns how many bytes of a torn tail record were truncated when the log was opened. */
+  public long getTruncatedBytes() {
+    return truncatedBytes;
+  }
+
+  /**
+   * Restores every logged customer and account that the managers do not hold yet, e.g. because they
+   * were registered after the snapshot was written, and advances the ID counters past them. Attach
+   * this log to the managers only after replaying, so restored entries are not logged again.
+   *
+   * @param accountManager receives the logged accounts
+   * @param customerManager receives the logged customers
+   * @return how many customers and accounts were restored
+   * @throws IOException if a generation cannot be read or holds a corrupt record
+   */
+  public synchronized ReplayResult replay(
+      AccountManager accountManager, CustomerManager customerManager) throws IOException {
+    Map<Long, Customer> customers = new HashMap<>();
+    Set<Long> registered = new HashSet<>();
+    for (long cursor = Page.FIRST; ; ) {
+      Page<Customer> page = customerManager.getCustomersPage(cursor, PAGE_SIZE);
+      for (Customer customer : page.items()) {
+        customers.put(customer.getId(), customer);
+        registered.add(customer.getId());
+      }
+      cursor = page.nextCursor();
+      if (!page.hasMore()) break;
+    }
+    Set<Long> accounts = new HashSet<>();
+    for (long cursor = Page.FIRST; ; ) {
+      Page<Account> page = accountManager.getAccountsPage(cursor, PAGE_SIZE);
+      for (Account account : page.items()) {
+        accounts.add(account.getId());
+        customers.putIfAbsent(account.getCustomer().getId(), account.getCustomer());
+      }
+      cursor = page.nextCursor();
+      if (!page.hasMore()) break;
+    }
+
+    int restoredCustomers = 0;
+    int restoredAccounts = 0;
+    byte[] scratch = new byte[256];
+    for (long index : generations()) {
+      Path file = generationPath(index);
+      ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+      while (buffer.hasRemaining()) {
+        int length = intactLength(buffer);
+        if (length < 0) {
+          throw new IOException(
+              "Corrupt registration record at byte " + buffer.position() + " of " + file);
+        }
+        buffer.position(buffer.position() + RECORD_HEADER_SIZE);
+        int end = buffer.position() + length;
+
+        byte kind = buffer.get();
+        long customerId = buffer.getLong();
+        byte customerType = buffer.get();
+        int age = buffer.getInt();
+        scratch = BankSnapshot.growScratch(scratch, buffer);
+        String name = BankSnapshot.getString(buffer, scratch);
+        scratch = BankSnapshot.growScratch(scratch, buffer);
+        String contact = BankSnapshot.getString(buffer, scratch);
+        scratch = BankSnapshot.growScratch(scratch, buffer);
+        String address = BankSnapshot.getString(buffer, scratch);
+        Customer customer = customers.get(customerId);
+        if (customer == null) {
+          customer =
+              BankSnapshot.restoreCustomer(
+                  file, customerType, customerId, name, age, contact, address);
+          customers.put(customerId, customer);
+        }
+
+        if (kind == CUSTOMER_RECORD) {
+          if (registered.add(customerId)) {
+            customerManager.addCustomer(customer);
+            restoredCustomers++;
+          }
+        } else if (kind == ACCOUNT_RECORD) {
+          long accountId = buffer.getLong();
+          scratch = BankSnapshot.growScratch(scratch, buffer);
+          String status = BankSnapshot.getString(buffer, scratch);
+          long balance = buffer.getLong();
+          byte accountType = buffer.get();
+          long first = buffer.getLong();
+          long second = buffer.getLong();
+          if (accounts.add(accountId)) {
+            accountManager.addAccount(
+                BankSnapshot.restoreAccount(
+                    file, accountType, accountId, customer, balance, status, first, second));
+            restoredAccounts++;
+          }
+        } else {
+          throw new IOException("Unknown registration record kind " + kind + " in " + file);
+        }
+        buffer.position(end);
+      }
+    }
+    return new ReplayResult(restoredCustomers, restoredAccounts);
+  }
+
+  /**
+   * Records a newly registered customer.
+   *
+   * @throws UncheckedIOException if the record cannot be written
+   */
+  @Override
+  public synchronized void append(Customer customer) {
+    startRecord(CUSTOMER_RECORD);
+    putCustomer(customer);
+    commitRecord();
+  }
+
+  /**
+   * Records a newly registered account together with its customer, terms and opening balance.
+   *
+   * @throws UncheckedIOException if the record cannot be written
+   */
+  @Override
+  public synchronized void append(Account account) {
+    startRecord(ACCOUNT_RECORD);
+    putCustomer(account.getCustomer());
+    reserve(Long.BYTES).putLong(account.getId());
+    putString(account.getStatus());
+    reserve(Long.BYTES).putLong(account.getBalanceCents());
+    BankSnapshot.putAccountTerms(reserve(BankSnapshot.ACCOUNT_TERMS_SIZE), account);
+    commitRecord();
+  }
+
+  /**
+   * Starts a new generation file that receives every later record, and returns its number. Once a
+   * snapshot written after this call is in place, {@link #deleteBefore} may drop the older ones.
+   *
+   * @throws IOException if the new generation cannot be created
+   */
+  public synchronized long rotate() throws IOException {
+    openGeneration(generation + 1);
+    return generation;
+  }
+
+  /**
+   * Deletes the generation files numbered below {@code generation}.
+   *
+   * @throws IOException if a file cannot be deleted
+   */
+  public void deleteBefore(long generation) throws IOException {
+    for (long index : generations()) {
+      if (index < generation) Files.deleteIfExists(generationPath(index));
+    }
+  }
+
+  /**
+   * Forces the current generation's contents to the storage device.
+   *
+   * @throws IOException if the channel cannot be forced
+   */
+  public synchronized void sync() throws IOException {
+    channel.force(true);
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (channel != null) {
+      channel.force(true);
+      channel.close();
+      channel = null;
+    }
+  }
+
+  /**
+   * Outcome of a replay.
+   *
+   * @param customers number of registered customers restored from the log
+   * @param accounts number of accounts restored from the log
+   */
+  public record ReplayResult(int customers, int accounts) {}
+
+  // ==================== RECORD HELPERS ====================
+
+  private void startRecord(byte kind) {
+    record.clear();
+    record.position(RECORD_HEADER_SIZE);
+    record.put(kind);
+  }
+
+  private void putCustomer(Customer customer) {
+    reserve(Long.BYTES + 1 + Integer.BYTES)
+        .putLong(customer.getId())
+        .put(BankSnapshot.customerTypeOf(customer))
+        .putInt(customer.getAge());
+    putString(customer.getName());
+    putString(customer.getContact());
+    putString(customer.getAddress());
+  }
+
+  /** Writes a length-prefixed UTF-8 string; a length of -1 stands for null. */
+  private void putString(String value) {
+    if (value == null) {
+      reserve(Integer.BYTES).putInt(-1);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    reserve(Integer.BYTES + bytes.length).putInt(bytes.length).put(bytes);
+  }
+
+  /** Returns the record buffer with room for at least {@code bytes} more bytes. */
+  private ByteBuffer reserve(int bytes) {
+    if (record.remaining() < bytes) {
+      ByteBuffer grown =
+          ByteBuffer.allocate(Math.max(record.capacity() * 2, record.position() + bytes));
+      record = grown.put(record.flip());
+    }
+    return record;
+  }
+
+  /**
+   * Seals the record with its length and checksum and writes it; a failed write is truncated away
+   * so the next record does not follow a torn one.
+   */
+  private void commitRecord() {
+    int length = record.position() - RECORD_HEADER_SIZE;
+    checksum.reset();
+    checksum.update(record.array(), RECORD_HEADER_SIZE, length);
+    record.putInt(0, length).putInt(Integer.BYTES, (int) checksum.getValue()).flip();
+    long start = -1;
+    try {
+      start = channel.size();
+      while (record.hasRemaining()) channel.write(record);
+    } catch (IOException e) {
+      try {
+        if (start >= 0) channel.truncate(start);
+      } catch (IOException suppressed) {
+        e.addSuppressed(suppressed);
+      }
+      throw new UncheckedIOException("Cannot record registration", e);
+    }
+  }
+
+  /**
+   * Returns the payload length of the intact record at the buffer's position, or -1 if it is cut
+   * short or fails its checksum.
+   */
+  private int intactLength(ByteBuffer buffer) {
+    int base = buffer.position();
+    if (buffer.limit() - base < RECORD_HEADER_SIZE) return -1;
+    int length = buffer.getInt(base);
+    if (length <= 0 || length > buffer.limit() - base - RECORD_HEADER_SIZE) return -1;
+    checksum.reset();
+    checksum.update(
+        buffer
+            .duplicate()
+            .position(base + RECORD_HEADER_SIZE)
+            .limit(base + RECORD_HEADER_SIZE + length));
+    return buffer.getInt(base + Integer.BYTES) == (int) checksum.getValue() ? length : -1;
+  }
+
+  // ==================== GENERATION HELPERS ====================
+
+  /** Finds the end of the last intact record in the current generation and truncates after it. */
+  private void recoverTail() throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(generationPath(generation)));
+    while (buffer.hasRemaining()) {
+      int length = intactLength(buffer);
+      if (length < 0) break;
+      buffer.position(buffer.position() + RECORD_HEADER_SIZE + length);
+    }
+    truncatedBytes = buffer.remaining();
+    if (truncatedBytes > 0) channel.truncate(buffer.position());
+    channel.position(buffer.position());
+  }
+
+  private void openGeneration(long index) throws IOException {
+    FileChannel opened =
+        FileChannel.open(
+            generationPath(index),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+    if (channel != null) channel.close();
+    channel = opened;
+    channel.position(channel.size());
+    generation = index;
+  }
+
+  /** Returns the generation numbers present in the directory, in ascending order. */
+  private long[] generations() throws IOException {
+    try (var files = Files.list(directory)) {
+      return files
+          .map(path -> path.getFileName().toString())
+          .filter(name -> name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX))
+          .mapToLong(RegistrationLog::generationOf)
+          .filter(index -> index >= 0)
+          .sorted()
+          .toArray();
+    }
+  }
+
+  private Path generationPath(long index) {
+    return directory.resolve(String.format("%s%08d%s", FILE_PREFIX, index, FILE_SUFFIX));
+  }
+
+  private static long generationOf(String fileName) {
+    try {
+      return Long.parseLong(
+          fileName.substring(FILE_PREFIX.length(), fileName.length() - FILE_SUFFIX.length()));
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+}
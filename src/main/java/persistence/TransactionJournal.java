@@ -0,0 +1,399 @@
+package persistence;
+
+import accounts.Account;
+import accounts.AccountManager;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+import transactions.Transaction;
+import transactions.TransactionLog;
+import transactions.TransactionManager;
+
+/**
+ * Append-only, memory-mapped journal of transactions.
+ *
+ * <p>Transactions are written as fixed-size binary records into segment files of {@code
+ * segmentRecords} records each. Record {@code n} (1-based) always lives in segment {@code (n - 1) /
+ * segmentRecords}, so the tail can be located by scanning only the newest segment. Each record
+ * carries a CRC32C checksum; on open, the first record that fails it marks a torn tail and
+ * everything after it in the segment is zeroed. A segment whose size does not match the record
+ * layout, e.g. one written before reversals carried the ID they undo, is refused rather than
+ * truncated.
+ *
+ * <p>A period close is recorded as a record of type {@value #PERIOD_CLOSE} whose amount is the
+ * period index. Replay raises the account's last closed period to it instead of adding it to the
+ * history, so rerunning a period after a crash skips accounts whose close was journaled.
+ *
+ * <p>Appends only copy bytes into the mapped page cache, which survives a process crash. Call
+ * {@link #sync()} to force segments to the storage device as well.
+ */
+public class TransactionJournal implements TransactionLog, AutoCloseable {
+
+  /** Size in bytes of one journal record. */
+  public static final int RECORD_SIZE = 88;
+
+  static final int DEFAULT_SEGMENT_RECORDS = 1 << 16;
+
+  /** Type of the records that mark a period closed on an account. */
+  static final String PERIOD_CLOSE = "PERIOD_CLOSE";
+
+  private static final int SEQUENCE_OFFSET = 0;
+  private static final int EPOCH_OFFSET = 8;
+  private static final int AMOUNT_OFFSET = 16;
+  private static final int BALANCE_OFFSET = 24;
+  private static final int REVERSED_ID_OFFSET = 32;
+  private static final int TRANSACTION_ID_OFFSET = 40;
+  private static final int ACCOUNT_OFFSET = 56;
+  private static final int TYPE_OFFSET = 72;
+  private static final int CHECKSUM_OFFSET = 84;
+
+  private static final int ID_WIDTH = 16;
+  private static final int TYPE_WIDTH = 12;
+
+  private static final String SEGMENT_PREFIX = "journal-";
+  private static final String SEGMENT_SUFFIX = ".seg";
+
+  private final Path directory;
+  private final int segmentRecords;
+  private final CRC32C checksum = new CRC32C();
+
+  private FileChannel channel;
+  private MappedByteBuffer segment;
+  private long segmentIndex;
+  private int slot;
+  private long lastSequence;
+  private long truncatedBytes;
+
+  private TransactionJournal(Path directory, int segmentRecords) {
+    this.directory = directory;
+    this.segmentRecords = segmentRecords;
+  }
+
+  /**
+   * Opens (or creates) the journal in the given directory, truncating a torn tail record if the
+   * previous process stopped mid-append.
+   *
+   * @param directory the directory holding the segment files
+   * @return the opened journal, positioned after its last intact record
+   * @throws IOException if the segments cannot be created or mapped
+   */
+  public static TransactionJournal open(Path directory) throws IOException {
+    return open(directory, DEFAULT_SEGMENT_RECORDS);
+  }
+
+  static TransactionJournal open(Path directory, int segmentRecords) throws IOException {
+    Files.createDirectories(directory);
+    TransactionJournal journal = new TransactionJournal(directory, segmentRecords);
+    journal.recoverTail();
+    return journal;
+  }
+
+  /** Returns the sequence number of the last intact record, or 0 if the journal is empty. */
+  public synchronized long getLastSequence() {
+    return lastSequence;
+  }
+
+  /** Returns how many bytes of torn or stray data were zeroed when the journal was opened. */
+  public long getTruncatedBytes() {
+    return truncatedBytes;
+  }
+
+  /**
+   * Appends a transaction record, rolling to a new segment when the current one is full.
+   *
+   * @param transaction the transaction to record
+   * @throws IllegalArgumentException if an ID, account number or type is too long for its field
+   * @throws UncheckedIOException if a new segment cannot be created
+   */
+  @Override
+  public synchronized void append(Transaction transaction) {
+    int base = nextRecord();
+    segment.putLong(base + EPOCH_OFFSET, transaction.getEpochMillis());
+    segment.putLong(base + AMOUNT_OFFSET, transaction.getAmountCents());
+    segment.putLong(base + BALANCE_OFFSET, transaction.getBalanceAfterCents());
+    segment.putLong(base + REVERSED_ID_OFFSET, transaction.getReversedId());
+    putAscii(segment, base + TRANSACTION_ID_OFFSET, ID_WIDTH, transaction.getTransactionId());
+    putAscii(segment, base + ACCOUNT_OFFSET, ID_WIDTH, transaction.getAccountNumber());
+    putAscii(segment, base + TYPE_OFFSET, TYPE_WIDTH, transaction.getType());
+    commitRecord(base);
+  }
+
+  /**
+   * Appends a record marking a period closed on an account.
+   *
+   * @throws IllegalArgumentException if the account number is too long for its field
+   * @throws UncheckedIOException if a new segment cannot be created
+   */
+  @Override
+  public synchronized void appendPeriodClose(String accountNumber, int period) {
+    int base = nextRecord();
+    segment.putLong(base + EPOCH_OFFSET, 0);
+    segment.putLong(base + AMOUNT_OFFSET, period);
+    segment.putLong(base + BALANCE_OFFSET, 0);
+    segment.putLong(base + REVERSED_ID_OFFSET, 0);
+    putAscii(segment, base + TRANSACTION_ID_OFFSET, ID_WIDTH, "");
+    putAscii(segment, base + ACCOUNT_OFFSET, ID_WIDTH, accountNumber);
+    putAscii(segment, base + TYPE_OFFSET, TYPE_WIDTH, PERIOD_CLOSE);
+    commitRecord(base);
+  }
+
+  /** Rolls to a new segment if the current one is full and returns the next record's offset. */
+  private int nextRecord() {
+    if (slot == segmentRecords) {
+      try {
+        mapSegment(segmentIndex + 1);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Cannot roll journal segment", e);
+      }
+    }
+    int base = slot * RECORD_SIZE;
+    segment.putLong(base + SEQUENCE_OFFSET, lastSequence + 1);
+    return base;
+  }
+
+  /** Seals the record at {@code base} with its checksum and advances the tail past it. */
+  private void commitRecord(int base) {
+    segment.putInt(base + CHECKSUM_OFFSET, checksumOf(segment, base));
+    slot++;
+    lastSequence++;
+  }
+
+  /**
+   * Replays every intact record, in sequence, into the transaction history and sets each known
+   * account's balance to the recorded balance-after. A record whose account is not registered is
+   * quarantined: it is counted but kept out of the history, so it cannot be attributed to another
+   * account. The account and transaction counters are still advanced past every record, so a new
+   * account or transaction never reuses a journaled number. Attach this journal to the manager only
+   * after replaying, so the replayed records are not appended again.
+   *
+   * @param accountManager accounts whose balances are restored
+   * @param transactionManager history that receives the replayed transactions
+   * @return counts of replayed records and of quarantined records naming unknown accounts
+   * @throws IOException if a segment cannot be read or a record before the tail is corrupt
+   */
+  public ReplayResult replay(AccountManager accountManager, TransactionManager transactionManager)
+      throws IOException {
+    return replay(0, accountManager, transactionManager);
+  }
+
+  /**
+   * Replays every intact record into the transaction history, but restores balances only from the
+   * records with a sequence number greater than {@code balancesAfterSequence}. A snapshot already
+   * holds the balances its records produced, while the history before it lives only here.
+   *
+   * @param balancesAfterSequence the last sequence number whose balance is already restored
+   * @see #replay(AccountManager, TransactionManager)
+   */
+  public synchronized ReplayResult replay(
+      long balancesAfterSequence,
+      AccountManager accountManager,
+      TransactionManager transactionManager)
+      throws IOException {
+    long replayed = 0;
+    long balancesApplied = 0;
+    long unknownAccounts = 0;
+    byte[] scratch = new byte[ID_WIDTH];
+    Map<String, Optional<Account>> resolved = new HashMap<>();
+
+    for (long sequence = 1; sequence <= lastSequence; ) {
+      long index = (sequence - 1) / segmentRecords;
+      ByteBuffer buffer = index == segmentIndex ? segment : mapReadOnly(index);
+      for (int s = (int) ((sequence - 1) % segmentRecords);
+          s < segmentRecords && sequence <= lastSequence;
+          s++, sequence++) {
+        int base = s * RECORD_SIZE;
+        if (!isIntact(buffer, base, sequence)) {
+          throw new IOException("Corrupt journal record at sequence " + sequence);
+        }
+
+        String type = getAscii(buffer, base + TYPE_OFFSET, TYPE_WIDTH, scratch);
+        if (type.equals(PERIOD_CLOSE)) {
+          Account account =
+              accountManager.tryFindAccount(
+                  getAscii(buffer, base + ACCOUNT_OFFSET, ID_WIDTH, scratch));
+          int period = (int) buffer.getLong(base + AMOUNT_OFFSET);
+          if (account != null && account.getLastClosedPeriod() < period) {
+            account.setLastClosedPeriod(period);
+          }
+          continue;
+        }
+
+        Transaction transaction =
+            Transaction.restore(
+                getAscii(buffer, base + TRANSACTION_ID_OFFSET, ID_WIDTH, scratch),
+                getAscii(buffer, base + ACCOUNT_OFFSET, ID_WIDTH, scratch),
+                type,
+                buffer.getLong(base + AMOUNT_OFFSET),
+                buffer.getLong(base + BALANCE_OFFSET),
+                buffer.getLong(base + EPOCH_OFFSET),
+                buffer.getLong(base + REVERSED_ID_OFFSET));
+        Optional<Account> account =
+            resolved.computeIfAbsent(
+                transaction.getAccountNumber(),
+                number -> {
+                  Account.advanceAccountCounterPast(number);
+                  return Optional.ofNullable(accountManager.tryFindAccount(number));
+                });
+        if (account.isEmpty()) {
+          unknownAccounts++;
+          continue;
+        }
+        transactionManager.addTransaction(transaction);
+        if (sequence > balancesAfterSequence) {
+          account.get().setBalanceCents(transaction.getBalanceAfterCents());
+          balancesApplied++;
+        }
+        replayed++;
+      }
+    }
+    return new ReplayResult(replayed, balancesApplied, unknownAccounts);
+  }
+
+  /** Forces the current segment's contents to the storage device. */
+  public synchronized void sync() {
+    segment.force();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (channel != null) {
+      segment.force();
+      channel.close();
+      channel = null;
+    }
+  }
+
+  /**
+   * Outcome of a replay.
+   *
+   * @param replayed number of records applied to the transaction history
+   * @param balancesApplied number of those records whose balance-after was restored
+   * @param unknownAccounts number of records quarantined because their account is not registered
+   */
+  public record ReplayResult(long replayed, long balancesApplied, long unknownAccounts) {}
+
+  // ==================== SEGMENT HELPERS ====================
+
+  /** Maps the newest segment, finds its last intact record, and zeroes anything after it. */
+  private void recoverTail() throws IOException {
+    long newest;
+    try (var files = Files.list(directory)) {
+      newest =
+          files
+              .map(path -> path.getFileName().toString())
+              .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+              .mapToLong(TransactionJournal::segmentIndexOf)
+              .max()
+              .orElse(0);
+    }
+
+    mapSegment(newest);
+    long firstSequence = newest * segmentRecords + 1;
+    while (slot < segmentRecords && isIntact(segment, slot * RECORD_SIZE, firstSequence + slot)) {
+      slot++;
+    }
+    lastSequence = firstSequence - 1 + slot;
+
+    for (int i = slot * RECORD_SIZE; i < segment.capacity(); i++) {
+      if (segment.get(i) != 0) {
+        segment.put(i, (byte) 0);
+        truncatedBytes++;
+      }
+    }
+  }
+
+  private void mapSegment(long index) throws IOException {
+    if (channel != null) channel.close();
+    channel =
+        FileChannel.open(
+            segmentPath(index),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+    long size = (long) segmentRecords * RECORD_SIZE;
+    if (channel.size() != 0 && channel.size() != size) {
+      channel.close();
+      channel = null;
+      throw wrongSize(index, size);
+    }
+    segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    segmentIndex = index;
+    slot = 0;
+  }
+
+  private MappedByteBuffer mapReadOnly(long index) throws IOException {
+    try (FileChannel readChannel = FileChannel.open(segmentPath(index), StandardOpenOption.READ)) {
+      long size = (long) segmentRecords * RECORD_SIZE;
+      if (readChannel.size() != size) throw wrongSize(index, size);
+      return readChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+  }
+
+  private IOException wrongSize(long index, long expected) {
+    return new IOException(
+        "Journal segment "
+            + segmentPath(index)
+            + " is not "
+            + expected
+            + " bytes; it was written with another record layout or segment size");
+  }
+
+  private Path segmentPath(long index) {
+    return directory.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+  }
+
+  private static long segmentIndexOf(String fileName) {
+    try {
+      return Long.parseLong(
+          fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  // ==================== RECORD HELPERS ====================
+
+  private boolean isIntact(ByteBuffer buffer, int base, long expectedSequence) {
+    return base + RECORD_SIZE <= buffer.capacity()
+        && buffer.getLong(base + SEQUENCE_OFFSET) == expectedSequence
+        && buffer.getInt(base + CHECKSUM_OFFSET) == checksumOf(buffer, base);
+  }
+
+  private int checksumOf(ByteBuffer buffer, int base) {
+    int position = buffer.position();
+    int limit = buffer.limit();
+    buffer.limit(base + CHECKSUM_OFFSET).position(base);
+    checksum.reset();
+    checksum.update(buffer);
+    buffer.limit(limit).position(position);
+    return (int) checksum.getValue();
+  }
+
+  private static void putAscii(ByteBuffer buffer, int offset, int width, String value) {
+    if (value.length() > width) {
+      throw new IllegalArgumentException("Value too long for journal field: " + value);
+    }
+    for (int i = 0; i < width; i++) {
+      buffer.put(offset + i, i < value.length() ? (byte) value.charAt(i) : 0);
+    }
+  }
+
+  private static String getAscii(ByteBuffer buffer, int offset, int width, byte[] scratch) {
+    int length = 0;
+    while (length < width && buffer.get(offset + length) != 0) {
+      scratch[length] = buffer.get(offset + length);
+      length++;
+    }
+    return new String(scratch, 0, length, StandardCharsets.US_ASCII);
+  }
+}
@@ -0,0 +1,344 @@
+package reports;
+
+import static reports.ColumnarFormat.*;
+
+import accounts.Account;
+import accounts.AccountManager;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+import transactions.TransactionColumns;
+import transactions.TransactionManager;
+import utils.Page;
+
+/**
+ * Exports the accounts and the transaction history to a columnar file for analytics; see {@link
+ * ColumnarFormat} for the layout and {@link ColumnarReader} to read it back.
+ *
+ * <p>The {@code transactions} table has the columns {@code id}, {@code account} (dictionary of
+ * account numbers), {@code type} (dictionary), {@code amount_cents}, {@code balance_after_cents}
+ * and {@code epoch_millis}. The {@code accounts} table has {@code id}, {@code customer_id}, {@code
+ * type} and {@code status} (dictionaries), {@code balance_cents} and {@code last_closed_period}.
+ *
+ * <p>Transaction columns are copied chunk by chunk from the history's primitive arrays into one
+ * direct buffer with bulk puts and written through a {@link FileChannel}; no value is encoded one
+ * at a time and no per-row objects are created. The history is captured when the export starts, so
+ * tellers can keep posting while it runs. The file is written next to its destination and renamed
+ * into place when complete.
+ */
+public class ColumnarExporter {
+
+  private static final int BUFFER_SIZE = 1 << 20;
+  private static final int PAGE_SIZE = 4096;
+
+  private final AccountManager accountManager;
+  private final TransactionManager transactionManager;
+
+  public ColumnarExporter(AccountManager accountManager, TransactionManager transactionManager) {
+    this.accountManager = accountManager;
+    this.transactionManager = transactionManager;
+  }
+
+  /**
+   * Writes every account and every transaction recorded so far to the file, replacing it.
+   *
+   * @param file the export file
+   * @return row counts, size and elapsed time of the export
+   * @throws IOException if the file cannot be written
+   */
+  public Result export(Path file) throws IOException {
+    long started = System.nanoTime();
+    TransactionColumns transactions = transactionManager.getColumns();
+    AccountColumns accounts = AccountColumns.of(listAccounts());
+
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    long bytes;
+    try (FileChannel channel =
+        FileChannel.open(
+            temporary,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      Writer out = new Writer(channel);
+      out.buffer.putLong(MAGIC).putInt(VERSION).putInt(0);
+
+      out.beginTable(ACCOUNTS, accounts.size);
+      out.longColumn("id", accounts.size, (c, b) -> putLongs(accounts.ids, c, b));
+      out.longColumn("customer_id", accounts.size, (c, b) -> putLongs(accounts.customerIds, c, b));
+      out.byteColumn(
+          "type", accounts.size, accounts.typeNames(), (c, b) -> putBytes(accounts.types, c, b));
+      out.byteColumn(
+          "status",
+          accounts.size,
+          accounts.statusNames(),
+          (c, b) -> putBytes(accounts.statuses, c, b));
+      out.longColumn("balance_cents", accounts.size, (c, b) -> putLongs(accounts.balances, c, b));
+      out.intColumn(
+          "last_closed_period",
+          accounts.size,
+          null,
+          (c, b) -> putInts(accounts.closedPeriods, c, b));
+
+      int rows = transactions.size();
+      out.beginTable(TRANSACTIONS, rows);
+      out.longColumn("id", rows, transactions::putIds);
+      out.intColumn(
+          "account", rows, transactions.accountNumbers(), transactions::putAccountIndexes);
+      out.byteColumn("type", rows, transactions.types(), transactions::putTypeCodes);
+      out.longColumn("amount_cents", rows, transactions::putAmounts);
+      out.longColumn("balance_after_cents", rows, transactions::putBalances);
+      out.longColumn("epoch_millis", rows, transactions::putTimes);
+
+      bytes = out.finish();
+      channel.force(true);
+    }
+    Files.move(
+        temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    return new Result(accounts.size, transactions.size(), bytes, System.nanoTime() - started);
+  }
+
+  /**
+   * Outcome of an export.
+   *
+   * @param accounts number of account rows written
+   * @param transactions number of transaction rows written
+   * @param bytes size of the file
+   * @param elapsedNanos wall-clock time of the export
+   */
+  public record Result(int accounts, int transactions, long bytes, long elapsedNanos) {
+
+    /** Returns the write throughput in megabytes (2^20 bytes) per second. */
+    public double megabytesPerSecond() {
+      return elapsedNanos == 0 ? 0 : bytes / (double) (1 << 20) * 1e9 / elapsedNanos;
+    }
+  }
+
+  private List<Account> listAccounts() {
+    List<Account> accounts = new ArrayList<>(accountManager.getAccountCount());
+    for (long cursor = Page.FIRST; ; ) {
+      Page<Account> page = accountManager.getAccountsPage(cursor, PAGE_SIZE);
+      accounts.addAll(page.items());
+      cursor = page.nextCursor();
+      if (!page.hasMore()) return accounts;
+    }
+  }
+
+  // ==================== ACCOUNT COLUMNS ====================
+
+  /** The account table pivoted into primitive columns, chunked like the transaction columns. */
+  private static final class AccountColumns {
+    final int size;
+    final long[] ids;
+    final long[] customerIds;
+    final byte[] types;
+    final byte[] statuses;
+    final long[] balances;
+    final int[] closedPeriods;
+    final Map<String, Integer> typeCodes = new LinkedHashMap<>();
+    final Map<String, Integer> statusCodes = new LinkedHashMap<>();
+
+    private AccountColumns(int size) {
+      this.size = size;
+      ids = new long[size];
+      customerIds = new long[size];
+      types = new byte[size];
+      statuses = new byte[size];
+      balances = new long[size];
+      closedPeriods = new int[size];
+    }
+
+    static AccountColumns of(List<Account> accounts) {
+      AccountColumns columns = new AccountColumns(accounts.size());
+      for (int i = 0; i < columns.size; i++) {
+        Account account = accounts.get(i);
+        columns.ids[i] = account.getId();
+        columns.customerIds[i] = account.getCustomer().getId();
+        columns.types[i] = code(columns.typeCodes, account.getAccountType());
+        columns.statuses[i] = code(columns.statusCodes, account.getStatus());
+        columns.balances[i] = account.getBalanceCents();
+        columns.closedPeriods[i] = account.getLastClosedPeriod();
+      }
+      return columns;
+    }
+
+    String[] typeNames() {
+      return typeCodes.keySet().toArray(new String[0]);
+    }
+
+    String[] statusNames() {
+      return statusCodes.keySet().toArray(new String[0]);
+    }
+
+    private static byte code(Map<String, Integer> dictionary, String value) {
+      int code = dictionary.computeIfAbsent(value, v -> dictionary.size());
+      if (code > Byte.MAX_VALUE) throw new IllegalStateException("Too many distinct values");
+      return (byte) code;
+    }
+  }
+
+  private static void putLongs(long[] column, int chunk, LongBuffer target) {
+    int from = chunk * TransactionColumns.CHUNK_SIZE;
+    target.put(column, from, Math.min(TransactionColumns.CHUNK_SIZE, column.length - from));
+  }
+
+  private static void putInts(int[] column, int chunk, IntBuffer target) {
+    int from = chunk * TransactionColumns.CHUNK_SIZE;
+    target.put(column, from, Math.min(TransactionColumns.CHUNK_SIZE, column.length - from));
+  }
+
+  private static void putBytes(byte[] column, int chunk, ByteBuffer target) {
+    int from = chunk * TransactionColumns.CHUNK_SIZE;
+    target.put(column, from, Math.min(TransactionColumns.CHUNK_SIZE, column.length - from));
+  }
+
+  // ==================== WRITER ====================
+
+  /** Copies one chunk of a column into a buffer positioned where the chunk belongs. */
+  private interface ChunkCopier<B> {
+    void copy(int chunk, B target);
+  }
+
+  /** Streams columns through one direct buffer and collects the footer as it goes. */
+  private static final class Writer {
+    final FileChannel channel;
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ORDER);
+    ByteBuffer footer = ByteBuffer.allocate(1 << 12).order(ORDER);
+    long written;
+    int tables;
+    int columnCountOffset;
+
+    Writer(FileChannel channel) {
+      this.channel = channel;
+      footer.putInt(0); // table count, patched in finish()
+    }
+
+    void beginTable(String name, long rows) {
+      tables++;
+      putFooterString(name);
+      ensureFooter(Long.BYTES + Integer.BYTES);
+      footer.putLong(rows);
+      columnCountOffset = footer.position();
+      footer.putInt(0);
+    }
+
+    void longColumn(String name, int rows, ChunkCopier<LongBuffer> copier) throws IOException {
+      column(
+          name,
+          Long.BYTES,
+          rows,
+          null,
+          chunk -> {
+            LongBuffer view = buffer.asLongBuffer();
+            copier.copy(chunk, view);
+            buffer.position(buffer.position() + view.position() * Long.BYTES);
+          });
+    }
+
+    void intColumn(String name, int rows, String[] dictionary, ChunkCopier<IntBuffer> copier)
+        throws IOException {
+      column(
+          name,
+          Integer.BYTES,
+          rows,
+          dictionary,
+          chunk -> {
+            IntBuffer view = buffer.asIntBuffer();
+            copier.copy(chunk, view);
+            buffer.position(buffer.position() + view.position() * Integer.BYTES);
+          });
+    }
+
+    void byteColumn(String name, int rows, String[] dictionary, ChunkCopier<ByteBuffer> copier)
+        throws IOException {
+      column(name, 1, rows, dictionary, chunk -> copier.copy(chunk, buffer));
+    }
+
+    private void column(
+        String name, int width, int rows, String[] dictionary, ChunkAppender appender)
+        throws IOException {
+      align();
+      long offset = position();
+      int chunks = (rows + TransactionColumns.CHUNK_SIZE - 1) / TransactionColumns.CHUNK_SIZE;
+      for (int chunk = 0; chunk < chunks; chunk++) {
+        if (buffer.remaining() < TransactionColumns.CHUNK_SIZE * width) flush();
+        appender.append(chunk);
+      }
+      long length = position() - offset;
+
+      footer.putInt(columnCountOffset, footer.getInt(columnCountOffset) + 1);
+      putFooterString(name);
+      ensureFooter(1 + 2 * Long.BYTES + Integer.BYTES);
+      footer.put((byte) width).putLong(offset).putLong(length);
+      if (dictionary == null) {
+        footer.putInt(NO_DICTIONARY);
+      } else {
+        footer.putInt(dictionary.length);
+        for (String value : dictionary) putFooterString(value);
+      }
+    }
+
+    /** Writes the footer and trailer and returns the file size. */
+    long finish() throws IOException {
+      footer.putInt(0, tables);
+      footer.flip();
+      CRC32C crc = new CRC32C();
+      crc.update(footer.duplicate());
+      long footerOffset = position();
+      int footerLength = footer.remaining();
+
+      flush();
+      while (footer.hasRemaining()) written += channel.write(footer);
+      buffer.putLong(footerOffset).putInt(footerLength).putInt((int) crc.getValue()).putLong(MAGIC);
+      flush();
+      return written;
+    }
+
+    private long position() {
+      return written + buffer.position();
+    }
+
+    private void align() throws IOException {
+      int padding = (int) (-position() & (ALIGNMENT - 1));
+      if (buffer.remaining() < padding) flush();
+      for (int i = 0; i < padding; i++) buffer.put((byte) 0);
+    }
+
+    private void flush() throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) written += channel.write(buffer);
+      buffer.clear();
+    }
+
+    private void putFooterString(String value) {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      ensureFooter(Integer.BYTES + bytes.length);
+      footer.putInt(bytes.length).put(bytes);
+    }
+
+    private void ensureFooter(int bytes) {
+      if (footer.remaining() >= bytes) return;
+      ByteBuffer larger =
+          ByteBuffer.allocate(Math.max(footer.capacity() * 2, footer.position() + bytes))
+              .order(ORDER);
+      footer.flip();
+      footer = larger.put(footer);
+    }
+  }
+
+  /** Appends one chunk of a column at the buffer's position. */
+  private interface ChunkAppender {
+    void append(int chunk) throws IOException;
+  }
+}
@@ -0,0 +1,30 @@
+package reports;
+
+import java.nio.ByteOrder;
+
+/**
+ * Layout constants shared by {@link ColumnarExporter} and {@link ColumnarReader}.
+ *
+ * <p>A file holds a 16-byte header, the column data, a footer and a 24-byte trailer. Every column
+ * is a little-endian array of fixed-width values starting at an 8-byte aligned offset. The footer
+ * lists the tables; per table its name and row count, and per column its name, value width, offset,
+ * length and, for dictionary-encoded columns, the dictionary that its values index. The trailer
+ * holds the footer's offset, length and CRC32C, then the magic number again.
+ */
+final class ColumnarFormat {
+
+  static final long MAGIC = 0x31534C4F434B4E42L; // "BNKCOLS1" read little-endian
+  static final int VERSION = 1;
+  static final int HEADER_SIZE = 16;
+  static final int TRAILER_SIZE = 24;
+  static final int ALIGNMENT = 8;
+  static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+  /** Dictionary size written for a column without a dictionary. */
+  static final int NO_DICTIONARY = -1;
+
+  static final String ACCOUNTS = "accounts";
+  static final String TRANSACTIONS = "transactions";
+
+  private ColumnarFormat() {}
+}
@@ -0,0 +1,208 @@
+package reports;
+
+import static reports.ColumnarFormat.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads a file written by {@link ColumnarExporter}.
+ *
+ * <p>Opening reads only the trailer and footer. Each column is memory-mapped on request, so a scan
+ * touches just the columns it asks for, e.g. summing {@code amount_cents} by {@code type} reads two
+ * of the six transaction columns. The returned buffers are read-only and stay valid after the
+ * reader is closed.
+ */
+public class ColumnarReader implements AutoCloseable {
+
+  private final FileChannel channel;
+  private final Map<String, Table> tables = new LinkedHashMap<>();
+
+  private ColumnarReader(FileChannel channel) {
+    this.channel = channel;
+  }
+
+  /**
+   * Opens an export file and reads its footer.
+   *
+   * @param file the export file
+   * @return the reader
+   * @throws IOException if the file cannot be read or is not a valid export
+   */
+  public static ColumnarReader open(Path file) throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      ColumnarReader reader = new ColumnarReader(channel);
+      reader.readFooter(file);
+      return reader;
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /** Returns the names of the tables in the file. */
+  public Set<String> getTables() {
+    return tables.keySet();
+  }
+
+  /** Returns the names of a table's columns, in file order. */
+  public Set<String> getColumns(String table) {
+    return table(table).columns.keySet();
+  }
+
+  /** Returns the number of rows in a table. */
+  public long getRowCount(String table) {
+    return table(table).rows;
+  }
+
+  /**
+   * Returns the dictionary a column's values index, or null if the column is not
+   * dictionary-encoded.
+   */
+  public String[] getDictionary(String table, String column) {
+    String[] dictionary = column(table, column).dictionary;
+    return dictionary == null ? null : dictionary.clone();
+  }
+
+  /**
+   * Maps a column of 8-byte values.
+   *
+   * @throws IllegalArgumentException if the table or column does not exist or has another width
+   * @throws IOException if the column cannot be mapped
+   */
+  public LongBuffer mapLongColumn(String table, String column) throws IOException {
+    return map(table, column, Long.BYTES).asLongBuffer();
+  }
+
+  /** Maps a column of 4-byte values; see {@link #mapLongColumn}. */
+  public IntBuffer mapIntColumn(String table, String column) throws IOException {
+    return map(table, column, Integer.BYTES).asIntBuffer();
+  }
+
+  /** Maps a column of 1-byte values; see {@link #mapLongColumn}. */
+  public ByteBuffer mapByteColumn(String table, String column) throws IOException {
+    return map(table, column, 1);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  // ==================== FOOTER ====================
+
+  private void readFooter(Path file) throws IOException {
+    long size = channel.size();
+    if (size < HEADER_SIZE + TRAILER_SIZE) throw new IOException("Not a columnar export: " + file);
+
+    ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE).order(ORDER);
+    readFully(trailer, size - TRAILER_SIZE);
+    long footerOffset = trailer.getLong();
+    int footerLength = trailer.getInt();
+    int checksum = trailer.getInt();
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ORDER);
+    readFully(header, 0);
+    if (trailer.getLong() != MAGIC || header.getLong() != MAGIC || header.getInt() != VERSION) {
+      throw new IOException("Not a columnar export: " + file);
+    }
+    if (footerOffset < HEADER_SIZE
+        || footerLength < 0
+        || footerOffset + footerLength != size - TRAILER_SIZE) {
+      throw new IOException("Corrupt columnar export footer: " + file);
+    }
+
+    ByteBuffer footer = ByteBuffer.allocate(footerLength).order(ORDER);
+    readFully(footer, footerOffset);
+    CRC32C crc = new CRC32C();
+    crc.update(footer.duplicate());
+    if ((int) crc.getValue() != checksum) {
+      throw new IOException("Columnar export footer checksum mismatch: " + file);
+    }
+
+    int tableCount = footer.getInt();
+    for (int t = 0; t < tableCount; t++) {
+      String name = getString(footer);
+      Table table = new Table(footer.getLong());
+      int columnCount = footer.getInt();
+      for (int c = 0; c < columnCount; c++) {
+        String columnName = getString(footer);
+        int width = footer.get();
+        long offset = footer.getLong();
+        long length = footer.getLong();
+        int dictionarySize = footer.getInt();
+        String[] dictionary = null;
+        if (dictionarySize != NO_DICTIONARY) {
+          dictionary = new String[dictionarySize];
+          for (int i = 0; i < dictionarySize; i++) dictionary[i] = getString(footer);
+        }
+        if (offset < HEADER_SIZE
+            || offset + length > footerOffset
+            || length != table.rows * width) {
+          throw new IOException("Corrupt column " + name + "." + columnName + " in " + file);
+        }
+        table.columns.put(columnName, new Column(width, offset, length, dictionary));
+      }
+      tables.put(name, table);
+    }
+  }
+
+  private void readFully(ByteBuffer target, long position) throws IOException {
+    while (target.hasRemaining()) {
+      int read = channel.read(target, position + target.position());
+      if (read < 0) throw new IOException("Unexpected end of columnar export");
+    }
+    target.flip();
+  }
+
+  private static String getString(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.getInt()];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private ByteBuffer map(String table, String column, int width) throws IOException {
+    Column found = column(table, column);
+    if (found.width != width) {
+      throw new IllegalArgumentException(
+          table + "." + column + " holds " + found.width + "-byte values, not " + width);
+    }
+    if (found.length > Integer.MAX_VALUE) {
+      throw new IOException(table + "." + column + " is too large to map as one buffer");
+    }
+    return channel.map(FileChannel.MapMode.READ_ONLY, found.offset, found.length).order(ORDER);
+  }
+
+  private Table table(String name) {
+    Table table = tables.get(name);
+    if (table == null) throw new IllegalArgumentException("No such table: " + name);
+    return table;
+  }
+
+  private Column column(String table, String name) {
+    Column column = table(table).columns.get(name);
+    if (column == null) throw new IllegalArgumentException("No such column: " + table + "." + name);
+    return column;
+  }
+
+  private static final class Table {
+    final long rows;
+    final Map<String, Column> columns = new LinkedHashMap<>();
+
+    Table(long rows) {
+      this.rows = rows;
+    }
+  }
+
+  private record Column(int width, long offset, long length, String[] dictionary) {}
+}
@@ -0,0 +1,297 @@
+package reports;
+
+import accounts.Account;
+import accounts.AccountManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import metrics.LatencyHistogram;
+import metrics.MetricsRegistry;
+import transactions.Transaction;
+import transactions.TransactionManager;
+import transactions.TransactionType;
+import utils.Money;
+import utils.Page;
+import utils.StreamingTablePrinter;
+
+/**
+ * Writes a statement file for every account, e.g. at month-end.
+ *
+ * <p>Accounts are handed out in small chunks to a fixed pool of workers. Each worker renders a
+ * statement into its own reusable buffers, totalling the account's history in the same pass that
+ * prints it, and writes it through a {@link FileChannel} to {@code <accountNumber>.txt.tmp}, which
+ * is then renamed to {@code <accountNumber>.txt}. A statement file therefore exists only once it is
+ * complete, and a rerun into the same directory skips the accounts that already have one, resuming
+ * where a failed run stopped. Files are not forced to the storage device, so resuming covers a
+ * process failure, not a power loss.
+ *
+ * <p>Deposits include interest credits and incoming transfers; withdrawals include fees and
+ * outgoing transfers. A reversal counts as a deposit or a withdrawal by the sign of its amount.
+ */
+public class StatementGenerator {
+
+  private static final String SUFFIX = ".txt";
+  private static final String TEMPORARY_SUFFIX = ".txt.tmp";
+  private static final int CHUNK_SIZE = 64;
+  private static final int PAGE_SIZE = 4096;
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private static final String[] HEADERS = {"TRANSACTION ID", "TYPE", "AMOUNT", "DATE"};
+  private static final int[] WIDTHS = {
+    14, TransactionType.MAX_NAME_LENGTH, "+$".length() + Money.MAX_FORMATTED_LENGTH, 19
+  };
+
+  private static final LatencyHistogram STATEMENT_LATENCY =
+      MetricsRegistry.global().histogram("statement_write_nanos");
+  private static final LatencyHistogram RUN_LATENCY =
+      MetricsRegistry.global().histogram("statement_run_nanos");
+
+  private final AccountManager accountManager;
+  private final TransactionManager transactionManager;
+  private final int workers;
+
+  /** Creates a generator that uses one worker per available processor. */
+  public StatementGenerator(AccountManager accountManager, TransactionManager transactionManager) {
+    this(accountManager, transactionManager, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Creates a generator with a fixed number of workers.
+   *
+   * @param workers the number of statements written at once
+   * @throws IllegalArgumentException if {@code workers} is not positive
+   */
+  public StatementGenerator(
+      AccountManager accountManager, TransactionManager transactionManager, int workers) {
+    if (workers < 1) throw new IllegalArgumentException("At least one worker is required");
+    this.accountManager = accountManager;
+    this.transactionManager = transactionManager;
+    this.workers = workers;
+  }
+
+  /**
+   * Writes a statement for every account registered when the call starts that does not already have
+   * one in the directory.
+   *
+   * @param directory where the statement files go; created if missing
+   * @return counts and throughput of the run
+   * @throws IOException if the directory cannot be created or a statement cannot be written; the
+   *     statements completed so far are kept, so calling again resumes the run
+   */
+  public Result generate(Path directory) throws IOException {
+    long started = System.nanoTime();
+    Files.createDirectories(directory);
+    List<Account> accounts = listAccounts();
+
+    AtomicInteger nextChunk = new AtomicInteger();
+    ExecutorService pool = Executors.newFixedThreadPool(workers);
+    List<Future<Worker>> futures = new ArrayList<>(workers);
+    try {
+      for (int i = 0; i < workers; i++) {
+        futures.add(pool.submit(() -> new Worker(directory).drain(accounts, nextChunk)));
+      }
+      int written = 0;
+      int skipped = 0;
+      long bytes = 0;
+      for (Future<Worker> future : futures) {
+        Worker worker = future.get();
+        written += worker.written;
+        skipped += worker.skipped;
+        bytes += worker.bytes;
+      }
+      RUN_LATENCY.recordSince(started);
+      return new Result(written, skipped, bytes, System.nanoTime() - started);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof UncheckedIOException io) throw io.getCause();
+      if (e.getCause() instanceof IOException io) throw io;
+      throw new IllegalStateException("Statement generation failed", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Statement generation interrupted", e);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * Outcome of a statement run.
+   *
+   * @param written number of statements written by this run
+   * @param skipped number of accounts that already had a statement
+   * @param bytes total size of the statements written
+   * @param elapsedNanos wall-clock time of the run
+   */
+  public record Result(int written, int skipped, long bytes, long elapsedNanos) {
+
+    /** Returns the number of statements written per second. */
+    public double statementsPerSecond() {
+      return elapsedNanos == 0 ? 0 : written * 1e9 / elapsedNanos;
+    }
+  }
+
+  private List<Account> listAccounts() {
+    List<Account> accounts = new ArrayList<>(accountManager.getAccountCount());
+    for (long cursor = Page.FIRST; ; ) {
+      Page<Account> page = accountManager.getAccountsPage(cursor, PAGE_SIZE);
+      accounts.addAll(page.items());
+      cursor = page.nextCursor();
+      if (!page.hasMore()) return accounts;
+    }
+  }
+
+  // ==================== WORKER ====================
+
+  /** One worker's reusable buffers and counts; confined to the thread that runs it. */
+  private final class Worker {
+    private final Path directory;
+    private final StringWriter text = new StringWriter(BUFFER_SIZE);
+    private final BufferedWriter out = new BufferedWriter(text, BUFFER_SIZE);
+    private final StreamingTablePrinter printer = new StreamingTablePrinter(out, 0);
+    private final StringBuilder scratch = new StringBuilder(64);
+    private final CharsetEncoder encoder =
+        StandardCharsets.UTF_8
+            .newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private ByteBuffer bytesOut = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    int written;
+    int skipped;
+    long bytes;
+
+    Worker(Path directory) {
+      this.directory = directory;
+    }
+
+    Worker drain(List<Account> accounts, AtomicInteger nextChunk) throws IOException {
+      int from;
+      while ((from = nextChunk.getAndIncrement() * CHUNK_SIZE) < accounts.size()) {
+        int to = Math.min(accounts.size(), from + CHUNK_SIZE);
+        for (int i = from; i < to; i++) {
+          if (Thread.currentThread().isInterrupted()) return this;
+          writeStatement(accounts.get(i));
+        }
+      }
+      return this;
+    }
+
+    private void writeStatement(Account account) throws IOException {
+      String number = account.getAccountNumber();
+      Path file = directory.resolve(number + SUFFIX);
+      if (Files.exists(file)) {
+        skipped++;
+        return;
+      }
+
+      long started = System.nanoTime();
+      text.getBuffer().setLength(0);
+      render(account, number);
+      encode(text.getBuffer());
+
+      Path temporary = directory.resolve(number + TEMPORARY_SUFFIX);
+      try (FileChannel channel =
+          FileChannel.open(
+              temporary,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.WRITE,
+              StandardOpenOption.TRUNCATE_EXISTING)) {
+        while (bytesOut.hasRemaining()) channel.write(bytesOut);
+      }
+      Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+      STATEMENT_LATENCY.recordSince(started);
+      written++;
+    }
+
+    /** Prints the statement into {@link #text}, totalling the history as its rows are printed. */
+    private void render(Account account, String number) throws IOException {
+      Transaction[] newestFirst = transactionManager.getTransactionsForAccount(number);
+      long balance = account.getBalanceCents();
+
+      out.write("STATEMENT " + number + System.lineSeparator());
+      out.write("Customer: " + account.getCustomer().getName());
+      out.write(" (" + account.getCustomer().getCustomerId() + ")" + System.lineSeparator());
+      out.write("Account Type: " + account.getAccountType() + System.lineSeparator());
+
+      long[] totals = new long[2];
+      Iterator<String[]> rows =
+          new Iterator<>() {
+            private int next = newestFirst.length - 1;
+
+            @Override
+            public boolean hasNext() {
+              return next >= 0;
+            }
+
+            @Override
+            public String[] next() {
+              Transaction transaction = newestFirst[next--];
+              TransactionType type = transaction.getTransactionType();
+              long signed = type.signedAmount(transaction.getAmountCents());
+              boolean credit = signed >= 0;
+              long amount = Math.abs(signed);
+              totals[credit ? 0 : 1] = Money.add(totals[credit ? 0 : 1], amount);
+              scratch.setLength(0);
+              scratch.append(credit ? "+$" : "-$");
+              return new String[] {
+                transaction.getTransactionId(),
+                type.name(),
+                Money.appendTo(scratch, amount).toString(),
+                transaction.getTimestamp()
+              };
+            }
+          };
+      printer.printTable(HEADERS, WIDTHS, rows);
+
+      long net = Money.subtract(totals[0], totals[1]);
+      out.write("Transactions: " + newestFirst.length + System.lineSeparator());
+      writeAmount("Opening Balance: $", Money.subtract(balance, net));
+      writeAmount("Total Deposits: $", totals[0]);
+      writeAmount("Total Withdrawals: $", totals[1]);
+      writeAmount("Net Change: $", net);
+      writeAmount("Closing Balance: $", balance);
+      out.flush();
+    }
+
+    private void writeAmount(String label, long cents) throws IOException {
+      scratch.setLength(0);
+      Money.appendTo(scratch.append(label), cents).append(System.lineSeparator());
+      out.append(scratch);
+    }
+
+    /** Encodes the rendered text into {@link #bytesOut}, growing it as needed, ready to write. */
+    private void encode(CharSequence rendered) {
+      CharBuffer chars = CharBuffer.wrap(rendered);
+      bytesOut.clear();
+      encoder.reset();
+      while (encoder.encode(chars, bytesOut, true).isOverflow()) growBytesOut();
+      while (encoder.flush(bytesOut).isOverflow()) growBytesOut();
+      bytesOut.flip();
+      bytes += bytesOut.remaining();
+    }
+
+    private void growBytesOut() {
+      ByteBuffer larger = ByteBuffer.allocateDirect(bytesOut.capacity() * 2);
+      bytesOut.flip();
+      bytesOut = larger.put(bytesOut);
+    }
+  }
+}
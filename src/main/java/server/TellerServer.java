@@ -0,0 +1,190 @@
+package server;
+
+import accounts.AccountManager;
+import customers.CustomerManager;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import metrics.MetricsRegistry;
+import transactions.TransactionManager;
+
+/**
+ * Local TCP server for many tellers at once, all working on the same account, customer and
+ * transaction managers.
+ *
+ * <p>Each connection is a session that speaks the {@code main.CommandProcessor} command language,
+ * one command per line and one result line per command, plus {@code history accountNumber}, which
+ * prints the account's transactions as a table, and {@code quit}. Every session runs on its own
+ * thread: a virtual thread when the runtime has them (Java 21+), otherwise a platform thread with a
+ * small stack. A session blocked waiting for its teller holds only that thread, its socket and a
+ * few hundred bytes of buffers, so thousands of idle sessions cost little; the table printer is
+ * created on a session's first {@code history} command.
+ *
+ * <p>The server listens on the loopback interface only.
+ */
+public final class TellerServer implements AutoCloseable {
+
+  private static final int BACKLOG = 4096;
+  private static final long PLATFORM_STACK_SIZE = 256 * 1024;
+
+  private final ServerSocket serverSocket;
+  private final AccountManager accountManager;
+  private final CustomerManager customerManager;
+  private final TransactionManager transactionManager;
+  private final ExecutorService sessions;
+  private final boolean virtualThreads;
+  private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+  private final Thread acceptor;
+  private volatile boolean closed;
+
+  private TellerServer(
+      ServerSocket serverSocket,
+      AccountManager accountManager,
+      CustomerManager customerManager,
+      TransactionManager transactionManager) {
+    this.serverSocket = serverSocket;
+    this.accountManager = accountManager;
+    this.customerManager = customerManager;
+    this.transactionManager = transactionManager;
+    ExecutorService virtual = newVirtualThreadExecutor();
+    this.virtualThreads = virtual != null;
+    this.sessions = virtual != null ? virtual : newPlatformThreadExecutor();
+    this.acceptor = new Thread(this::acceptLoop, "teller-acceptor");
+  }
+
+  /**
+   * Starts accepting sessions on the loopback interface.
+   *
+   * @param port the port to listen on, or 0 for any free port
+   * @return the running server
+   * @throws IOException if the port cannot be bound
+   */
+  public static TellerServer start(
+      int port,
+      AccountManager accountManager,
+      CustomerManager customerManager,
+      TransactionManager transactionManager)
+      throws IOException {
+    ServerSocket serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress());
+    TellerServer server =
+        new TellerServer(serverSocket, accountManager, customerManager, transactionManager);
+    MetricsRegistry.global().gauge("teller_sessions", server::getSessionCount);
+    server.acceptor.start();
+    return server;
+  }
+
+  /** Returns the port the server listens on. */
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  /** Returns the number of open sessions. */
+  public int getSessionCount() {
+    return openSockets.size();
+  }
+
+  /** Returns whether sessions run on virtual threads rather than platform threads. */
+  public boolean usesVirtualThreads() {
+    return virtualThreads;
+  }
+
+  /** Waits until the server has been closed and stopped accepting sessions. */
+  public void join() throws InterruptedException {
+    acceptor.join();
+  }
+
+  /** Stops accepting sessions and disconnects every open one. */
+  @Override
+  public void close() {
+    closed = true;
+    try {
+      serverSocket.close();
+    } catch (IOException e) {
+      // Already unusable; the acceptor stops either way.
+    }
+    for (Socket socket : openSockets) closeQuietly(socket);
+    sessions.shutdownNow();
+  }
+
+  private void acceptLoop() {
+    while (!closed) {
+      Socket socket;
+      try {
+        socket = serverSocket.accept();
+      } catch (IOException e) {
+        if (closed) return;
+        continue;
+      }
+      openSockets.add(socket);
+      if (closed) {
+        openSockets.remove(socket);
+        closeQuietly(socket);
+        return;
+      }
+      try {
+        sessions.execute(() -> serve(socket));
+      } catch (RuntimeException e) {
+        openSockets.remove(socket);
+        closeQuietly(socket);
+      }
+    }
+  }
+
+  private void serve(Socket socket) {
+    try (socket) {
+      socket.setTcpNoDelay(true);
+      new TellerSession(socket, accountManager, customerManager, transactionManager).run();
+    } catch (SocketException e) {
+      // The teller disconnected or the server is closing.
+    } catch (IOException e) {
+      System.err.println("Teller session failed: " + e.getMessage());
+    } finally {
+      openSockets.remove(socket);
+    }
+  }
+
+  private static void closeQuietly(Socket socket) {
+    try {
+      socket.close();
+    } catch (IOException e) {
+      // Nothing left to release.
+    }
+  }
+
+  // ==================== THREADS ====================
+
+  /**
+   * Returns {@code Executors.newVirtualThreadPerTaskExecutor()} if the runtime has it, looked up
+   * reflectively so the server also builds and runs on Java 17, or null otherwise.
+   */
+  private static ExecutorService newVirtualThreadExecutor() {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+      return null;
+    }
+  }
+
+  private static ExecutorService newPlatformThreadExecutor() {
+    AtomicInteger count = new AtomicInteger();
+    ThreadFactory factory =
+        task -> {
+          Thread thread =
+              new Thread(
+                  null, task, "teller-session-" + count.incrementAndGet(), PLATFORM_STACK_SIZE);
+          thread.setDaemon(true);
+          return thread;
+        };
+    return Executors.newCachedThreadPool(factory);
+  }
+}
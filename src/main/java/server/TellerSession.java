@@ -0,0 +1,196 @@
+package server;
+
+import accounts.Account;
+import accounts.AccountManager;
+import customers.CustomerManager;
+import exceptions.AccountNotFoundException;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import main.CommandProcessor;
+import metrics.LatencyHistogram;
+import metrics.MetricsRegistry;
+import transactions.Transaction;
+import transactions.TransactionManager;
+import transactions.TransactionType;
+import utils.Money;
+import utils.StreamingTablePrinter;
+
+/**
+ * One teller's connection to a {@link TellerServer}: reads command lines from the socket and writes
+ * each result line back as soon as it is ready. Sessions accept the {@link CommandProcessor}
+ * commands except the admin ones that close a period or write files on the server, plus {@code
+ * history}.
+ *
+ * <p>Lines are split in a small byte buffer that grows only for long lines, so an idle session
+ * holds a few hundred bytes. The writer and table printer for {@code history} are created on first
+ * use.
+ */
+final class TellerSession {
+
+  private static final String HISTORY = "history";
+  private static final int INITIAL_BUFFER_SIZE = 256;
+  private static final int MAX_LINE_LENGTH = 1 << 16;
+  private static final int TABLE_BUFFER_SIZE = 1 << 13;
+  private static final String[] HISTORY_HEADERS = {"TRANSACTION ID", "TYPE", "AMOUNT", "DATE"};
+  private static final int[] HISTORY_WIDTHS = {
+    14, TransactionType.MAX_NAME_LENGTH, Money.MAX_FORMATTED_LENGTH + 1, 19
+  };
+
+  private static final LatencyHistogram COMMAND_LATENCY =
+      MetricsRegistry.global().histogram("teller_command_nanos");
+
+  private final InputStream in;
+  private final OutputStream out;
+  private final AccountManager accountManager;
+  private final TransactionManager transactionManager;
+  private final CommandProcessor processor;
+  private final StringBuilder result = new StringBuilder(128);
+  private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+  private int start;
+  private int end;
+  private Writer tableOut;
+  private StreamingTablePrinter printer;
+
+  TellerSession(
+      Socket socket,
+      AccountManager accountManager,
+      CustomerManager customerManager,
+      TransactionManager transactionManager)
+      throws IOException {
+    this.in = socket.getInputStream();
+    this.out = socket.getOutputStream();
+    this.accountManager = accountManager;
+    this.transactionManager = transactionManager;
+    this.processor =
+        new CommandProcessor(accountManager, customerManager, transactionManager, false);
+  }
+
+  /** Serves commands until the teller sends {@code quit} or disconnects. */
+  void run() throws IOException {
+    String line;
+    while ((line = readLine()) != null) {
+      long started = System.nanoTime();
+      String command = line.strip();
+      result.setLength(0);
+      if (command.equalsIgnoreCase("quit")) {
+        respond("BYE");
+        return;
+      } else if (command.regionMatches(true, 0, HISTORY, 0, HISTORY.length())
+          && (command.length() == HISTORY.length()
+              || Character.isWhitespace(command.charAt(HISTORY.length())))) {
+        history(command.substring(HISTORY.length()).strip());
+      } else {
+        processor.execute(command, result);
+        if (result.length() > 0) respond(result);
+      }
+      COMMAND_LATENCY.recordSince(started);
+    }
+  }
+
+  private void respond(CharSequence line) throws IOException {
+    byte[] bytes = (line + "\n").getBytes(StandardCharsets.UTF_8);
+    out.write(bytes);
+    out.flush();
+  }
+
+  // ==================== HISTORY ====================
+
+  /** Prints the account's transactions, oldest first, as a table followed by an OK line. */
+  private void history(String accountNumber) throws IOException {
+    if (accountNumber.isEmpty()) {
+      respond("ERR Usage: history accountNumber");
+      return;
+    }
+    Account account;
+    try {
+      account = accountManager.findAccount(accountNumber);
+    } catch (AccountNotFoundException e) {
+      respond("ERR " + e.getMessage());
+      return;
+    }
+    Transaction[] newestFirst =
+        transactionManager.getTransactionsForAccount(account.getAccountNumber());
+
+    if (printer == null) {
+      tableOut =
+          new BufferedWriter(
+              new OutputStreamWriter(out, StandardCharsets.UTF_8), TABLE_BUFFER_SIZE);
+      printer = new StreamingTablePrinter(tableOut, 0);
+    }
+    printer.printTable(
+        HISTORY_HEADERS,
+        HISTORY_WIDTHS,
+        new Iterator<>() {
+          private int next = newestFirst.length - 1;
+
+          @Override
+          public boolean hasNext() {
+            return next >= 0;
+          }
+
+          @Override
+          public String[] next() {
+            Transaction transaction = newestFirst[next--];
+            return new String[] {
+              transaction.getTransactionId(),
+              transaction.getType(),
+              formatAmount(transaction),
+              transaction.getTimestamp()
+            };
+          }
+        });
+    result.append("OK ").append(account.getAccountNumber()).append(' ');
+    Money.appendTo(result, account.getBalanceCents()).append(" count=").append(newestFirst.length);
+    respond(result);
+  }
+
+  /** Renders a transaction's effect on the balance with its sign, e.g. {@code -$12.50}. */
+  private static String formatAmount(Transaction transaction) {
+    long signed = transaction.getTransactionType().signedAmount(transaction.getAmountCents());
+    String prefix = signed < 0 ? "-$" : "+$";
+    return Money.appendTo(new StringBuilder(prefix), Math.abs(signed)).toString();
+  }
+
+  // ==================== LINE READING ====================
+
+  /** Returns the next line without its terminator, or null once the teller has disconnected. */
+  private String readLine() throws IOException {
+    int scanned = start;
+    while (true) {
+      for (int i = scanned; i < end; i++) {
+        if (buffer[i] == '\n') {
+          int lineEnd = i > start && buffer[i - 1] == '\r' ? i - 1 : i;
+          String line = new String(buffer, start, lineEnd - start, StandardCharsets.UTF_8);
+          start = i + 1;
+          return line;
+        }
+      }
+      if (start > 0) {
+        System.arraycopy(buffer, start, buffer, 0, end - start);
+        end -= start;
+        start = 0;
+      }
+      if (end == buffer.length) {
+        if (buffer.length >= MAX_LINE_LENGTH) throw new IOException("Command line too long");
+        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+      }
+      scanned = end;
+      int read = in.read(buffer, end, buffer.length - end);
+      if (read < 0) {
+        if (end == start) return null;
+        String line = new String(buffer, start, end - start, StandardCharsets.UTF_8);
+        start = end;
+        return line;
+      }
+      end += read;
+    }
+  }
+}
@@ -2,24 +2,55 @@ package transactions;
 
 import exceptions.BankException;
 
-/** Interface for processing financial transactions with validation. */
+/**
+ * Interface for processing financial transactions with validation. Implementations dispatch on the
+ * {@link TransactionType} op-code; the {@code String} overloads resolve the name once and delegate.
+ */
 public interface Transactable {
 
+  /**
+   * Processes a transaction of the specified kind.
+   *
+   * @param amount the transaction amount; signed for a {@link TransactionType#REVERSAL}
+   * @param type the kind of transaction
+   * @throws BankException if the transaction fails
+   */
+  void processTransaction(double amount, TransactionType type) throws BankException;
+
+  /**
+   * Validates the transaction amount for the specified kind.
+   *
+   * @param amount the transaction amount
+   * @param type the kind of transaction
+   * @throws BankException if the amount is invalid
+   */
+  void validateAmount(double amount, TransactionType type) throws BankException;
+
   /**
    * Processes a transaction of the specified type.
    *
    * @param amount the transaction amount
-   * @param type the transaction type ("Deposit" or "Withdrawal")
-   * @throws BankException if the transaction fails
+   * @param type the transaction type name, e.g. "Deposit" or "Withdrawal", in any case
+   * @throws BankException if the transaction fails or the type is unknown
    */
-  void processTransaction(double amount, String type) throws BankException;
+  default void processTransaction(double amount, String type) throws BankException {
+    processTransaction(amount, resolve(type));
+  }
 
   /**
    * Validates the transaction amount for the specified type.
    *
    * @param amount the transaction amount
-   * @param type the transaction type
-   * @throws BankException if the amount is invalid
+   * @param type the transaction type name, in any case
+   * @throws BankException if the amount is invalid or the type is unknown
    */
-  void validateAmount(double amount, String type) throws BankException;
+  default void validateAmount(double amount, String type) throws BankException {
+    validateAmount(amount, resolve(type));
+  }
+
+  private static TransactionType resolve(String type) throws BankException {
+    TransactionType resolved = TransactionType.of(type);
+    if (resolved == null) throw new BankException("Invalid transaction type: " + type);
+    return resolved;
+  }
 }
@@ -1,46 +1,244 @@
 package transactions;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import utils.IdAllocator;
+import utils.Money;
 
-/** Represents a financial transaction with auto-generated ID and timestamp. */
+/**
+ * Represents a financial transaction with auto-generated ID and timestamp.
+ *
+ * <p>The timestamp is stored as epoch milliseconds read from a replaceable {@link Clock}. It is
+ * only rendered as text when {@link #getTimestamp()} is called, using one shared formatter and a
+ * cache of the most recently rendered second.
+ */
 public class Transaction {
 
-  private static int transactionCounter = 0;
+  private static final IdAllocator TRANSACTION_IDS = new IdAllocator("TXN");
+  private static final DateTimeFormatter TIMESTAMP_FORMAT =
+      DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
 
-  private final String transactionId;
+  /** Value of {@link #getReversedId()} for every transaction that is not a reversal. */
+  public static final long NOT_A_REVERSAL = 0;
+
+  private static volatile Clock clock = Clock.systemDefaultZone();
+  private static volatile RenderedSecond lastRendered =
+      new RenderedSecond(Long.MIN_VALUE, null, "");
+
+  private final long id;
+  private String transactionId;
   private final String accountNumber;
-  private final String type;
-  private final double amount;
-  private final double balanceAfter;
-  private final String timestamp;
+  private final TransactionType type;
+  private final long amount;
+  private final long balanceAfter;
+  private final long epochMillis;
+  private final long reversedId;
 
   /**
    * Creates a new transaction record.
    *
    * @param accountNumber the account associated with the transaction
-   * @param type the transaction type ("DEPOSIT" or "WITHDRAWAL")
+   * @param type the transaction type name, e.g. "DEPOSIT", in any case
    * @param amount the transaction amount
    * @param balanceAfterTransaction the account balance after this transaction
+   * @throws IllegalArgumentException if the type is not a {@link TransactionType} name
    */
   public Transaction(
       String accountNumber, String type, double amount, double balanceAfterTransaction) {
-    this.transactionId = generateTransactionId();
+    this(
+        TRANSACTION_IDS.next(),
+        accountNumber,
+        TransactionType.parse(type),
+        Money.fromDouble(amount),
+        Money.fromDouble(balanceAfterTransaction),
+        clock.millis(),
+        NOT_A_REVERSAL);
+  }
+
+  private Transaction(
+      long id,
+      String accountNumber,
+      TransactionType type,
+      long amount,
+      long balanceAfterTransaction,
+      long epochMillis,
+      long reversedId) {
+    this.id = id;
     this.accountNumber = accountNumber;
     this.type = type;
     this.amount = amount;
     this.balanceAfter = balanceAfterTransaction;
-    LocalDateTime time = LocalDateTime.now();
-    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
-    this.timestamp = formatter.format(time);
+    this.epochMillis = epochMillis;
+    this.reversedId = reversedId;
+  }
+
+  /**
+   * Creates a new transaction record from exact amounts in cents.
+   *
+   * @param accountNumber the account associated with the transaction
+   * @param type the transaction type name, e.g. "DEPOSIT", in any case
+   * @param amountCents the transaction amount in cents
+   * @param balanceAfterCents the account balance in cents after this transaction
+   * @return the new transaction
+   * @throws IllegalArgumentException if the type is not a {@link TransactionType} name
+   */
+  public static Transaction ofCents(
+      String accountNumber, String type, long amountCents, long balanceAfterCents) {
+    return ofCents(accountNumber, TransactionType.parse(type), amountCents, balanceAfterCents);
+  }
+
+  /**
+   * Creates a new transaction record of the given kind from exact amounts in cents.
+   *
+   * @param accountNumber the account associated with the transaction
+   * @param type the kind of transaction
+   * @param amountCents the transaction amount in cents; signed for a {@link
+   *     TransactionType#REVERSAL}
+   * @param balanceAfterCents the account balance in cents after this transaction
+   * @return the new transaction
+   */
+  public static Transaction ofCents(
+      String accountNumber, TransactionType type, long amountCents, long balanceAfterCents) {
+    return new Transaction(
+        TRANSACTION_IDS.next(),
+        accountNumber,
+        type,
+        amountCents,
+        balanceAfterCents,
+        clock.millis(),
+        NOT_A_REVERSAL);
+  }
+
+  /**
+   * Creates the {@link TransactionType#REVERSAL} record that undoes {@code original}: same account,
+   * the opposite effect on the balance, and a link to the original's ID.
+   *
+   * @param original the transaction being undone
+   * @param balanceAfterCents the account balance in cents after the reversal
+   * @return the new reversal
+   * @throws IllegalArgumentException if the original is a transfer leg, which is undone by
+   *     transferring back
+   */
+  public static Transaction reversalOf(Transaction original, long balanceAfterCents) {
+    return new Transaction(
+        TRANSACTION_IDS.next(),
+        original.accountNumber,
+        TransactionType.REVERSAL,
+        reversalAmountOf(original),
+        balanceAfterCents,
+        clock.millis(),
+        original.id);
   }
 
-  private static String generateTransactionId() { // Generates a transactionId
-    return "TXN" + String.format("%03d", ++transactionCounter);
+  /**
+   * Returns the signed amount in cents of the reversal that undoes {@code original}.
+   *
+   * @throws IllegalArgumentException if the original is a transfer leg
+   */
+  public static long reversalAmountOf(Transaction original) {
+    if (original.type == TransactionType.TRANSFER_IN
+        || original.type == TransactionType.TRANSFER_OUT) {
+      throw new IllegalArgumentException("Transfers are undone by transferring back");
+    }
+    return Money.negate(original.type.signedAmount(original.amount));
   }
 
-  public static int getTransactionCounter() {
-    return transactionCounter;
+  /**
+   * Recreates a previously recorded transaction, e.g. when replaying a journal. The ID counter is
+   * advanced past the restored ID so newly created transactions never reuse it.
+   *
+   * @param transactionId the original transaction ID
+   * @param accountNumber the account associated with the transaction
+   * @param type the transaction type
+   * @param amountCents the transaction amount in cents
+   * @param balanceAfterCents the account balance in cents after this transaction
+   * @param epochMillis when the transaction was originally recorded
+   * @return the restored transaction
+   * @throws IllegalArgumentException if the ID is not a generated transaction ID or the type is not
+   *     a {@link TransactionType} name
+   */
+  public static Transaction restore(
+      String transactionId,
+      String accountNumber,
+      String type,
+      long amountCents,
+      long balanceAfterCents,
+      long epochMillis) {
+    return restore(
+        transactionId,
+        accountNumber,
+        type,
+        amountCents,
+        balanceAfterCents,
+        epochMillis,
+        NOT_A_REVERSAL);
+  }
+
+  /**
+   * Recreates a previously recorded transaction, keeping the link of a reversal to the transaction
+   * it undid.
+   *
+   * @param reversedId the numeric ID of the transaction this one reversed, or {@link
+   *     #NOT_A_REVERSAL}
+   * @see #restore(String, String, String, long, long, long)
+   */
+  public static Transaction restore(
+      String transactionId,
+      String accountNumber,
+      String type,
+      long amountCents,
+      long balanceAfterCents,
+      long epochMillis,
+      long reversedId) {
+    long id = TRANSACTION_IDS.parse(transactionId);
+    if (id < 0) {
+      throw new IllegalArgumentException("Not a generated transaction ID: " + transactionId);
+    }
+    TransactionType kind = TransactionType.parse(type);
+    TRANSACTION_IDS.advancePast(id);
+    return new Transaction(
+        id, accountNumber, kind, amountCents, balanceAfterCents, epochMillis, reversedId);
+  }
+
+  /** Rebuilds a stored transaction for display without touching the ID allocator. */
+  static Transaction materialize(
+      long id,
+      String accountNumber,
+      TransactionType type,
+      long amountCents,
+      long balanceAfterCents,
+      long epochMillis,
+      long reversedId) {
+    return new Transaction(
+        id, accountNumber, type, amountCents, balanceAfterCents, epochMillis, reversedId);
+  }
+
+  /**
+   * Replaces the clock that timestamps new transactions and whose zone is used to render them, e.g.
+   * with a fixed clock in tests or replays.
+   */
+  public static void setClock(Clock newClock) {
+    clock = newClock;
+  }
+
+  /** Returns the clock that timestamps new transactions. */
+  public static Clock getClock() {
+    return clock;
+  }
+
+  /** Ensures transactions created from now on get IDs above {@code id}, e.g. after a restore. */
+  public static void advanceTransactionCounterPast(long id) {
+    TRANSACTION_IDS.advancePast(id);
+  }
+
+  /**
+   * Returns the highest transaction ID reserved so far; see {@link IdAllocator#getHighWaterMark()}.
+   */
+  public static long getTransactionCounter() {
+    return TRANSACTION_IDS.getHighWaterMark();
   }
 
   public String getAccountNumber() {
@@ -48,22 +246,79 @@ public class Transaction {
   }
 
   public double getAmount() {
+    return Money.toDouble(amount);
+  }
+
+  public long getAmountCents() {
     return amount;
   }
 
   public double getBalanceAfter() {
+    return Money.toDouble(balanceAfter);
+  }
+
+  public long getBalanceAfterCents() {
     return balanceAfter;
   }
 
+  /** Returns when the transaction was recorded, in milliseconds since the epoch. */
+  public long getEpochMillis() {
+    return epochMillis;
+  }
+
+  /** Returns the timestamp as {@code dd-MM-yyyy HH:mm:ss} in the clock's time zone. */
   public String getTimestamp() {
-    return timestamp;
+    long second = Math.floorDiv(epochMillis, 1000);
+    ZoneId zone = clock.getZone();
+    RenderedSecond cached = lastRendered;
+    if (cached.second() == second && zone.equals(cached.zone())) return cached.text();
+
+    String text =
+        TIMESTAMP_FORMAT.format(LocalDateTime.ofInstant(Instant.ofEpochSecond(second), zone));
+    lastRendered = new RenderedSecond(second, zone, text);
+    return text;
+  }
+
+  /**
+   * Returns the numeric transaction ID; unlike the display ID, it orders transactions correctly.
+   */
+  public long getId() {
+    return id;
   }
 
+  /** Returns the display transaction ID, e.g. {@code TXN007}, rendered on first use. */
   public String getTransactionId() {
-    return transactionId;
+    String display = transactionId;
+    if (display == null) {
+      display = TRANSACTION_IDS.format(id);
+      transactionId = display;
+    }
+    return display;
   }
 
+  /** Returns the canonical name of the transaction's kind, e.g. {@code DEPOSIT}. */
   public String getType() {
+    return type.name();
+  }
+
+  /** Returns the kind of the transaction. */
+  public TransactionType getTransactionType() {
     return type;
   }
+
+  /**
+   * Returns the numeric ID of the transaction this reversal undid, or {@link #NOT_A_REVERSAL} if
+   * this is not a reversal.
+   */
+  public long getReversedId() {
+    return reversedId;
+  }
+
+  /** Returns the numeric ID of a display transaction ID, or -1 if it is not a generated ID. */
+  static long parseId(String transactionId) {
+    return TRANSACTION_IDS.parse(transactionId);
+  }
+
+  /** The most recently rendered second; transactions posted together usually share it. */
+  private record RenderedSecond(long second, ZoneId zone, String text) {}
 }
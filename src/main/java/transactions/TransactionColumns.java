@@ -0,0 +1,107 @@
+package transactions;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Read-only view of the transaction history's columns as they were at one moment, for bulk export.
+ *
+ * <p>The view shares the history's append-only column chunks instead of copying them; rows added
+ * later are outside the view, so it can be read without holding the manager's lock. Each column is
+ * split into {@link #chunkCount()} chunks of up to {@link #CHUNK_SIZE} rows, copied out in bulk
+ * with the {@code put} methods. Account numbers and types are dictionary-encoded: the account index
+ * and type code of a row index {@link #accountNumbers()} and {@link #types()}. Type codes are
+ * {@link TransactionType} op-codes, so the type dictionary is the same in every view.
+ */
+public final class TransactionColumns {
+
+  /** Maximum number of rows in one chunk. */
+  public static final int CHUNK_SIZE = TransactionStore.CHUNK_SIZE;
+
+  private final int size;
+  private final long[][] ids;
+  private final long[][] amounts;
+  private final long[][] balances;
+  private final long[][] times;
+  private final int[][] accountIndexes;
+  private final byte[][] typeCodes;
+  private final String[] accountNumbers;
+  private final String[] types;
+
+  TransactionColumns(
+      int size,
+      long[][] ids,
+      long[][] amounts,
+      long[][] balances,
+      long[][] times,
+      int[][] accountIndexes,
+      byte[][] typeCodes,
+      String[] accountNumbers,
+      String[] types) {
+    this.size = size;
+    this.ids = ids;
+    this.amounts = amounts;
+    this.balances = balances;
+    this.times = times;
+    this.accountIndexes = accountIndexes;
+    this.typeCodes = typeCodes;
+    this.accountNumbers = accountNumbers;
+    this.types = types;
+  }
+
+  /** Returns the number of rows in the view. */
+  public int size() {
+    return size;
+  }
+
+  /** Returns the number of chunks holding the rows. */
+  public int chunkCount() {
+    return (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+  }
+
+  /** Returns the number of rows in the given chunk. */
+  public int chunkRows(int chunk) {
+    return Math.min(CHUNK_SIZE, size - chunk * CHUNK_SIZE);
+  }
+
+  /** Returns a copy of the account number dictionary, indexed by account index. */
+  public String[] accountNumbers() {
+    return accountNumbers.clone();
+  }
+
+  /** Returns a copy of the type dictionary, indexed by type code. */
+  public String[] types() {
+    return types.clone();
+  }
+
+  /** Copies one chunk of numeric transaction IDs into the buffer. */
+  public void putIds(int chunk, LongBuffer target) {
+    target.put(ids[chunk], 0, chunkRows(chunk));
+  }
+
+  /** Copies one chunk of amounts in cents into the buffer. */
+  public void putAmounts(int chunk, LongBuffer target) {
+    target.put(amounts[chunk], 0, chunkRows(chunk));
+  }
+
+  /** Copies one chunk of balances-after in cents into the buffer. */
+  public void putBalances(int chunk, LongBuffer target) {
+    target.put(balances[chunk], 0, chunkRows(chunk));
+  }
+
+  /** Copies one chunk of epoch-millisecond timestamps into the buffer. */
+  public void putTimes(int chunk, LongBuffer target) {
+    target.put(times[chunk], 0, chunkRows(chunk));
+  }
+
+  /** Copies one chunk of account indexes into the buffer. */
+  public void putAccountIndexes(int chunk, IntBuffer target) {
+    target.put(accountIndexes[chunk], 0, chunkRows(chunk));
+  }
+
+  /** Copies one chunk of type codes into the buffer. */
+  public void putTypeCodes(int chunk, ByteBuffer target) {
+    target.put(typeCodes[chunk], 0, chunkRows(chunk));
+  }
+}
@@ -0,0 +1,24 @@
+package transactions;
+
+/** Durable sink that records each transaction before it is added to the in-memory history. */
+public interface TransactionLog {
+
+  /**
+   * Appends a transaction to the log.
+   *
+   * @param transaction the transaction to record
+   * @throws java.io.UncheckedIOException if the transaction could not be recorded
+   */
+  void append(Transaction transaction);
+
+  /**
+   * Records that a period was closed on an account, so that recovery can restore the account's last
+   * closed period along with the postings that closed it. Logs that do not recover state may ignore
+   * it.
+   *
+   * @param accountNumber the account the period was closed on
+   * @param period the closed period's index
+   * @throws java.io.UncheckedIOException if the close could not be recorded
+   */
+  default void appendPeriodClose(String accountNumber, int period) {}
+}
@@ -1,73 +1,242 @@
 package transactions;
 
+import java.util.List;
+import metrics.LatencyHistogram;
+import metrics.MetricsRegistry;
 import utils.ConsoleTablePrinter;
 import utils.InputReader;
+import utils.Money;
+import utils.Page;
+import utils.PagedView;
 import utils.TablePrinter;
 
-/** Manages a collection of transactions with fixed capacity. */
+/**
+ * Manages a growable history of transactions held in a columnar {@link TransactionStore}. When a
+ * {@link TransactionLog} is attached, every transaction is recorded there before it becomes part of
+ * the in-memory history.
+ *
+ * <p>The manager is thread-safe: every read and update of the history holds the manager's monitor,
+ * while printing and waiting for input happen outside it, so a background job posting transactions
+ * never waits on a teller's screen.
+ */
 public class TransactionManager {
 
-  private static final int MAX_TRANSACTIONS = 200;
-  private static final String DEPOSIT_TYPE = "DEPOSIT";
-  private static final String WITHDRAWAL_TYPE = "WITHDRAWAL";
+  private static final LatencyHistogram ADD_LATENCY =
+      MetricsRegistry.global().histogram("transaction_add_nanos");
 
-  private final Transaction[] transactions;
-  private int transactionCount;
+  private final TransactionStore store;
   private final TablePrinter printer;
+  private TransactionLog transactionLog;
 
   public TransactionManager() {
-    this.transactions = new Transaction[MAX_TRANSACTIONS];
-    this.transactionCount = 0;
+    this.store = new TransactionStore();
     this.printer = new ConsoleTablePrinter();
   }
 
-  /** Adds a transaction to the history if capacity allows. */
+  /**
+   * Attaches a durable log that records every subsequently added transaction. Attach it after
+   * replaying the log's history so replayed transactions are not recorded twice.
+   *
+   * @param transactionLog the log to write to, or null to stop logging
+   */
+  public synchronized void setTransactionLog(TransactionLog transactionLog) {
+    this.transactionLog = transactionLog;
+  }
+
+  /**
+   * Adds a transaction to the history, recording it in the attached log first. The time recorded in
+   * the {@code transaction_add_nanos} metric includes waiting for the manager's monitor.
+   */
   public void addTransaction(Transaction transaction) {
+    long started = System.nanoTime();
+    try {
+      append(transaction);
+    } finally {
+      ADD_LATENCY.recordSince(started);
+    }
+  }
+
+  /**
+   * Adds two related transactions, e.g. the legs of a transfer, back to back: no other transaction
+   * is added between them, in the history or in the attached log. Both appends run under the
+   * manager's monitor, like every other add, so concurrent callers are serialized here.
+   */
+  public void addTransactions(Transaction first, Transaction second) {
+    long started = System.nanoTime();
+    try {
+      synchronized (this) {
+        append(first);
+        append(second);
+      }
+    } finally {
+      ADD_LATENCY.recordSince(started);
+    }
+  }
+
+  private synchronized void append(Transaction transaction) {
     if (transaction == null) {
       System.out.println("Attempted to add null transaction");
       return;
     }
 
-    if (transactionCount >= MAX_TRANSACTIONS) {
-      System.out.println("Transaction limit reached. Cannot add more transactions.");
-      return;
+    if (transactionLog != null) {
+      // Check first so the log never holds a transaction the history refuses.
+      store.checkAppend(transaction);
+      transactionLog.append(transaction);
     }
+    store.append(transaction);
+  }
 
-    this.transactions[this.transactionCount++] = transaction;
+  /**
+   * Records in the attached log that a period was closed on an account. Call it after the period's
+   * postings, while still holding the account's lock.
+   */
+  public synchronized void recordPeriodClose(String accountNumber, int period) {
+    if (transactionLog != null) transactionLog.appendPeriodClose(accountNumber, period);
   }
 
   /** Calculates the total amount of all deposits. */
   public double calculateTotalDeposits() {
-    return calculateTotalByType(DEPOSIT_TYPE);
+    return Money.toDouble(getTotalCents(TransactionType.DEPOSIT));
   }
 
   /** Calculates the total amount of all withdrawals. */
   public double calculateTotalWithdrawals() {
-    return calculateTotalByType(WITHDRAWAL_TYPE);
+    return Money.toDouble(getTotalCents(TransactionType.WITHDRAWAL));
+  }
+
+  /** Calculates the exact total of all deposits in cents. */
+  public long calculateTotalDepositsCents() {
+    return getTotalCents(TransactionType.DEPOSIT);
   }
 
-  public int getTransactionCount() {
-    return this.transactionCount;
+  /** Calculates the exact total of all withdrawals in cents. */
+  public long calculateTotalWithdrawalsCents() {
+    return getTotalCents(TransactionType.WITHDRAWAL);
   }
 
   /**
-   * Displays a tabular view of all transactions.
+   * Returns the exact total in cents of every transaction of the given kind. Reversal amounts are
+   * signed, so their total is the net effect of all reversals.
+   */
+  public synchronized long getTotalCents(TransactionType type) {
+    return store.totalAmount(type);
+  }
+
+  /** Returns the exact total in cents of the specified account's transactions of the given kind. */
+  public synchronized long getTotalCents(String accountNumber, TransactionType type) {
+    int accountIndex = store.accountIndexOf(accountNumber);
+    return accountIndex < 0 ? 0 : store.totalAmount(accountIndex, type);
+  }
+
+  /** Returns the exact total in cents of every kind of transaction, indexed by op-code. */
+  public synchronized long[] getTotalsCents() {
+    long[] totals = new long[TransactionType.COUNT];
+    for (TransactionType type : TransactionType.values()) {
+      totals[type.code()] = store.totalAmount(type);
+    }
+    return totals;
+  }
+
+  /**
+   * Returns the exact total in cents of every kind of the specified account's transactions, indexed
+   * by op-code; all zero if the account has none.
+   */
+  public synchronized long[] getTotalsCents(String accountNumber) {
+    long[] totals = new long[TransactionType.COUNT];
+    int accountIndex = store.accountIndexOf(accountNumber);
+    if (accountIndex < 0) return totals;
+    for (TransactionType type : TransactionType.values()) {
+      totals[type.code()] = store.totalAmount(accountIndex, type);
+    }
+    return totals;
+  }
+
+  /** Returns how many transactions of the given kind have been recorded. */
+  public synchronized long getTransactionCount(TransactionType type) {
+    return store.totalCount(type);
+  }
+
+  public synchronized int getTransactionCount() {
+    return store.size();
+  }
+
+  /** Returns how many transactions have been recorded for the specified account. */
+  public synchronized int getTransactionCount(String accountNumber) {
+    int accountIndex = store.accountIndexOf(accountNumber);
+    return accountIndex < 0 ? 0 : store.accountRowCount(accountIndex);
+  }
+
+  /**
+   * Finds one of the specified account's transactions by its display ID, searching newest first.
    *
-   * @param inputReader used to pause execution after display
+   * @return the transaction, or null if the account has no transaction with that ID
+   */
+  public synchronized Transaction findTransaction(String accountNumber, String transactionId) {
+    int accountIndex = store.accountIndexOf(accountNumber);
+    long id = Transaction.parseId(transactionId);
+    if (accountIndex < 0 || id < 0) return null;
+
+    for (int nth = store.accountRowCount(accountIndex) - 1; nth >= 0; nth--) {
+      int position = store.accountRowAt(accountIndex, nth);
+      if (store.idAt(position) == id) return store.materialize(position);
+    }
+    return null;
+  }
+
+  /** Returns true if a reversal of the given transaction has been recorded. */
+  public synchronized boolean isReversed(Transaction transaction) {
+    return store.isReversed(transaction.getId());
+  }
+
+  /**
+   * Recomputes the running per-kind totals and per-account counts from the full history and reports
+   * any that disagree with the incrementally maintained values.
+   *
+   * @return one description per drifted aggregate; empty if all aggregates are consistent
+   */
+  public synchronized List<String> verifyAggregates() {
+    return store.verifyAggregates();
+  }
+
+  /**
+   * Returns a columnar view of the history as it is now, for bulk export. The view shares the
+   * stored columns and can be read while new transactions are added.
+   */
+  public synchronized TransactionColumns getColumns() {
+    return store.columns();
+  }
+
+  /**
+   * Returns up to {@code pageSize} transactions in the order they were added, starting at the
+   * cursor. Only the transactions on the page are materialised.
+   *
+   * @param cursor {@link Page#FIRST} or the {@code nextCursor} of a previous page
+   * @param pageSize the maximum number of transactions to return
+   * @return the page and the cursor of the transaction after it
+   * @throws IllegalArgumentException if the cursor or page size is invalid
+   */
+  public synchronized Page<Transaction> getTransactionsPage(long cursor, int pageSize) {
+    int size = store.size();
+    Page.checkRequest(cursor, pageSize, size);
+    int from = (int) cursor;
+    int to = (int) Math.min(size, from + (long) pageSize);
+    Transaction[] items = new Transaction[to - from];
+    for (int i = 0; i < items.length; i++) items[i] = store.materialize(from + i);
+    return new Page<>(List.of(items), to, to < size);
+  }
+
+  /**
+   * Displays a tabular view of the transactions one page at a time.
+   *
+   * @param inputReader used to choose pages and pause execution after display
    */
   public void viewAllTransactions(InputReader inputReader) {
     if (isTransactionListEmpty(inputReader)) {
       return;
     }
 
-    String[] headers = createTransactionHeaders();
-    String[][] data = buildTransactionData(transactions, transactionCount);
-
-    printer.printTable(headers, data);
-    displayTransactionSummary(
-        transactionCount, calculateTotalDeposits(), calculateTotalWithdrawals());
-
-    waitForUserInput(inputReader);
+    PagedView.browse(this::getTransactionCount, this::showTransactionsPage, inputReader);
   }
 
   /**
@@ -84,7 +253,7 @@ public class TransactionManager {
     }
 
     Transaction[] accountTransactions = filterTransactionsByAccount(accountNumber);
-    int count = countNonNullTransactions(accountTransactions);
+    int count = accountTransactions.length;
 
     if (count == 0) {
       System.out.println("No transactions recorded for account: " + accountNumber);
@@ -93,13 +262,11 @@ public class TransactionManager {
     }
 
     String[] headers = createTransactionHeaders();
-    String[][] data = buildTransactionData(accountTransactions, count);
+    String[][] data = buildTransactionData(accountTransactions);
 
     printer.printTable(headers, data);
 
-    double totalDeposits = calculateTotalByTypeForAccount(accountNumber, DEPOSIT_TYPE);
-    double totalWithdrawals = calculateTotalByTypeForAccount(accountNumber, WITHDRAWAL_TYPE);
-    displayTransactionSummary(count, totalDeposits, totalWithdrawals);
+    displayTransactionSummary(count, getTotalsCents(accountNumber));
 
     waitForUserInput(inputReader);
   }
@@ -111,97 +278,82 @@ public class TransactionManager {
 
   /** Returns total deposits for the specified account. */
   public double getTotalDeposits(String accountNumber) {
-    return calculateTotalByTypeForAccount(accountNumber, DEPOSIT_TYPE);
+    return Money.toDouble(getTotalCents(accountNumber, TransactionType.DEPOSIT));
   }
 
   /** Returns total withdrawals for the specified account. */
   public double getTotalWithdrawals(String accountNumber) {
-    return calculateTotalByTypeForAccount(accountNumber, WITHDRAWAL_TYPE);
+    return Money.toDouble(getTotalCents(accountNumber, TransactionType.WITHDRAWAL));
   }
 
-  // ==================== HELPER METHODS ====================
-
-  private double calculateTotalByType(String type) {
-    double total = 0;
-    for (int i = 0; i < transactionCount; i++) {
-      if (transactions[i] != null && transactions[i].getType().equalsIgnoreCase(type)) {
-        total += transactions[i].getAmount();
-      }
-    }
-    return total;
+  /** Returns the exact total of deposits in cents for the specified account. */
+  public long getTotalDepositsCents(String accountNumber) {
+    return getTotalCents(accountNumber, TransactionType.DEPOSIT);
   }
 
-  private Transaction[] filterTransactionsByAccount(String accountNumber) {
-    Transaction[] filtered = new Transaction[transactionCount];
-    int index = 0;
+  /** Returns the exact total of withdrawals in cents for the specified account. */
+  public long getTotalWithdrawalsCents(String accountNumber) {
+    return getTotalCents(accountNumber, TransactionType.WITHDRAWAL);
+  }
 
-    for (int i = transactionCount - 1; i >= 0; i--) {
-      if (transactions[i] != null && transactions[i].getAccountNumber().equals(accountNumber)) {
-        filtered[index++] = transactions[i];
-      }
-    }
+  // ==================== HELPER METHODS ====================
 
-    return filtered;
+  private void showTransactionsPage(long cursor) {
+    Transaction[] page =
+        getTransactionsPage(cursor, PagedView.PAGE_SIZE).items().toArray(new Transaction[0]);
+    printer.printTable(createTransactionHeaders(), buildTransactionData(page));
+    displayTransactionSummary(getTransactionCount(), getTotalsCents());
   }
 
-  private int countNonNullTransactions(Transaction[] transactionArray) {
-    int count = 0;
-    for (Transaction tx : transactionArray) {
-      if (tx != null) {
-        count++;
-      }
+  /** Returns the account's transactions newest first, sized to exactly the matches. */
+  private synchronized Transaction[] filterTransactionsByAccount(String accountNumber) {
+    int accountIndex = store.accountIndexOf(accountNumber);
+    if (accountIndex < 0) return new Transaction[0];
+
+    int count = store.accountRowCount(accountIndex);
+    Transaction[] filtered = new Transaction[count];
+    for (int i = 0; i < count; i++) {
+      filtered[i] = store.materialize(store.accountRowAt(accountIndex, count - 1 - i));
     }
-    return count;
+    return filtered;
   }
 
   private String[] createTransactionHeaders() {
     return new String[] {"TRANSACTION ID", "ACCOUNT NUMBER", "TYPE", "AMOUNT", "DATE"};
   }
 
-  private String[][] buildTransactionData(Transaction[] transactionArray, int count) {
-    String[][] data = new String[count][5];
-    int rowIndex = 0;
-
-    for (int i = 0; i < transactionArray.length && rowIndex < count; i++) {
-      Transaction tx = transactionArray[i];
-      if (tx != null) {
-        data[rowIndex][0] = tx.getTransactionId();
-        data[rowIndex][1] = tx.getAccountNumber();
-        data[rowIndex][2] = tx.getType().toUpperCase();
-        data[rowIndex][3] = formatAmount(tx.getType(), tx.getAmount());
-        data[rowIndex][4] = tx.getTimestamp();
-        rowIndex++;
-      }
+  private String[][] buildTransactionData(Transaction[] transactions) {
+    String[][] data = new String[transactions.length][];
+    for (int i = 0; i < transactions.length; i++) {
+      Transaction tx = transactions[i];
+      data[i] =
+          new String[] {
+            tx.getTransactionId(),
+            tx.getAccountNumber(),
+            tx.getType(),
+            formatAmount(tx.getTransactionType(), tx.getAmountCents()),
+            tx.getTimestamp()
+          };
     }
-
     return data;
   }
 
-  private String formatAmount(String type, double amount) {
-    String prefix = type.equalsIgnoreCase(DEPOSIT_TYPE) ? "+$" : "-$";
-    return String.format("%s%.2f", prefix, amount);
+  private String formatAmount(TransactionType type, long amountCents) {
+    long signed = type.signedAmount(amountCents);
+    String prefix = signed < 0 ? "-$" : "+$";
+    return Money.appendTo(new StringBuilder(prefix), Math.abs(signed)).toString();
   }
 
-  private void displayTransactionSummary(int count, double totalDeposits, double totalWithdrawals) {
+  private void displayTransactionSummary(int count, long[] totals) {
     System.out.println("Number of transactions: " + count);
-    System.out.println(String.format("Total Deposits: $%.2f", totalDeposits));
-    System.out.println(String.format("Total Withdrawals: $%.2f", totalWithdrawals));
-  }
-
-  private double calculateTotalByTypeForAccount(String accountNumber, String type) {
-    double total = 0;
-    for (int i = 0; i < transactionCount; i++) {
-      if (transactions[i] != null
-          && transactions[i].getAccountNumber().equals(accountNumber)
-          && transactions[i].getType().equalsIgnoreCase(type)) {
-        total += transactions[i].getAmount();
-      }
+    for (TransactionType type : TransactionType.values()) {
+      System.out.println("Total " + type.totalLabel() + ": $" + Money.format(totals[type.code()]));
     }
-    return total;
+    System.out.println("Net Change: $" + Money.format(TransactionType.netOf(totals)));
   }
 
   private boolean isTransactionListEmpty(InputReader inputReader) {
-    if (transactionCount == 0) {
+    if (getTransactionCount() == 0) {
       System.out.println("No transactions available.");
       inputReader.waitForEnter();
       return true;
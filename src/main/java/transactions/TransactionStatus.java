@@ -0,0 +1,29 @@
+package transactions;
+
+/** Compact result codes for transactions processed without throwing, e.g. in batches. */
+public final class TransactionStatus {
+
+  public static final byte OK = 0;
+  public static final byte ACCOUNT_NOT_FOUND = 1;
+  public static final byte INVALID_AMOUNT = 2;
+  public static final byte INSUFFICIENT_FUNDS = 3;
+  public static final byte INVALID_TYPE = 4;
+  public static final byte AMOUNT_OUT_OF_RANGE = 5;
+  public static final byte NOT_RECORDED = 6;
+
+  private TransactionStatus() {}
+
+  /** Returns a short human-readable description of a status code. */
+  public static String describe(byte status) {
+    return switch (status) {
+      case OK -> "OK";
+      case ACCOUNT_NOT_FOUND -> "Account not found";
+      case INVALID_AMOUNT -> "Invalid amount";
+      case INSUFFICIENT_FUNDS -> "Insufficient funds";
+      case INVALID_TYPE -> "Invalid transaction type";
+      case AMOUNT_OUT_OF_RANGE -> "Amount exceeds the supported balance range";
+      case NOT_RECORDED -> "Transaction could not be recorded";
+      default -> "Unknown status " + status;
+    };
+  }
+}
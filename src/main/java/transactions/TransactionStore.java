@@ -0,0 +1,314 @@
+package transactions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import utils.Money;
+
+/**
+ * Columnar, append-only storage for transaction history.
+ *
+ * <p>Each attribute lives in its own primitive column, split into fixed-size chunks so growth never
+ * copies existing rows. Account numbers are dictionary-encoded into an int account index and types
+ * are stored as their {@link TransactionType} op-code, so scans compare primitives instead of
+ * strings. {@link Transaction} objects are only created by {@link #materialize(int)} when a row is
+ * displayed.
+ *
+ * <p>Each account also keeps the positions of its own rows in append order, so one account's
+ * history and totals cost time proportional to that account's transaction count, not the whole
+ * history.
+ *
+ * <p>Reversals are rare, so the link from a reversal to the transaction it undid is kept in two
+ * small maps instead of a column: one from the reversal's position to the undone ID, one from the
+ * undone ID to the reversal's ID. The second refuses a second reversal of the same transaction.
+ *
+ * <p>Running totals per op-code are maintained on append, bank-wide and per account, in arrays of
+ * {@link TransactionType#COUNT} entries, so the {@code totalAmount} reads are a single array load.
+ * {@link #verifyAggregates()} recomputes them from the columns to detect drift.
+ */
+final class TransactionStore {
+
+  private static final int CHUNK_SHIFT = 14;
+  static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+  private static final String[] TYPE_NAMES = new String[TransactionType.COUNT];
+
+  static {
+    for (TransactionType type : TransactionType.values()) TYPE_NAMES[type.code()] = type.name();
+  }
+
+  private long[][] ids = new long[4][];
+  private long[][] amounts = new long[4][];
+  private long[][] balances = new long[4][];
+  private long[][] times = new long[4][];
+  private int[][] accountIndexes = new int[4][];
+  private byte[][] typeCodes = new byte[4][];
+  private int size;
+
+  private String[] accountNumbers = new String[64];
+  private int[][] accountRows = new int[64][];
+  private int[] accountRowCounts = new int[64];
+  private final Map<String, Integer> accountIndexByNumber = new HashMap<>();
+  private int accountCount;
+
+  private final long[] typeTotals = new long[TransactionType.COUNT];
+  private final long[] typeCounts = new long[TransactionType.COUNT];
+  private long[][] accountTypeTotals = new long[64][];
+
+  private final Map<Integer, Long> reversedIdByPosition = new HashMap<>();
+  private final Map<Long, Long> reversalIdByReversedId = new HashMap<>();
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Checks that {@link #append} would accept the transaction, without changing anything, so a
+   * caller can refuse it before recording it elsewhere.
+   *
+   * @throws IllegalStateException if the transaction reverses one that was already reversed
+   * @throws ArithmeticException if a running total would overflow
+   */
+  void checkAppend(Transaction transaction) {
+    checkNotReversed(transaction);
+    long amount = transaction.getAmountCents();
+    byte code = transaction.getTransactionType().code();
+    Math.addExact(typeTotals[code], amount);
+    int accountIndex = accountIndexOf(transaction.getAccountNumber());
+    if (accountIndex >= 0) Math.addExact(accountTypeTotals[accountIndex][code], amount);
+  }
+
+  /**
+   * Appends one transaction as a new row and returns its position.
+   *
+   * @throws IllegalStateException if the transaction reverses one that was already reversed
+   * @throws ArithmeticException if a running total would overflow; nothing is written
+   */
+  int append(Transaction transaction) {
+    checkAppend(transaction);
+    long id = transaction.getId();
+    long amount = transaction.getAmountCents();
+    int accountIndex = internAccount(transaction.getAccountNumber());
+    byte code = transaction.getTransactionType().code();
+
+    // Compute the new totals first so an overflow rejects the row before anything is written.
+    long[] accountTotals = accountTypeTotals[accountIndex];
+    long typeTotal = Math.addExact(typeTotals[code], amount);
+    long accountTotal = Math.addExact(accountTotals[code], amount);
+
+    int chunk = size >>> CHUNK_SHIFT;
+    if (chunk == ids.length) growChunkTable();
+    if (ids[chunk] == null) allocateChunk(chunk);
+
+    int offset = size & CHUNK_MASK;
+    ids[chunk][offset] = id;
+    amounts[chunk][offset] = amount;
+    balances[chunk][offset] = transaction.getBalanceAfterCents();
+    times[chunk][offset] = transaction.getEpochMillis();
+    accountIndexes[chunk][offset] = accountIndex;
+    typeCodes[chunk][offset] = code;
+    addAccountRow(accountIndex, size);
+
+    typeTotals[code] = typeTotal;
+    typeCounts[code]++;
+    accountTotals[code] = accountTotal;
+    long reversedId = transaction.getReversedId();
+    if (reversedId != Transaction.NOT_A_REVERSAL) {
+      reversedIdByPosition.put(size, reversedId);
+      reversalIdByReversedId.put(reversedId, id);
+    }
+    return size++;
+  }
+
+  private void checkNotReversed(Transaction transaction) {
+    long reversedId = transaction.getReversedId();
+    if (reversedId != Transaction.NOT_A_REVERSAL && isReversed(reversedId)) {
+      throw new IllegalStateException("Transaction " + reversedId + " was already reversed");
+    }
+  }
+
+  /** Returns true if a reversal of the transaction with the given ID has been appended. */
+  boolean isReversed(long id) {
+    return reversalIdByReversedId.containsKey(id);
+  }
+
+  /** Returns a view of the current rows that later appends do not change. */
+  TransactionColumns columns() {
+    return new TransactionColumns(
+        size,
+        ids.clone(),
+        amounts.clone(),
+        balances.clone(),
+        times.clone(),
+        accountIndexes.clone(),
+        typeCodes.clone(),
+        Arrays.copyOf(accountNumbers, accountCount),
+        TYPE_NAMES.clone());
+  }
+
+  /** Rebuilds the transaction stored at the given position. */
+  Transaction materialize(int position) {
+    int chunk = position >>> CHUNK_SHIFT;
+    int offset = position & CHUNK_MASK;
+    return Transaction.materialize(
+        ids[chunk][offset],
+        accountNumbers[accountIndexes[chunk][offset]],
+        TransactionType.fromCode(typeCodes[chunk][offset]),
+        amounts[chunk][offset],
+        balances[chunk][offset],
+        times[chunk][offset],
+        reversedIdByPosition.getOrDefault(position, Transaction.NOT_A_REVERSAL));
+  }
+
+  /** Returns the dictionary index of an account number, or -1 if it has no transactions. */
+  int accountIndexOf(String accountNumber) {
+    Integer index = accountIndexByNumber.get(accountNumber);
+    return index == null ? -1 : index;
+  }
+
+  /** Returns how many rows belong to the given account. */
+  int accountRowCount(int accountIndex) {
+    return accountRowCounts[accountIndex];
+  }
+
+  /** Returns the position of the account's {@code nth} row, counting from its oldest. */
+  int accountRowAt(int accountIndex, int nth) {
+    return accountRows[accountIndex][nth];
+  }
+
+  /** Returns the running total of the amounts of every row of the given type. */
+  long totalAmount(TransactionType type) {
+    return typeTotals[type.code()];
+  }
+
+  /** Returns the running count of rows of the given type. */
+  long totalCount(TransactionType type) {
+    return typeCounts[type.code()];
+  }
+
+  /** Returns the running total of the amounts of one account's rows of the given type. */
+  long totalAmount(int accountIndex, TransactionType type) {
+    return accountTypeTotals[accountIndex][type.code()];
+  }
+
+  /** Returns the ID of the row at the given position. */
+  long idAt(int position) {
+    return ids[position >>> CHUNK_SHIFT][position & CHUNK_MASK];
+  }
+
+  /**
+   * Recomputes every running total and per-account row count from the columns and describes each
+   * one that disagrees with the maintained value.
+   *
+   * @return one line per drifted aggregate; empty if all aggregates match the history
+   */
+  List<String> verifyAggregates() {
+    long[] scannedTypeTotals = new long[TransactionType.COUNT];
+    long[] scannedTypeCounts = new long[TransactionType.COUNT];
+    long[][] scannedAccountTotals = new long[accountCount][TransactionType.COUNT];
+    int[] scannedAccountCounts = new int[accountCount];
+    for (int position = 0; position < size; position++) {
+      int chunk = position >>> CHUNK_SHIFT;
+      int offset = position & CHUNK_MASK;
+      int code = typeCodes[chunk][offset];
+      int accountIndex = accountIndexes[chunk][offset];
+      long amount = amounts[chunk][offset];
+      scannedTypeTotals[code] += amount;
+      scannedTypeCounts[code]++;
+      scannedAccountTotals[accountIndex][code] += amount;
+      scannedAccountCounts[accountIndex]++;
+    }
+
+    List<String> drift = new ArrayList<>();
+    for (int code = 0; code < TransactionType.COUNT; code++) {
+      if (scannedTypeTotals[code] != typeTotals[code]
+          || scannedTypeCounts[code] != typeCounts[code]) {
+        drift.add(
+            "Bank-wide "
+                + TYPE_NAMES[code]
+                + ": recorded "
+                + typeCounts[code]
+                + " totalling "
+                + Money.format(typeTotals[code])
+                + ", history has "
+                + scannedTypeCounts[code]
+                + " totalling "
+                + Money.format(scannedTypeTotals[code]));
+      }
+    }
+    for (int accountIndex = 0; accountIndex < accountCount; accountIndex++) {
+      if (scannedAccountCounts[accountIndex] != accountRowCounts[accountIndex]) {
+        drift.add(
+            accountNumbers[accountIndex]
+                + ": recorded "
+                + accountRowCounts[accountIndex]
+                + " transactions, history has "
+                + scannedAccountCounts[accountIndex]);
+      }
+      long[] accountTotals = accountTypeTotals[accountIndex];
+      for (int code = 0; code < TransactionType.COUNT; code++) {
+        long recorded = accountTotals[code];
+        if (recorded != scannedAccountTotals[accountIndex][code]) {
+          drift.add(
+              accountNumbers[accountIndex]
+                  + " "
+                  + TYPE_NAMES[code]
+                  + ": recorded "
+                  + Money.format(recorded)
+                  + ", history has "
+                  + Money.format(scannedAccountTotals[accountIndex][code]));
+        }
+      }
+    }
+    return drift;
+  }
+
+  // ==================== HELPER METHODS ====================
+
+  private int internAccount(String accountNumber) {
+    Integer index = accountIndexByNumber.get(accountNumber);
+    if (index != null) return index;
+
+    if (accountCount == accountNumbers.length) {
+      accountNumbers = Arrays.copyOf(accountNumbers, accountCount * 2);
+      accountRows = Arrays.copyOf(accountRows, accountCount * 2);
+      accountRowCounts = Arrays.copyOf(accountRowCounts, accountCount * 2);
+      accountTypeTotals = Arrays.copyOf(accountTypeTotals, accountCount * 2);
+    }
+    accountNumbers[accountCount] = accountNumber;
+    accountRows[accountCount] = new int[4];
+    accountTypeTotals[accountCount] = new long[TransactionType.COUNT];
+    accountIndexByNumber.put(accountNumber, accountCount);
+    return accountCount++;
+  }
+
+  private void addAccountRow(int accountIndex, int position) {
+    int count = accountRowCounts[accountIndex];
+    if (count == accountRows[accountIndex].length) {
+      accountRows[accountIndex] = Arrays.copyOf(accountRows[accountIndex], count * 2);
+    }
+    accountRows[accountIndex][count] = position;
+    accountRowCounts[accountIndex] = count + 1;
+  }
+
+  private void allocateChunk(int chunk) {
+    ids[chunk] = new long[CHUNK_SIZE];
+    amounts[chunk] = new long[CHUNK_SIZE];
+    balances[chunk] = new long[CHUNK_SIZE];
+    times[chunk] = new long[CHUNK_SIZE];
+    accountIndexes[chunk] = new int[CHUNK_SIZE];
+    typeCodes[chunk] = new byte[CHUNK_SIZE];
+  }
+
+  private void growChunkTable() {
+    int chunks = ids.length * 2;
+    ids = Arrays.copyOf(ids, chunks);
+    amounts = Arrays.copyOf(amounts, chunks);
+    balances = Arrays.copyOf(balances, chunks);
+    times = Arrays.copyOf(times, chunks);
+    accountIndexes = Arrays.copyOf(accountIndexes, chunks);
+    typeCodes = Arrays.copyOf(typeCodes, chunks);
+  }
+}
@@ -0,0 +1,127 @@
+package transactions;
+
+/**
+ * The kind of a transaction, stored in the history as a one-byte op-code.
+ *
+ * <p>Every kind except {@link #REVERSAL} moves the balance one way: deposits, interest and incoming
+ * transfers credit the account; withdrawals, fees and outgoing transfers debit it. A reversal
+ * undoes an earlier posting, so its amount is signed: positive credits the account and negative
+ * debits it. {@link #signedAmount(long)} gives the effect on the balance for every kind.
+ *
+ * <p>Names are resolved once, ignoring case, by {@link #of(String)}; from then on callers switch on
+ * the constant and aggregates index small fixed arrays by {@link #code()}.
+ */
+public enum TransactionType {
+  DEPOSIT(1, "Deposits"),
+  WITHDRAWAL(-1, "Withdrawals"),
+  FEE(-1, "Fees"),
+  INTEREST(1, "Interest"),
+  TRANSFER_IN(1, "Transfers In"),
+  TRANSFER_OUT(-1, "Transfers Out"),
+  REVERSAL(0, "Reversals");
+
+  /** Number of kinds; op-codes run from 0 to {@code COUNT - 1}. */
+  public static final int COUNT = 7;
+
+  private static final TransactionType[] BY_CODE = values();
+
+  /** Length of the longest kind name, for sizing columns that show the name. */
+  public static final int MAX_NAME_LENGTH = maxNameLength();
+
+  /** +1 for a credit, -1 for a debit, 0 if the amount carries its own sign. */
+  private final int direction;
+
+  private final String totalLabel;
+
+  TransactionType(int direction, String totalLabel) {
+    this.direction = direction;
+    this.totalLabel = totalLabel;
+  }
+
+  /** Returns the op-code stored for this kind. */
+  public byte code() {
+    return (byte) ordinal();
+  }
+
+  /**
+   * Returns the kind with the given op-code.
+   *
+   * @throws IllegalArgumentException if the code is not an op-code
+   */
+  public static TransactionType fromCode(int code) {
+    if (code < 0 || code >= COUNT) {
+      throw new IllegalArgumentException("Not a transaction op-code: " + code);
+    }
+    return BY_CODE[code];
+  }
+
+  /**
+   * Returns the kind whose name equals {@code name} ignoring case, or null if there is none. Picks
+   * the only candidate by length, so at most one string comparison is made and nothing is
+   * allocated.
+   */
+  public static TransactionType of(String name) {
+    TransactionType candidate =
+        switch (name.length()) {
+          case 3 -> FEE;
+          case 7 -> DEPOSIT;
+          case 8 -> Character.toUpperCase(name.charAt(0)) == 'R' ? REVERSAL : INTEREST;
+          case 10 -> WITHDRAWAL;
+          case 11 -> TRANSFER_IN;
+          case 12 -> TRANSFER_OUT;
+          default -> null;
+        };
+    return candidate != null && candidate.name().equalsIgnoreCase(name) ? candidate : null;
+  }
+
+  /**
+   * Returns the kind whose name equals {@code name} ignoring case.
+   *
+   * @throws IllegalArgumentException if there is no such kind
+   */
+  public static TransactionType parse(String name) {
+    TransactionType type = of(name);
+    if (type == null) throw new IllegalArgumentException("Unknown transaction type: " + name);
+    return type;
+  }
+
+  /** Returns true if this kind always adds its amount to the balance. */
+  public boolean isCredit() {
+    return direction > 0;
+  }
+
+  /** Returns true if this kind always takes its amount from the balance. */
+  public boolean isDebit() {
+    return direction < 0;
+  }
+
+  /** Returns the change in balance, in cents, made by a transaction of this kind and amount. */
+  public long signedAmount(long amountCents) {
+    return direction < 0 ? -amountCents : amountCents;
+  }
+
+  /** Returns the label for a total of this kind in a summary, e.g. {@code Transfers In}. */
+  public String totalLabel() {
+    return totalLabel;
+  }
+
+  /**
+   * Returns the net change in balance, in cents, made by per-kind totals indexed by op-code, such
+   * as those returned by {@link TransactionManager#getTotalsCents()}.
+   *
+   * @throws ArithmeticException if the net does not fit in a long
+   */
+  public static long netOf(long[] totalsByCode) {
+    long net = 0;
+    for (TransactionType type : BY_CODE) {
+      net = Math.addExact(net, type.signedAmount(totalsByCode[type.code()]));
+    }
+    return net;
+  }
+
+  private static int maxNameLength() {
+    int longest = 0;
+    for (TransactionType type : BY_CODE) longest = Math.max(longest, type.name().length());
+    return longest;
+  }
+}
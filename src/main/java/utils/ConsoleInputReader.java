@@ -1,15 +1,21 @@
 package utils;
 
+import java.io.InputStream;
 import java.util.Scanner;
 
 /** Console-based implementation of InputReader using Scanner. */
-public class ConsoleInputReader implements InputReader, AutoCloseable {
+public class ConsoleInputReader implements InputReader {
 
   private final Scanner scanner;
 
   /** Creates a new console input reader with System.in. */
   public ConsoleInputReader() {
-    this.scanner = new Scanner(System.in);
+    this(System.in);
+  }
+
+  /** Creates a console input reader over the given stream. */
+  public ConsoleInputReader(InputStream in) {
+    this.scanner = new Scanner(in);
   }
 
   @Override
@@ -22,7 +22,13 @@ public class CustomTestRunner {
             .selectors(
                 selectPackage("accounts"),
                 selectPackage("customers"),
-                selectPackage("transactions"))
+                selectPackage("transactions"),
+                selectPackage("persistence"),
+                selectPackage("reports"),
+                selectPackage("server"),
+                selectPackage("main"),
+                selectPackage("metrics"),
+                selectPackage("utils"))
             .build();
 
     SummaryGeneratingListener summaryListener = new SummaryGeneratingListener();
@@ -0,0 +1,242 @@
+package utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+/**
+ * Buffered implementation of InputReader for bulk and piped input.
+ *
+ * <p>Input is read from a channel in 64 KB chunks and split into lines inside the buffer. Integers
+ * and decimals are parsed straight from the buffered bytes, so only {@link #readString(String)}
+ * creates a String. Each value is read from its own line, as with {@link ConsoleInputReader}. In
+ * quiet mode prompts and the "Press Enter" pause message are not printed; validation messages still
+ * are.
+ *
+ * <p>Like {@link java.util.Scanner}, reading past the end of the input throws {@link
+ * NoSuchElementException}.
+ */
+public class FastInputReader implements InputReader {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final int MAX_EXACT_DIGITS = 15;
+  private static final double[] POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+  };
+
+  private final ReadableByteChannel channel;
+  private final boolean quiet;
+  private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+  private boolean endOfInput;
+
+  /** Bounds of the current line in the buffer's array, with surrounding whitespace trimmed. */
+  private int lineStart;
+
+  private int lineEnd;
+
+  /**
+   * Creates a reader over standard input.
+   *
+   * @param quiet whether to suppress prompts, e.g. when input is piped rather than typed
+   */
+  public FastInputReader(boolean quiet) {
+    this(Channels.newChannel(System.in), quiet);
+  }
+
+  /**
+   * Creates a reader over the given channel.
+   *
+   * @param channel the input, read until it reports end of stream
+   * @param quiet whether to suppress prompts
+   */
+  public FastInputReader(ReadableByteChannel channel, boolean quiet) {
+    this.channel = channel;
+    this.quiet = quiet;
+  }
+
+  @Override
+  public void waitForEnter() {
+    if (!quiet) System.out.println("\nPress Enter to continue...");
+    nextLine();
+  }
+
+  @Override
+  public int readInt(String prompt, int min, int max) {
+    while (true) {
+      prompt(prompt);
+      requireLine();
+      long value = parseLong(lineStart, lineEnd);
+      if (value == Long.MIN_VALUE || value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+        System.out.println("Invalid input. Please enter a valid number.");
+      } else if (value >= min && value <= max) {
+        return (int) value;
+      } else {
+        System.out.println(
+            "Invalid input. Please enter a number between " + min + " and " + max + ".");
+      }
+    }
+  }
+
+  @Override
+  public double readDouble(String prompt, double min) {
+    while (true) {
+      prompt(prompt);
+      requireLine();
+      double value = parseDouble(lineStart, lineEnd);
+      if (Double.isNaN(value)) {
+        System.out.println("Invalid input. Please enter a valid number.");
+      } else if (value >= min) {
+        return value;
+      } else {
+        System.out.println(
+            "Invalid input. Please enter a number greater than or equal to " + min + ".");
+      }
+    }
+  }
+
+  @Override
+  public String readString(String prompt) {
+    while (true) {
+      prompt(prompt);
+      requireLine();
+      if (lineEnd > lineStart) {
+        return new String(buffer.array(), lineStart, lineEnd - lineStart, StandardCharsets.UTF_8);
+      }
+      System.out.println("Input cannot be empty. Please try again.");
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // ==================== LINE SPLITTING ====================
+
+  private void prompt(String prompt) {
+    if (!quiet) System.out.print(prompt);
+  }
+
+  private void requireLine() {
+    if (!nextLine()) throw new NoSuchElementException("No more input");
+  }
+
+  /** Advances to the next line, or returns false at the end of the input. */
+  private boolean nextLine() {
+    byte[] bytes = buffer.array();
+    int scanned = 0;
+    while (true) {
+      int start = buffer.position();
+      int limit = buffer.limit();
+      for (int i = start + scanned; i < limit; i++) {
+        if (bytes[i] == '\n') {
+          setLine(start, i);
+          buffer.position(i + 1);
+          return true;
+        }
+      }
+      if (endOfInput) {
+        if (start == limit) return false;
+        setLine(start, limit);
+        buffer.position(limit);
+        return true;
+      }
+      scanned = limit - start;
+      fill();
+      bytes = buffer.array();
+    }
+  }
+
+  /** Moves unread bytes to the front, growing the buffer for very long lines, and reads more. */
+  private void fill() {
+    buffer.compact();
+    if (!buffer.hasRemaining()) {
+      ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+      buffer.flip();
+      larger.put(buffer);
+      buffer = larger;
+    }
+    try {
+      if (channel.read(buffer) < 0) endOfInput = true;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      buffer.flip();
+    }
+  }
+
+  private void setLine(int start, int end) {
+    byte[] bytes = buffer.array();
+    while (start < end && bytes[start] <= ' ') start++;
+    while (end > start && bytes[end - 1] <= ' ') end--;
+    lineStart = start;
+    lineEnd = end;
+  }
+
+  // ==================== NUMBER PARSING ====================
+
+  /** Parses a decimal integer, returning {@link Long#MIN_VALUE} if it is malformed or too large. */
+  private long parseLong(int start, int end) {
+    byte[] bytes = buffer.array();
+    boolean negative = start < end && bytes[start] == '-';
+    if (negative || (start < end && bytes[start] == '+')) start++;
+    if (start == end) return Long.MIN_VALUE;
+
+    long value = 0;
+    for (int i = start; i < end; i++) {
+      int digit = bytes[i] - '0';
+      if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) return Long.MIN_VALUE;
+      value = value * 10 + digit;
+    }
+    return negative ? -value : value;
+  }
+
+  /**
+   * Parses a plain decimal such as {@code -12.5} directly from the bytes, and anything else (many
+   * digits, exponents) with {@link Double#parseDouble}. Returns NaN if the text is not a number.
+   */
+  private double parseDouble(int start, int end) {
+    byte[] bytes = buffer.array();
+    int i = start;
+    boolean negative = i < end && bytes[i] == '-';
+    if (negative || (i < end && bytes[i] == '+')) i++;
+
+    long mantissa = 0;
+    int digits = 0;
+    int scale = -1;
+    for (; i < end; i++) {
+      byte b = bytes[i];
+      if (b == '.' && scale < 0) {
+        scale = 0;
+      } else if (b >= '0' && b <= '9' && digits < MAX_EXACT_DIGITS) {
+        mantissa = mantissa * 10 + (b - '0');
+        digits++;
+        if (scale >= 0) scale++;
+      } else {
+        return parseDoubleSlowly(start, end);
+      }
+    }
+    if (digits == 0) return Double.NaN;
+
+    // Both operands are exact doubles, so the quotient is correctly rounded.
+    double value = mantissa / POWERS_OF_TEN[Math.max(scale, 0)];
+    return negative ? -value : value;
+  }
+
+  private double parseDoubleSlowly(int start, int end) {
+    try {
+      return Double.parseDouble(
+          new String(buffer.array(), start, end - start, StandardCharsets.US_ASCII));
+    } catch (NumberFormatException e) {
+      return Double.NaN;
+    }
+  }
+}
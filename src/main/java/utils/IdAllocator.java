@@ -0,0 +1,133 @@
+package utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out unique, positive 64-bit IDs for one kind of entity and renders them as display strings
+ * such as {@code ACC007}.
+ *
+ * <p>Each thread reserves a block of consecutive IDs from a shared atomic counter and then issues
+ * IDs from that block without any synchronisation, so the shared counter is touched once per block
+ * rather than once per ID. IDs are unique across threads but only ordered within one thread's
+ * blocks; a single thread sees consecutive IDs.
+ *
+ * <p>Display strings are the prefix followed by the decimal ID zero-padded to at least three
+ * digits, so they stay compatible with the original {@code %03d} format. Past 999 they no longer
+ * sort as strings; order by the numeric ID instead.
+ */
+public final class IdAllocator {
+
+  /** Number of IDs a thread reserves from the shared counter at a time. */
+  static final int DEFAULT_BLOCK_SIZE = 1024;
+
+  private static final int MIN_DIGITS = 3;
+  private static final int MAX_DIGITS = 19;
+
+  private final String prefix;
+  private final int blockSize;
+  private final AtomicLong reserved = new AtomicLong();
+
+  /** Per thread: {@code [next ID to issue, end of block (exclusive)]}. */
+  private final ThreadLocal<long[]> blocks = ThreadLocal.withInitial(() -> new long[2]);
+
+  /** IDs at or below this value must not be issued, e.g. after restoring existing records. */
+  private volatile long floor;
+
+  /**
+   * Creates an allocator whose display strings start with the given prefix.
+   *
+   * @param prefix the display prefix, e.g. {@code "ACC"}
+   */
+  public IdAllocator(String prefix) {
+    this(prefix, DEFAULT_BLOCK_SIZE);
+  }
+
+  IdAllocator(String prefix, int blockSize) {
+    if (blockSize < 1) throw new IllegalArgumentException("Block size must be positive");
+    this.prefix = prefix;
+    this.blockSize = blockSize;
+  }
+
+  /** Returns a new ID, never returned before by this allocator. */
+  public long next() {
+    long[] block = blocks.get();
+    long id = block[0];
+    if (id >= block[1] || id <= floor) {
+      long end = reserved.addAndGet(blockSize);
+      id = end - blockSize + 1;
+      block[1] = end + 1;
+    }
+    block[0] = id + 1;
+    return id;
+  }
+
+  /**
+   * Ensures no ID at or below {@code id} is issued from now on. Used when records created by an
+   * earlier run are restored, so new records never reuse their IDs.
+   */
+  public void advancePast(long id) {
+    if (id <= floor) return;
+    synchronized (this) {
+      if (id <= floor) return;
+      reserved.accumulateAndGet(id, Math::max);
+      floor = id;
+    }
+  }
+
+  /**
+   * Returns the highest ID reserved so far. Every issued ID is at or below it, so passing it to
+   * {@link #advancePast(long)} in a later run is enough to avoid reuse.
+   */
+  public long getHighWaterMark() {
+    return reserved.get();
+  }
+
+  /** Returns the display prefix. */
+  public String getPrefix() {
+    return prefix;
+  }
+
+  /** Renders an ID as its display string, e.g. {@code ACC007} or {@code ACC1234}. */
+  public String format(long id) {
+    int digits = Math.max(MIN_DIGITS, digitCount(id));
+    int length = prefix.length() + digits;
+    char[] chars = new char[length];
+    prefix.getChars(0, prefix.length(), chars, 0);
+    for (int i = length - 1; i >= prefix.length(); i--) {
+      chars[i] = (char) ('0' + id % 10);
+      id /= 10;
+    }
+    return new String(chars);
+  }
+
+  /**
+   * Parses a display string back to its ID without allocating. Only the exact string {@link
+   * #format(long)} produces is accepted, so {@code ACC0007} and {@code ACC07} do not name {@code
+   * ACC007}.
+   *
+   * @param value a display string such as {@code ACC007}
+   * @return the ID, or -1 if the value is null or not a display string of this allocator
+   */
+  public long parse(String value) {
+    if (value == null || !value.startsWith(prefix)) return -1;
+    int digits = value.length() - prefix.length();
+    if (digits < MIN_DIGITS || digits > MAX_DIGITS) return -1;
+
+    long id = 0;
+    for (int i = prefix.length(); i < value.length(); i++) {
+      int digit = value.charAt(i) - '0';
+      if (digit < 0 || digit > 9 || id > (Long.MAX_VALUE - digit) / 10) return -1;
+      id = id * 10 + digit;
+    }
+    return digits == Math.max(MIN_DIGITS, digitCount(id)) ? id : -1;
+  }
+
+  private static int digitCount(long value) {
+    int digits = 1;
+    while (value >= 10) {
+      value /= 10;
+      digits++;
+    }
+    return digits;
+  }
+}
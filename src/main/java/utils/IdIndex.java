@@ -0,0 +1,101 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.function.ToLongFunction;
+
+/**
+ * A growable array of items in insertion order, indexed by numeric ID in an open-addressing hash
+ * table so that lookups take constant time regardless of how many items are stored.
+ *
+ * <p>Not thread-safe on its own. Callers add and grow under a write lock; {@link #find(long)} may
+ * run without the lock inside an optimistic read, since a concurrent add can make it miss or see a
+ * partly updated slot but never fail or loop. {@link #size()} may be read at any time.
+ *
+ * @param <T> the item type
+ */
+public final class IdIndex<T> {
+
+  private final ToLongFunction<? super T> idOf;
+  private T[] items;
+  private volatile int size;
+
+  /** Each slot holds (position in {@code items}) + 1, or 0 if empty; twice the item capacity. */
+  private int[] slots;
+
+  /**
+   * Creates an empty index.
+   *
+   * @param storage the initial storage, whose length is the initial capacity and must be a power of
+   *     two; its runtime type is the type of the arrays returned by {@link #copyOfRange}
+   * @param idOf returns an item's ID
+   */
+  public IdIndex(T[] storage, ToLongFunction<? super T> idOf) {
+    this.items = storage;
+    this.idOf = idOf;
+    this.slots = new int[storage.length * 2];
+  }
+
+  /** Returns the number of items added. */
+  public int size() {
+    return size;
+  }
+
+  /** Appends an item and indexes it under its ID, growing the storage and index as needed. */
+  public void add(T item) {
+    int count = size;
+    if (count == items.length) resize(items.length * 2);
+    items[count] = item;
+    insert(slots, idOf.applyAsLong(item), count);
+    size = count + 1;
+  }
+
+  /** Makes room for at least {@code capacity} items at once, e.g. before a bulk restore. */
+  public void ensureCapacity(int capacity) {
+    if (capacity > items.length) resize(Integer.highestOneBit(capacity - 1) << 1);
+  }
+
+  /**
+   * Returns the item with the given ID, or null if there is none. Safe to run without the lock as
+   * long as the caller discards the result if an add ran at the same time.
+   */
+  public T find(long id) {
+    T[] items = this.items;
+    int[] slots = this.slots;
+    int mask = slots.length - 1;
+    for (int slot = hash(id) & mask; ; slot = (slot + 1) & mask) {
+      int entry = slots[slot];
+      if (entry == 0) return null;
+      if (entry <= items.length) {
+        T candidate = items[entry - 1];
+        if (candidate != null && idOf.applyAsLong(candidate) == id) return candidate;
+      }
+    }
+  }
+
+  /** Returns the items at positions {@code from} (inclusive) to {@code to} (exclusive). */
+  public T[] copyOfRange(int from, int to) {
+    return Arrays.copyOfRange(items, from, to);
+  }
+
+  /** Resizes the storage and rebuilds the index at twice the item capacity. */
+  private void resize(int capacity) {
+    T[] resized = Arrays.copyOf(items, capacity);
+    int[] resizedSlots = new int[capacity * 2];
+    for (int i = 0; i < size; i++) insert(resizedSlots, idOf.applyAsLong(resized[i]), i);
+    items = resized;
+    slots = resizedSlots;
+  }
+
+  private static void insert(int[] slots, long id, int position) {
+    int mask = slots.length - 1;
+    int slot = hash(id) & mask;
+    while (slots[slot] != 0) slot = (slot + 1) & mask;
+    slots[slot] = position + 1;
+  }
+
+  /** Spreads the ID so sequential IDs do not cluster. */
+  private static int hash(long id) {
+    long h = id * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+}
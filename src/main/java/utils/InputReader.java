@@ -1,7 +1,7 @@
 package utils;
 
 /** Interface for reading user input with validation. */
-public interface InputReader {
+public interface InputReader extends AutoCloseable {
 
   /** Pauses execution until the user presses Enter. */
   void waitForEnter();
@@ -32,4 +32,8 @@ public interface InputReader {
    * @return the validated string input
    */
   String readString(String prompt);
+
+  /** Releases the underlying input; does nothing by default. */
+  @Override
+  default void close() {}
 }
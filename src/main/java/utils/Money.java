@@ -0,0 +1,121 @@
+package utils;
+
+/**
+ * Fixed-point money arithmetic on {@code long} minor units (cents).
+ *
+ * <p>Amounts are plain primitives, so arithmetic never allocates; every operation is
+ * overflow-checked and throws {@link ArithmeticException} instead of silently wrapping.
+ */
+public final class Money {
+
+  /** Number of minor units (cents) in one major unit. */
+  public static final long CENTS_PER_UNIT = 100;
+
+  /** Largest major-unit magnitude that converts to cents without overflowing a long. */
+  private static final double MAX_UNITS = Long.MAX_VALUE / (double) CENTS_PER_UNIT;
+
+  /** Length of the longest string {@link #format(long)} returns, for sizing amount columns. */
+  public static final int MAX_FORMATTED_LENGTH = format(Long.MIN_VALUE).length();
+
+  private Money() {}
+
+  /**
+   * Converts a major-unit amount to cents, rounding half away from zero.
+   *
+   * @param amount the amount in major units (e.g. dollars)
+   * @return the amount in cents
+   * @throws ArithmeticException if the amount is not finite or does not fit in a long
+   */
+  public static long fromDouble(double amount) {
+    if (!(Math.abs(amount) < MAX_UNITS)) {
+      throw new ArithmeticException("Amount out of range: " + amount);
+    }
+    double scaled = amount * CENTS_PER_UNIT;
+    return (long) (scaled < 0 ? scaled - 0.5 : scaled + 0.5);
+  }
+
+  /**
+   * Parses a plain decimal amount such as {@code 12}, {@code -3.5} or {@code 1250.05} exactly,
+   * without going through a double.
+   *
+   * @param text the amount in major units with at most two fraction digits
+   * @return the amount in cents
+   * @throws NumberFormatException if the text is not such a decimal
+   * @throws ArithmeticException if the amount does not fit in a long
+   */
+  public static long parse(CharSequence text) {
+    int length = text.length();
+    int i = 0;
+    boolean negative = length > 0 && text.charAt(0) == '-';
+    if (negative || (length > 0 && text.charAt(0) == '+')) i++;
+
+    long units = 0;
+    int digits = 0;
+    for (; i < length && text.charAt(i) != '.'; i++, digits++) {
+      units = Math.addExact(Math.multiplyExact(units, 10), digit(text, i));
+    }
+    long fraction = 0;
+    int fractionDigits = 0;
+    if (i < length) {
+      for (i++; i < length; i++, fractionDigits++) {
+        if (fractionDigits == 2) throw new NumberFormatException("Too many decimals: " + text);
+        fraction = fraction * 10 + digit(text, i);
+      }
+      if (fractionDigits == 1) fraction *= 10;
+    }
+    if (digits + fractionDigits == 0) throw new NumberFormatException("Not an amount: " + text);
+
+    long cents = Math.addExact(Math.multiplyExact(units, CENTS_PER_UNIT), fraction);
+    return negative ? -cents : cents;
+  }
+
+  private static int digit(CharSequence text, int index) {
+    char c = text.charAt(index);
+    if (c < '0' || c > '9') throw new NumberFormatException("Not an amount: " + text);
+    return c - '0';
+  }
+
+  /** Converts cents to a major-unit double for display and the legacy double-based API. */
+  public static double toDouble(long cents) {
+    return cents / (double) CENTS_PER_UNIT;
+  }
+
+  public static long add(long a, long b) {
+    return Math.addExact(a, b);
+  }
+
+  public static long subtract(long a, long b) {
+    return Math.subtractExact(a, b);
+  }
+
+  /** Returns true if {@code a + b} does not fit in a long; for checks that must not throw. */
+  public static boolean addOverflows(long a, long b) {
+    long sum = a + b;
+    return ((a ^ sum) & (b ^ sum)) < 0;
+  }
+
+  /** Returns true if {@code a - b} does not fit in a long; for checks that must not throw. */
+  public static boolean subtractOverflows(long a, long b) {
+    long difference = a - b;
+    return ((a ^ b) & (a ^ difference)) < 0;
+  }
+
+  public static long negate(long cents) {
+    return Math.negateExact(cents);
+  }
+
+  /** Formats cents as a plain decimal with two fraction digits, e.g. {@code -12.05}. */
+  public static String format(long cents) {
+    return appendTo(new StringBuilder(24), cents).toString();
+  }
+
+  /** Appends cents as a plain decimal with two fraction digits without going through a format. */
+  public static StringBuilder appendTo(StringBuilder sb, long cents) {
+    long units = cents / CENTS_PER_UNIT;
+    long fraction = Math.abs(cents % CENTS_PER_UNIT);
+    if (cents < 0 && units == 0) sb.append('-');
+    sb.append(units).append('.');
+    if (fraction < 10) sb.append('0');
+    return sb.append(fraction);
+  }
+}
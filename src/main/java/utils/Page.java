@@ -0,0 +1,34 @@
+package utils;
+
+import java.util.List;
+
+/**
+ * One page of records read from an append-only collection.
+ *
+ * <p>Cursors are absolute append positions: {@link #FIRST} is the oldest record and {@code
+ * nextCursor} is the position just after this page. Because records are only ever appended, a
+ * cursor keeps pointing at the same record however much is added after it was issued.
+ *
+ * @param items the records on this page, oldest first
+ * @param nextCursor the cursor of the record following this page
+ * @param hasMore whether more records existed after this page when it was read
+ * @param <T> the record type
+ */
+public record Page<T>(List<T> items, long nextCursor, boolean hasMore) {
+
+  /** Cursor of the first record. */
+  public static final long FIRST = 0;
+
+  /**
+   * Checks a page request against the current number of records.
+   *
+   * @throws IllegalArgumentException if the cursor is outside {@code [0, size]} or the page size is
+   *     not positive
+   */
+  public static void checkRequest(long cursor, int pageSize, long size) {
+    if (cursor < 0 || cursor > size) {
+      throw new IllegalArgumentException("Cursor " + cursor + " is outside 0.." + size);
+    }
+    if (pageSize < 1) throw new IllegalArgumentException("Page size must be positive");
+  }
+}
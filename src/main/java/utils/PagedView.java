@@ -0,0 +1,45 @@
+package utils;
+
+import java.util.function.LongConsumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Console browsing loop shared by the "view all" menus. Only the requested page is read and
+ * printed, so jumping to page N costs the same however large the collection is.
+ */
+public final class PagedView {
+
+  /** Number of rows shown per page in the console menus. */
+  public static final int PAGE_SIZE = 20;
+
+  private PagedView() {}
+
+  /**
+   * Shows the first page, then lets the operator jump to any page until they enter 0. A single page
+   * is shown followed by the usual pause.
+   *
+   * @param size the current number of records; re-read before every prompt, as records may be
+   *     appended while browsing
+   * @param showPage prints the page starting at the given cursor
+   * @param inputReader reads the page numbers
+   */
+  public static void browse(LongSupplier size, LongConsumer showPage, InputReader inputReader) {
+    long cursor = Page.FIRST;
+    while (true) {
+      showPage.accept(cursor);
+      long pages = Math.max(1, (size.getAsLong() + PAGE_SIZE - 1) / PAGE_SIZE);
+      if (pages == 1) {
+        inputReader.waitForEnter();
+        return;
+      }
+
+      int current = (int) (cursor / PAGE_SIZE) + 1;
+      int last = (int) Math.min(pages, Integer.MAX_VALUE);
+      int page =
+          inputReader.readInt(
+              "Page " + current + " of " + last + ". Enter a page number (0 to return): ", 0, last);
+      if (page == 0) return;
+      cursor = (long) (page - 1) * PAGE_SIZE;
+    }
+  }
+}
@@ -0,0 +1,214 @@
+package utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Table printer that streams rows from an iterator instead of needing the whole table in memory.
+ *
+ * <p>Column widths come from the headers plus a bounded sample of the first rows, or from widths
+ * declared by the caller; cells wider than their column are truncated so later rows cannot break
+ * the layout. Cells are padded by copying from a shared run of spaces and everything is written
+ * through one large buffer, flushed once per table or page. Memory use is independent of the number
+ * of rows.
+ *
+ * <p>The output looks the same as {@link ConsoleTablePrinter}'s.
+ */
+public class StreamingTablePrinter implements TablePrinter {
+
+  /** Number of leading rows inspected to size columns when no widths are declared. */
+  public static final int DEFAULT_SAMPLE_ROWS = 256;
+
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final String NO_DATA = "No data available.";
+  private static final char[] SPACES = " ".repeat(256).toCharArray();
+  private static final char[] DASHES = "-".repeat(256).toCharArray();
+
+  private final Writer target;
+  private final int sampleRows;
+
+  /** Creates a printer writing to whatever {@code System.out} is at the time of each call. */
+  public StreamingTablePrinter() {
+    this(null, DEFAULT_SAMPLE_ROWS);
+  }
+
+  /**
+   * Creates a printer writing to the given writer, which is flushed but never closed.
+   *
+   * @param target where tables are written
+   * @param sampleRows how many leading rows to inspect when sizing columns
+   */
+  public StreamingTablePrinter(Writer target, int sampleRows) {
+    if (sampleRows < 0) throw new IllegalArgumentException("Sample size must not be negative");
+    this.target = target;
+    this.sampleRows = sampleRows;
+  }
+
+  /** Prints an in-memory table, sizing the columns from every row. */
+  @Override
+  public void printTable(String[] headers, String[][] data) {
+    if (headers == null || headers.length == 0) return;
+    String[][] rows = data == null ? new String[0][] : data;
+    int[] widths = headerWidths(headers);
+    for (String[] row : rows) widen(widths, row);
+    printTable(headers, widths, Arrays.asList(rows).iterator());
+  }
+
+  /**
+   * Prints every row from the iterator, sizing the columns from a bounded sample of leading rows.
+   *
+   * @param headers the column headers
+   * @param rows the rows to print, consumed as they are written
+   * @return the number of rows printed
+   */
+  public long printTable(String[] headers, Iterator<String[]> rows) {
+    return printPage(headers, rows, Long.MAX_VALUE);
+  }
+
+  /**
+   * Prints every row from the iterator using the declared column widths; nothing is buffered.
+   *
+   * @param headers the column headers
+   * @param widths the width of each column, at least the header width is used
+   * @param rows the rows to print, consumed as they are written
+   * @return the number of rows printed
+   */
+  public long printTable(String[] headers, int[] widths, Iterator<String[]> rows) {
+    if (headers == null || headers.length == 0) return 0;
+    int[] columnWidths = headerWidths(headers);
+    for (int i = 0; i < columnWidths.length && i < widths.length; i++) {
+      columnWidths[i] = Math.max(columnWidths[i], widths[i]);
+    }
+    return write(headers, columnWidths, List.of(), rows, Long.MAX_VALUE);
+  }
+
+  /**
+   * Prints at most {@code pageSize} rows from the iterator as one complete table. Calling it again
+   * with the same iterator prints the next page.
+   *
+   * @param headers the column headers
+   * @param rows the rows to print, consumed as they are written
+   * @param pageSize the maximum number of rows to print
+   * @return the number of rows printed
+   */
+  public long printPage(String[] headers, Iterator<String[]> rows, long pageSize) {
+    if (headers == null || headers.length == 0) return 0;
+    int[] widths = headerWidths(headers);
+    List<String[]> sample = new ArrayList<>();
+    while (sample.size() < sampleRows && sample.size() < pageSize && rows.hasNext()) {
+      String[] row = rows.next();
+      widen(widths, row);
+      sample.add(row);
+    }
+    return write(headers, widths, sample, rows, pageSize);
+  }
+
+  // ==================== RENDERING ====================
+
+  private long write(
+      String[] headers, int[] widths, List<String[]> sample, Iterator<String[]> rows, long limit) {
+    boolean empty = sample.isEmpty() && (limit == 0 || !rows.hasNext());
+    if (empty) fitNoDataMessage(widths);
+
+    Writer out = openWriter();
+    try {
+      writeBorder(out, widths);
+      writeRow(out, headers, widths);
+      writeBorder(out, widths);
+
+      long printed = 0;
+      for (String[] row : sample) {
+        writeRow(out, row, widths);
+        printed++;
+      }
+      while (printed < limit && rows.hasNext()) {
+        writeRow(out, rows.next(), widths);
+        printed++;
+      }
+      if (empty) writeNoData(out, widths);
+
+      writeBorder(out, widths);
+      out.flush();
+      return printed;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private Writer openWriter() {
+    if (target == null) return new BufferedWriter(new OutputStreamWriter(System.out), BUFFER_SIZE);
+    return target instanceof BufferedWriter ? target : new BufferedWriter(target, BUFFER_SIZE);
+  }
+
+  private static void writeBorder(Writer out, int[] widths) throws IOException {
+    for (int width : widths) {
+      out.write('+');
+      repeat(out, DASHES, width + 2);
+    }
+    out.write('+');
+    out.write(System.lineSeparator());
+  }
+
+  private static void writeRow(Writer out, String[] row, int[] widths) throws IOException {
+    for (int i = 0; i < widths.length; i++) {
+      String cell = row != null && i < row.length && row[i] != null ? row[i] : "";
+      int length = Math.min(cell.length(), widths[i]);
+      out.write("| ");
+      out.write(cell, 0, length);
+      repeat(out, SPACES, widths[i] - length + 1);
+    }
+    out.write('|');
+    out.write(System.lineSeparator());
+  }
+
+  /** Widens the last column so the "no data" message fits inside the table's borders. */
+  private static void fitNoDataMessage(int[] widths) {
+    int missing = NO_DATA.length() + 2 - innerWidth(widths);
+    if (missing > 0) widths[widths.length - 1] += missing;
+  }
+
+  private static void writeNoData(Writer out, int[] widths) throws IOException {
+    out.write("| ");
+    out.write(NO_DATA);
+    repeat(out, SPACES, innerWidth(widths) - 1 - NO_DATA.length());
+    out.write('|');
+    out.write(System.lineSeparator());
+  }
+
+  private static void repeat(Writer out, char[] run, int count) throws IOException {
+    while (count > 0) {
+      int n = Math.min(count, run.length);
+      out.write(run, 0, n);
+      count -= n;
+    }
+  }
+
+  /** Returns the number of characters between the outer borders of a row. */
+  private static int innerWidth(int[] widths) {
+    int inner = -1;
+    for (int width : widths) inner += width + 3;
+    return inner;
+  }
+
+  private static int[] headerWidths(String[] headers) {
+    int[] widths = new int[headers.length];
+    for (int i = 0; i < headers.length; i++) {
+      widths[i] = headers[i] == null ? 0 : headers[i].length();
+    }
+    return widths;
+  }
+
+  private static void widen(int[] widths, String[] row) {
+    if (row == null) return;
+    for (int i = 0; i < row.length && i < widths.length; i++) {
+      if (row[i] != null && row[i].length() > widths[i]) widths[i] = row[i].length();
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package accounts;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import customers.Customer;
+import customers.RegularCustomer;
+import exceptions.BankException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Multi-threaded stress tests for account balance invariants under concurrent tellers. */
+class AccountConcurrencyTest {
+
+  private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+  private static final int OPS_PER_THREAD = 20_000;
+
+  private Customer customer;
+  private ExecutorService pool;
+
+  @BeforeEach
+  void setUp() {
+    customer = new RegularCustomer("Stress", 35, "555-0199", "1 Load Ave");
+    pool = Executors.newFixedThreadPool(THREADS);
+  }
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdownNow();
+  }
+
+  @Test
+  void testConcurrentDepositsAndWithdrawalsLoseNoUpdates() throws Exception {
+    CheckingAccount account = new CheckingAccount(customer, 0.0);
+
+    runOnAllThreads(
+        () -> {
+          for (int i = 0; i < OPS_PER_THREAD; i++) {
+            account.processTransaction(3.0, "Deposit");
+            account.processTransaction(1.0, "Withdrawal");
+          }
+        });
+
+    assertEquals(2.0 * THREADS * OPS_PER_THREAD, account.getBalance());
+  }
+
+  @Test
+  void testSavingsMinimumBalanceHoldsUnderContention() throws Exception {
+    SavingsAccount account = new SavingsAccount(customer, 10_500.0);
+    AtomicInteger accepted = new AtomicInteger();
+
+    runOnAllThreads(
+        () -> {
+          for (int i = 0; i < OPS_PER_THREAD; i++) {
+            try {
+              account.processTransaction(1.0, "Withdrawal");
+              accepted.incrementAndGet();
+            } catch (BankException expected) {
+              // rejected: minimum balance reached
+            }
+          }
+        });
+
+    assertEquals(500.0, account.getBalance());
+    assertEquals(10_000, accepted.get());
+  }
+
+  @Test
+  void testCheckingOverdraftLimitHoldsUnderContention() throws Exception {
+    CheckingAccount account = new CheckingAccount(customer, 0.0);
+    AtomicInteger accepted = new AtomicInteger();
+
+    runOnAllThreads(
+        () -> {
+          for (int i = 0; i < OPS_PER_THREAD; i++) {
+            try {
+              account.processTransaction(1.0, "Withdrawal");
+              accepted.incrementAndGet();
+            } catch (BankException expected) {
+              // rejected: overdraft limit reached
+            }
+          }
+        });
+
+    assertEquals(-account.getOverdraftLimit(), account.getBalance());
+    assertEquals((int) account.getOverdraftLimit(), accepted.get());
+  }
+
+  @Test
+  void testDistinctAccountsKeepIndependentBalances() throws Exception {
+    CheckingAccount[] accounts = new CheckingAccount[THREADS];
+    for (int i = 0; i < THREADS; i++) accounts[i] = new CheckingAccount(customer, 0.0);
+    int[] accepted = new int[THREADS];
+
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int w = 0; w < THREADS; w++) {
+      int worker = w;
+      futures.add(
+          pool.submit(
+              () -> {
+                start.await();
+                CheckingAccount account = accounts[worker];
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                  account.processTransaction(worker + 1.0, "Deposit");
+                  accepted[worker]++;
+                  if (i % 2 == 0) {
+                    account.processTransaction(1.0, "Withdrawal");
+                    accepted[worker]++;
+                  }
+                }
+                return null;
+              }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+
+    for (int w = 0; w < THREADS; w++) {
+      assertEquals(OPS_PER_THREAD + OPS_PER_THREAD / 2, accepted[w]);
+      assertEquals((w + 1.0) * OPS_PER_THREAD - OPS_PER_THREAD / 2, accounts[w].getBalance());
+    }
+  }
+
+  private void runOnAllThreads(ThrowingTask task) throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      futures.add(
+          pool.submit(
+              () -> {
+                start.await();
+                task.run();
+                return null;
+              }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+  }
+
+  @FunctionalInterface
+  private interface ThrowingTask {
+    void run() throws Exception;
+  }
+}
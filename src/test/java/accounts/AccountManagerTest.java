@@ -5,10 +5,12 @@ import static org.junit.jupiter.api.Assertions.*;
 import customers.Customer;
 import customers.RegularCustomer;
 import exceptions.AccountNotFoundException;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import utils.Page;
 
-/** Unit tests for AccountManager including add, find, and total balance operations. */
+/** Unit tests for AccountManager including add, find, paging, and total balance operations. */
 class AccountManagerTest {
 
   private AccountManager accountManager;
@@ -40,10 +42,58 @@ class AccountManagerTest {
     assertThrows(AccountNotFoundException.class, () -> accountManager.findAccount("NON_EXISTENT"));
   }
 
+  @Test
+  void testAddAccountBeyondInitialCapacity() throws AccountNotFoundException {
+    Account[] added = new Account[1_000];
+    for (int i = 0; i < added.length; i++) {
+      added[i] = new SavingsAccount(customer, 600.0);
+      accountManager.addAccount(added[i]);
+    }
+
+    assertEquals(1_000, accountManager.getAccountCount());
+    for (Account account : added) {
+      assertSame(account, accountManager.findAccount(account.getAccountNumber()));
+    }
+  }
+
+  @Test
+  void testTryFindAccountReturnsNullForUnknownNumbers() {
+    Account account = new CheckingAccount(customer, 500.0);
+    accountManager.addAccount(account);
+
+    assertSame(account, accountManager.tryFindAccount(account.getAccountNumber()));
+    assertNull(accountManager.tryFindAccount("ACC999999999"));
+    assertNull(accountManager.tryFindAccount("NON_EXISTENT"));
+    assertNull(accountManager.tryFindAccount(null));
+  }
+
+  @Test
+  void testFindAccountNullNumber() {
+    assertThrows(AccountNotFoundException.class, () -> accountManager.findAccount(null));
+  }
+
   @Test
   void testGetTotalBalance() {
     accountManager.addAccount(new CheckingAccount(customer, 100.0));
     accountManager.addAccount(new SavingsAccount(customer, 200.0));
     assertEquals(300.0, accountManager.getTotalBalance());
   }
+
+  @Test
+  void testAccountsPageCursorIsStableWhileAccountsAreAdded() {
+    Account[] added = new Account[5];
+    for (int i = 0; i < added.length; i++) {
+      added[i] = new CheckingAccount(customer, 100.0);
+      accountManager.addAccount(added[i]);
+    }
+
+    Page<Account> first = accountManager.getAccountsPage(Page.FIRST, 2);
+    accountManager.addAccount(new SavingsAccount(customer, 600.0));
+    Page<Account> second = accountManager.getAccountsPage(first.nextCursor(), 2);
+
+    assertEquals(List.of(added[0], added[1]), first.items());
+    assertEquals(List.of(added[2], added[3]), second.items());
+    assertTrue(second.hasMore());
+    assertThrows(IllegalArgumentException.class, () -> accountManager.getAccountsPage(7, 2));
+  }
 }
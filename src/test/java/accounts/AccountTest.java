@@ -5,9 +5,12 @@ import static org.junit.jupiter.api.Assertions.*;
 import customers.Customer;
 import customers.RegularCustomer;
 import exceptions.BankException;
+import exceptions.InsufficientFundsException;
 import exceptions.InvalidAmountException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import transactions.TransactionStatus;
+import transactions.TransactionType;
 
 /** Unit tests for the abstract Account class using a concrete test implementation. */
 class AccountTest {
@@ -59,6 +62,13 @@ class AccountTest {
     assertEquals(100.0, account.getBalance());
   }
 
+  @Test
+  void testRepeatedFractionalDepositsStayExact() {
+    for (int i = 0; i < 10; i++) account.deposit(0.1);
+    assertEquals(100, account.getBalanceCents());
+    assertEquals(1.0, account.getBalance());
+  }
+
   @Test
   void testWithdraw() {
     account.deposit(100.0);
@@ -89,6 +99,39 @@ class AccountTest {
     assertThrows(BankException.class, () -> account.processTransaction(100.0, "Invalid"));
   }
 
+  @Test
+  void testFeeIsChargedOnlyWithinTheBalance() throws BankException {
+    account.setBalanceCents(1_000);
+    account.processTransaction(2.50, TransactionType.FEE);
+    assertEquals(750, account.getBalanceCents());
+
+    assertEquals(TransactionStatus.INSUFFICIENT_FUNDS, account.tryProcessCents(751, "Fee"));
+    assertThrows(
+        InsufficientFundsException.class,
+        () -> account.processTransactionCents(751, TransactionType.FEE));
+    assertEquals(750, account.getBalanceCents());
+  }
+
+  @Test
+  void testReversalAppliesItsSignedAmountUnderTheAccountRules() throws BankException {
+    account.processTransactionCents(400, TransactionType.REVERSAL);
+    assertEquals(400, account.getBalanceCents());
+    assertEquals(TransactionStatus.INVALID_AMOUNT, account.tryProcessCents(-1_000, "REVERSAL"));
+    assertEquals(400, account.getBalanceCents());
+    account.processTransactionCents(-300, TransactionType.REVERSAL);
+    assertEquals(100, account.getBalanceCents());
+    assertEquals(TransactionStatus.INVALID_AMOUNT, account.tryProcessCents(0, "REVERSAL"));
+  }
+
+  @Test
+  void testTransferKindsArePostedByTransfersOnly() {
+    assertEquals(
+        TransactionStatus.INVALID_TYPE, account.tryProcessCents(100, TransactionType.TRANSFER_IN));
+    assertThrows(
+        BankException.class, () -> account.processTransaction(1.0, TransactionType.TRANSFER_OUT));
+    assertEquals(0, account.getBalanceCents());
+  }
+
   @Test
   void testValidateDepositNegativeAmount() {
     assertThrows(InvalidAmountException.class, () -> account.validateDeposit(-10.0));
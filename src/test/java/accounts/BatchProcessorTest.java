@@ -0,0 +1,132 @@
+package accounts;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import customers.Customer;
+import customers.RegularCustomer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import transactions.Transaction;
+import transactions.TransactionManager;
+import transactions.TransactionStatus;
+
+/** Unit tests for BatchProcessor including grouping, ordering, and per-item status codes. */
+class BatchProcessorTest {
+
+  private AccountManager accountManager;
+  private TransactionManager transactionManager;
+  private BatchProcessor batchProcessor;
+  private Account savings;
+  private Account checking;
+
+  @BeforeEach
+  void setUp() {
+    accountManager = new AccountManager();
+    transactionManager = new TransactionManager();
+    batchProcessor = new BatchProcessor(accountManager, transactionManager);
+
+    Customer customer = new RegularCustomer("Eve", 41, "555-0142", "9 Feed Rd");
+    savings = new SavingsAccount(customer, 1_000.0);
+    checking = new CheckingAccount(customer, 0.0);
+    accountManager.addAccount(savings);
+    accountManager.addAccount(checking);
+  }
+
+  @Test
+  void testProcessBatchReturnsStatusPerItemInInputOrder() {
+    String s = savings.getAccountNumber();
+    String c = checking.getAccountNumber();
+
+    byte[] results =
+        batchProcessor.processBatch(
+            new String[] {s, c, "ACC_MISSING", s, c, s, c},
+            new String[] {
+              "Withdrawal", "DEPOSIT", "Deposit", "withdrawal", "Transfer", "Deposit", "Deposit"
+            },
+            new long[] {400_00, 50_00, 1_00, 200_00, 1_00, -5, 25_00});
+
+    assertArrayEquals(
+        new byte[] {
+          TransactionStatus.OK,
+          TransactionStatus.OK,
+          TransactionStatus.ACCOUNT_NOT_FOUND,
+          TransactionStatus.INSUFFICIENT_FUNDS,
+          TransactionStatus.INVALID_TYPE,
+          TransactionStatus.INVALID_AMOUNT,
+          TransactionStatus.OK
+        },
+        results);
+    assertEquals(600_00, savings.getBalanceCents());
+    assertEquals(75_00, checking.getBalanceCents());
+    assertEquals(3, transactionManager.getTransactionCount());
+  }
+
+  @Test
+  void testItemsForOneAccountApplyInInputOrder() {
+    String c = checking.getAccountNumber();
+
+    byte[] results =
+        batchProcessor.processBatch(
+            new String[] {c, c, c},
+            new String[] {"Deposit", "Withdrawal", "Withdrawal"},
+            new long[] {100_00, 1_050_00, 100_00});
+
+    assertArrayEquals(
+        new byte[] {
+          TransactionStatus.OK, TransactionStatus.OK, TransactionStatus.INSUFFICIENT_FUNDS
+        },
+        results);
+    Transaction[] history = transactionManager.getTransactionsForAccount(c);
+    assertEquals(-950_00, history[0].getBalanceAfterCents());
+    assertEquals(100_00, history[1].getBalanceAfterCents());
+  }
+
+  @Test
+  void testReversalsAndTransferLegsAreRejected() {
+    String s = savings.getAccountNumber();
+
+    byte[] results =
+        batchProcessor.processBatch(
+            new String[] {s, s, s, s},
+            new String[] {"Reversal", "TRANSFER_IN", "Transfer_Out", "Fee"},
+            new long[] {-100_00, 50_00, 50_00, 5_00});
+
+    assertArrayEquals(
+        new byte[] {
+          TransactionStatus.INVALID_TYPE,
+          TransactionStatus.INVALID_TYPE,
+          TransactionStatus.INVALID_TYPE,
+          TransactionStatus.OK
+        },
+        results);
+    assertEquals(995_00, savings.getBalanceCents());
+    assertEquals(1, transactionManager.getTransactionCount());
+  }
+
+  @Test
+  void testItemThatCannotBeRecordedKeepsItsBalance() {
+    String c = checking.getAccountNumber();
+    transactionManager.setTransactionLog(
+        transaction -> {
+          throw new UncheckedIOException(new IOException("disk full"));
+        });
+
+    byte[] results =
+        batchProcessor.processBatch(
+            new String[] {c, c}, new String[] {"Deposit", "Withdrawal"}, new long[] {80_00, 5_00});
+
+    assertArrayEquals(
+        new byte[] {TransactionStatus.NOT_RECORDED, TransactionStatus.NOT_RECORDED}, results);
+    assertEquals(0, checking.getBalanceCents());
+    assertEquals(0, transactionManager.getTransactionCount());
+  }
+
+  @Test
+  void testMismatchedArraysAreRejected() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> batchProcessor.processBatch(new String[1], new String[2], new long[1]));
+  }
+}
@@ -3,8 +3,10 @@ package accounts;
 import static org.junit.jupiter.api.Assertions.*;
 
 import customers.Customer;
+import customers.PremiumCustomer;
 import customers.RegularCustomer;
 import exceptions.InsufficientFundsException;
+import exceptions.InvalidAmountException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -34,6 +36,15 @@ class CheckingAccountTest {
     assertEquals(90.0, checkingAccount.getBalance());
   }
 
+  @Test
+  void testApplyMonthlyFeeWaivedForPremiumCustomer() {
+    CheckingAccount premium =
+        new CheckingAccount(new PremiumCustomer("Pat", 50, "555-0150", "1 Hill Rd"), 20000.0);
+    assertTrue(premium.hasWaivedFees());
+    assertEquals(0, premium.applyMonthlyFee());
+    assertEquals(20000.0, premium.getBalance());
+  }
+
   @Test
   void testApplyMonthlyFeeInsufficientBalance() {
     // Fee is 10. Set balance to 5.
@@ -76,4 +87,13 @@ class CheckingAccountTest {
         InsufficientFundsException.class,
         () -> checkingAccount.processTransaction(1200.0, "Withdrawal"));
   }
+
+  @Test
+  void testWithdrawalBeyondTheBalanceRangeIsAnInvalidAmount() {
+    checkingAccount.setBalanceCents(Long.MIN_VALUE + 1_00);
+    assertThrows(
+        InvalidAmountException.class,
+        () -> checkingAccount.processTransactionCents(Long.MAX_VALUE, "Withdrawal"));
+    assertEquals(Long.MIN_VALUE + 1_00, checkingAccount.getBalanceCents());
+  }
 }
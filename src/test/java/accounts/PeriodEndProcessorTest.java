@@ -0,0 +1,95 @@
+package accounts;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import customers.Customer;
+import customers.PremiumCustomer;
+import customers.RegularCustomer;
+import java.time.YearMonth;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import transactions.TransactionManager;
+
+/** Unit tests for PeriodEndProcessor including fees, waivers, interest, and idempotent reruns. */
+class PeriodEndProcessorTest {
+
+  private static final YearMonth JANUARY = YearMonth.of(2024, 1);
+
+  private AccountManager accountManager;
+  private TransactionManager transactionManager;
+  private PeriodEndProcessor processor;
+
+  @BeforeEach
+  void setUp() {
+    accountManager = new AccountManager();
+    transactionManager = new TransactionManager();
+    processor = new PeriodEndProcessor(accountManager, transactionManager);
+  }
+
+  @Test
+  void testClosePeriodChargesFeesAndPostsInterest() {
+    Customer regular = new RegularCustomer("Gail", 36, "555-0160", "2 Mill Ln");
+    Customer premium = new PremiumCustomer("Hugo", 61, "555-0161", "3 Mill Ln");
+    CheckingAccount charged = new CheckingAccount(regular, 100.0);
+    CheckingAccount waived = new CheckingAccount(premium, 10000.0);
+    SavingsAccount savings = new SavingsAccount(regular, 1200.0);
+    accountManager.addAccount(charged);
+    accountManager.addAccount(waived);
+    accountManager.addAccount(savings);
+
+    PeriodEndProcessor.Result result = processor.closePeriod(JANUARY);
+
+    assertEquals(3, result.accounts());
+    assertEquals(1, result.feesCharged());
+    assertEquals(10_00, result.feeCents());
+    assertEquals(1, result.interestPosted());
+    assertEquals(3_50, result.interestCents());
+    assertEquals(90_00, charged.getBalanceCents());
+    assertEquals(10000_00, waived.getBalanceCents());
+    assertEquals(1203_50, savings.getBalanceCents());
+    assertEquals(2, transactionManager.getTransactionCount());
+    assertEquals(
+        "FEE",
+        transactionManager.getTransactionsForAccount(charged.getAccountNumber())[0].getType());
+    assertEquals(PeriodEndProcessor.periodIndex(JANUARY), waived.getLastClosedPeriod());
+  }
+
+  @Test
+  void testRerunOfClosedPeriodIsSkipped() {
+    CheckingAccount account =
+        new CheckingAccount(new RegularCustomer("Ivy", 29, "555-0162", "4 Mill Ln"), 100.0);
+    accountManager.addAccount(account);
+
+    processor.closePeriod(JANUARY);
+    PeriodEndProcessor.Result rerun = processor.closePeriod(JANUARY);
+    PeriodEndProcessor.Result february = processor.closePeriod(JANUARY.plusMonths(1));
+
+    assertEquals(1, rerun.skipped());
+    assertEquals(0, rerun.feesCharged());
+    assertEquals(1, february.feesCharged());
+    assertEquals(80_00, account.getBalanceCents());
+    assertEquals(2, transactionManager.getTransactionCount());
+  }
+
+  @Test
+  void testParallelSweepMatchesAccountCount() {
+    Customer customer = new RegularCustomer("Jon", 44, "555-0163", "5 Mill Ln");
+    int count = 10_000;
+    for (int i = 0; i < count; i++) accountManager.addAccount(new CheckingAccount(customer, 50.0));
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      PeriodEndProcessor.Result result =
+          new PeriodEndProcessor(accountManager, transactionManager, pool).closePeriod(JANUARY);
+
+      assertEquals(count, result.feesCharged());
+      assertEquals(count * 10_00L, result.feeCents());
+      assertEquals(count, transactionManager.getTransactionCount());
+      assertEquals(count * 40_00L, accountManager.getTotalBalanceCents());
+      assertTrue(transactionManager.verifyAggregates().isEmpty());
+    } finally {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package accounts;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import customers.Customer;
+import customers.RegularCustomer;
+import exceptions.BankException;
+import exceptions.InsufficientFundsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import transactions.Transaction;
+import transactions.TransactionManager;
+import transactions.TransactionType;
+
+/** Unit tests for ReversalProcessor including the reversal link, repeats, and account rules. */
+class ReversalProcessorTest {
+
+  private Customer customer;
+  private AccountManager accountManager;
+  private TransactionManager transactionManager;
+  private ReversalProcessor processor;
+
+  @BeforeEach
+  void setUp() {
+    customer = new RegularCustomer("Reversal", 52, "555-0190", "4 Mill Ln");
+    accountManager = new AccountManager();
+    transactionManager = new TransactionManager();
+    processor = new ReversalProcessor(accountManager, transactionManager);
+  }
+
+  /** Posts a transaction the way the command processor does and returns it. */
+  private Transaction post(Account account, TransactionType type, long amountCents)
+      throws BankException {
+    account.processTransactionCents(amountCents, type);
+    Transaction transaction =
+        Transaction.ofCents(
+            account.getAccountNumber(), type, amountCents, account.getBalanceCents());
+    transactionManager.addTransaction(transaction);
+    return transaction;
+  }
+
+  @Test
+  void testReversalUndoesTheOriginalOnceAndRecordsTheLink() throws BankException {
+    CheckingAccount checking = new CheckingAccount(customer, 100.0);
+    accountManager.addAccount(checking);
+    Transaction fee = post(checking, TransactionType.FEE, 2_50);
+
+    Transaction reversal = processor.reverse(checking.getAccountNumber(), fee.getTransactionId());
+
+    assertEquals(TransactionType.REVERSAL, reversal.getTransactionType());
+    assertEquals(2_50, reversal.getAmountCents());
+    assertEquals(fee.getId(), reversal.getReversedId());
+    assertEquals(100_00, checking.getBalanceCents());
+    assertTrue(transactionManager.isReversed(fee));
+    BankException repeat =
+        assertThrows(
+            BankException.class,
+            () -> processor.reverse(checking.getAccountNumber(), fee.getTransactionId()));
+    assertTrue(repeat.getMessage().contains("already reversed"), repeat.getMessage());
+    assertEquals(100_00, checking.getBalanceCents());
+    assertEquals(2, transactionManager.getTransactionCount());
+  }
+
+  @Test
+  void testReversingADepositRespectsTheSavingsMinimum() throws BankException {
+    SavingsAccount savings = new SavingsAccount(customer, 600.0);
+    accountManager.addAccount(savings);
+    Transaction deposit = post(savings, TransactionType.DEPOSIT, 50_00);
+    post(savings, TransactionType.WITHDRAWAL, 140_00);
+
+    assertThrows(
+        InsufficientFundsException.class,
+        () -> processor.reverse(savings.getAccountNumber(), deposit.getTransactionId()));
+    assertEquals(510_00, savings.getBalanceCents());
+    assertFalse(transactionManager.isReversed(deposit));
+    assertEquals(2, transactionManager.getTransactionCount());
+  }
+
+  @Test
+  void testTransfersAndUnknownTransactionsAreRefused() throws BankException {
+    SavingsAccount savings = new SavingsAccount(customer, 600.0);
+    CheckingAccount checking = new CheckingAccount(customer, 100.0);
+    accountManager.addAccount(savings);
+    accountManager.addAccount(checking);
+    Transaction transferIn =
+        new TransferProcessor(accountManager, transactionManager)
+            .transfer(savings, checking, 10_00)
+            .credit();
+
+    assertThrows(
+        BankException.class,
+        () -> processor.reverse(checking.getAccountNumber(), transferIn.getTransactionId()));
+    assertThrows(
+        BankException.class, () -> processor.reverse(checking.getAccountNumber(), "TXN_MISSING"));
+    assertEquals(110_00, checking.getBalanceCents());
+    assertEquals(2, transactionManager.getTransactionCount());
+  }
+}
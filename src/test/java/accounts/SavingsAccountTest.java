@@ -5,8 +5,11 @@ import static org.junit.jupiter.api.Assertions.*;
 import customers.Customer;
 import customers.RegularCustomer;
 import exceptions.InsufficientFundsException;
+import exceptions.InvalidAmountException;
+import java.lang.management.ManagementFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import transactions.TransactionStatus;
 
 /** Unit tests for SavingsAccount including interest and minimum balance behavior. */
 class SavingsAccountTest {
@@ -34,6 +37,13 @@ class SavingsAccountTest {
     assertEquals(3500.0, savingsAccount.calculateInterest());
   }
 
+  @Test
+  void testApplyMonthlyInterest() {
+    // 1000.00 * 3.5% / 12 = 2.9166.. rounds to 2.92.
+    assertEquals(2_92, savingsAccount.applyMonthlyInterest());
+    assertEquals(1002.92, savingsAccount.getBalance());
+  }
+
   @Test
   void testWithdrawSuccess() {
     // Min balance 500. Balance 1000. Can withdraw 500.
@@ -60,4 +70,56 @@ class SavingsAccountTest {
         InsufficientFundsException.class,
         () -> savingsAccount.processTransaction(600.0, "Withdrawal"));
   }
+
+  @Test
+  void testTryProcessReportsStatusCodes() {
+    assertEquals(TransactionStatus.OK, savingsAccount.tryProcessCents(100_00, "withdrawal"));
+    assertEquals(
+        TransactionStatus.INSUFFICIENT_FUNDS, savingsAccount.tryProcessCents(400_01, "Withdrawal"));
+    assertEquals(TransactionStatus.INVALID_AMOUNT, savingsAccount.tryProcessCents(-5, "Deposit"));
+    assertEquals(TransactionStatus.INVALID_TYPE, savingsAccount.tryProcessCents(1_00, "Refund"));
+    assertEquals(
+        TransactionStatus.AMOUNT_OUT_OF_RANGE,
+        savingsAccount.tryProcessCents(Long.MAX_VALUE, "Deposit"));
+    assertEquals(
+        TransactionStatus.AMOUNT_OUT_OF_RANGE,
+        savingsAccount.tryProcessCents(Long.MIN_VALUE, "Withdrawal"));
+    assertEquals(900_00, savingsAccount.getBalanceCents());
+  }
+
+  @Test
+  void testWithdrawalBeyondTheBalanceRangeIsAnInvalidAmount() {
+    savingsAccount.setBalanceCents(Long.MIN_VALUE + 1_00);
+    assertThrows(
+        InvalidAmountException.class,
+        () -> savingsAccount.processTransactionCents(2_00, "Withdrawal"));
+    assertEquals(Long.MIN_VALUE + 1_00, savingsAccount.getBalanceCents());
+  }
+
+  @Test
+  void testThrowingWrapperKeepsDetailedMessages() {
+    InsufficientFundsException refused =
+        assertThrows(
+            InsufficientFundsException.class,
+            () -> savingsAccount.processTransactionCents(600_00, "Withdrawal"));
+    assertTrue(refused.getMessage().contains("Minimum Required Balance: 500.0"));
+    InvalidAmountException overflow =
+        assertThrows(
+            InvalidAmountException.class,
+            () -> savingsAccount.processTransactionCents(Long.MAX_VALUE, "Deposit"));
+    assertEquals("Amount exceeds the supported balance range", overflow.getMessage());
+  }
+
+  @Test
+  void testRejectedTryProcessDoesNotAllocate() {
+    var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    for (int i = 0; i < 100_000; i++) savingsAccount.tryProcessCents(600_00, "Withdrawal");
+
+    long thread = Thread.currentThread().getId();
+    long before = threads.getThreadAllocatedBytes(thread);
+    for (int i = 0; i < 100_000; i++) savingsAccount.tryProcessCents(600_00, "Withdrawal");
+    long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+    assertTrue(allocated < 1024, "rejections allocated " + allocated + " bytes");
+  }
 }
@@ -0,0 +1,135 @@
+package accounts;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import customers.Customer;
+import customers.RegularCustomer;
+import exceptions.BankException;
+import exceptions.InsufficientFundsException;
+import exceptions.InvalidAmountException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import transactions.Transaction;
+import transactions.TransactionManager;
+import transactions.TransactionType;
+
+/** Unit tests for TransferProcessor including paired records, refusals, and a transfer storm. */
+class TransferProcessorTest {
+
+  private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+  private static final int TRANSFERS_PER_THREAD = 20_000;
+  private static final int STORM_ACCOUNTS = 64;
+
+  private Customer customer;
+  private AccountManager accountManager;
+  private TransactionManager transactionManager;
+  private TransferProcessor processor;
+
+  @BeforeEach
+  void setUp() {
+    customer = new RegularCustomer("Transfer", 44, "555-0177", "3 Bridge St");
+    accountManager = new AccountManager();
+    transactionManager = new TransactionManager();
+    processor = new TransferProcessor(accountManager, transactionManager);
+  }
+
+  @Test
+  void testTransferMovesMoneyAndRecordsBothLegs() throws BankException {
+    SavingsAccount savings = new SavingsAccount(customer, 1_000.0);
+    CheckingAccount checking = new CheckingAccount(customer, 50.0);
+    accountManager.addAccount(savings);
+    accountManager.addAccount(checking);
+
+    TransferProcessor.Transfer transfer =
+        processor.transfer(savings.getAccountNumber(), checking.getAccountNumber(), 250_00);
+
+    assertEquals(750_00, savings.getBalanceCents());
+    assertEquals(300_00, checking.getBalanceCents());
+    Transaction debit = transfer.debit();
+    Transaction credit = transfer.credit();
+    assertEquals(savings.getAccountNumber(), debit.getAccountNumber());
+    assertEquals(TransactionType.TRANSFER_OUT, debit.getTransactionType());
+    assertEquals(750_00, debit.getBalanceAfterCents());
+    assertEquals(checking.getAccountNumber(), credit.getAccountNumber());
+    assertEquals(TransactionType.TRANSFER_IN, credit.getTransactionType());
+    assertEquals(300_00, credit.getBalanceAfterCents());
+    assertEquals(250_00, credit.getAmountCents());
+    assertEquals(2, transactionManager.getTransactionCount());
+  }
+
+  @Test
+  void testRefusedTransfersChangeNothing() {
+    SavingsAccount savings = new SavingsAccount(customer, 600.0);
+    CheckingAccount checking = new CheckingAccount(customer, 0.0);
+
+    assertThrows(
+        InsufficientFundsException.class, () -> processor.transfer(savings, checking, 100_01));
+    assertThrows(InvalidAmountException.class, () -> processor.transfer(savings, checking, 0));
+    assertThrows(BankException.class, () -> processor.transfer(savings, savings, 1_00));
+    checking.setBalanceCents(Long.MAX_VALUE - 10);
+    assertThrows(InvalidAmountException.class, () -> processor.transfer(savings, checking, 11));
+
+    assertEquals(600_00, savings.getBalanceCents());
+    assertEquals(Long.MAX_VALUE - 10, checking.getBalanceCents());
+    assertEquals(0, transactionManager.getTransactionCount());
+  }
+
+  @Test
+  void testTransferStormConservesTotalBalance() throws Exception {
+    for (int i = 0; i < STORM_ACCOUNTS; i++) {
+      accountManager.addAccount(
+          i % 2 == 0 ? new SavingsAccount(customer, 600.0) : new CheckingAccount(customer, 100.0));
+    }
+    Account[] accounts = accountManager.accountsSnapshot();
+    long total = accountManager.getTotalBalanceCents();
+
+    AtomicLong accepted = new AtomicLong();
+    runStorm(accounts, THREADS, accepted);
+
+    assertEquals(total, accountManager.getTotalBalanceCents());
+    assertEquals(2 * accepted.get(), transactionManager.getTransactionCount());
+    assertEquals(List.of(), transactionManager.verifyAggregates());
+  }
+
+  /** Runs random transfers in both directions between random pairs; fails if any deadlock. */
+  private void runStorm(Account[] accounts, int workers, AtomicLong accepted) throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(workers);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    try {
+      for (int w = 0; w < workers; w++) {
+        futures.add(
+            pool.submit(
+                () -> {
+                  start.await();
+                  ThreadLocalRandom random = ThreadLocalRandom.current();
+                  for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    Account source = accounts[random.nextInt(accounts.length)];
+                    Account target = accounts[random.nextInt(accounts.length)];
+                    if (source == target) continue;
+                    try {
+                      processor.transfer(source, target, random.nextLong(1, 5_000));
+                      accepted.incrementAndGet();
+                    } catch (InsufficientFundsException expected) {
+                      // refused: the source would fall below its limit
+                    }
+                  }
+                  return null;
+                }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) future.get(60, TimeUnit.SECONDS);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+}
@@ -2,10 +2,12 @@ package customers;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import utils.Page;
 
-/** Unit tests for CustomerManager including add, find, and capacity limit operations. */
+/** Unit tests for CustomerManager including add, find, paging, growth, and search indexes. */
 class CustomerManagerTest {
 
   private CustomerManager customerManager;
@@ -39,15 +41,117 @@ class CustomerManagerTest {
   }
 
   @Test
-  void testAddCustomerLimit() {
-    // Assuming limit is 100 based on code reading
-    for (int i = 0; i < 100; i++) {
+  void testAddCustomerBeyondInitialCapacity() {
+    Customer[] added = new Customer[1_000];
+    for (int i = 0; i < added.length; i++) {
+      added[i] = new RegularCustomer("User" + i, 20, "Contact", "Address");
+      customerManager.addCustomer(added[i]);
+    }
+
+    assertEquals(1_000, customerManager.getCustomerCount());
+    for (Customer customer : added) {
+      assertSame(customer, customerManager.findCustomer(customer.getCustomerId()));
+    }
+  }
+
+  @Test
+  void testCustomersPage() {
+    for (int i = 0; i < 3; i++) {
       customerManager.addCustomer(new RegularCustomer("User" + i, 20, "Contact", "Address"));
     }
-    assertEquals(100, customerManager.getCustomerCount());
 
-    // Try adding one more
-    customerManager.addCustomer(new RegularCustomer("Overflow", 20, "Contact", "Address"));
-    assertEquals(100, customerManager.getCustomerCount());
+    Page<Customer> page = customerManager.getCustomersPage(1, 5);
+
+    assertEquals(2, page.items().size());
+    assertEquals("User1", page.items().get(0).getName());
+    assertEquals(3, page.nextCursor());
+    assertFalse(page.hasMore());
+    assertThrows(IllegalArgumentException.class, () -> customerManager.getCustomersPage(0, 0));
+  }
+
+  @Test
+  void testNamePrefixReturnsTopMatchesInNameOrder() {
+    Customer carol = new RegularCustomer("Carol  King", 40, "555-0101", "1 Elm St");
+    Customer carla = new PremiumCustomer("carla Diaz", 35, "555-0102", "2 Elm St");
+    Customer carl = new RegularCustomer("Carl Berg", 50, "555-0103", "3 Elm St");
+    customerManager.addCustomer(carol);
+    customerManager.addCustomer(carla);
+    customerManager.addCustomer(carl);
+    customerManager.addCustomer(new RegularCustomer("Bob Carlson", 28, "555-0104", "4 Elm St"));
+
+    assertEquals(List.of(carl, carla, carol), customerManager.findCustomersByNamePrefix("CAR", 10));
+    assertEquals(List.of(carl, carla), customerManager.findCustomersByNamePrefix("car", 2));
+    assertEquals(List.of(carol), customerManager.findCustomersByNamePrefix(" carol k", 10));
+    assertTrue(customerManager.findCustomersByNamePrefix("Dave", 10).isEmpty());
+    assertThrows(
+        IllegalArgumentException.class, () -> customerManager.findCustomersByNamePrefix("C", 0));
+  }
+
+  @Test
+  void testNamePrefixOnLargeIndexReturnsOnlyTheLimit() {
+    for (int i = 0; i < 50_000; i++) {
+      customerManager.addCustomer(
+          new RegularCustomer(String.format("User%05d", i), 20, "Contact", "Address"));
+    }
+
+    List<Customer> found = customerManager.findCustomersByNamePrefix("user0123", 5);
+
+    assertEquals(5, found.size());
+    assertEquals("User01230", found.get(0).getName());
+    assertEquals("User01234", found.get(4).getName());
+  }
+
+  @Test
+  void testContactMatchesDigitsOfPhoneNumbers() {
+    Customer phone = new RegularCustomer("Dana", 30, "(555) 010-0200", "5 Oak St");
+    Customer email = new RegularCustomer("Eli", 31, "Eli@Example.com", "6 Oak St");
+    customerManager.addCustomer(phone);
+    customerManager.addCustomer(email);
+
+    assertEquals(List.of(phone), customerManager.findCustomersByContact("555-010-0200"));
+    assertEquals(List.of(email), customerManager.findCustomersByContact(" eli@example.COM"));
+    assertTrue(customerManager.findCustomersByContact("555-0000").isEmpty());
+  }
+
+  @Test
+  void testSettersKeepIndexesUpToDate() {
+    Customer customer = new RegularCustomer("Frank Moss", 45, "555-0300", "7 Pine St");
+    customerManager.addCustomer(customer);
+
+    customer.setName("Grace Moss");
+    customer.setContact("555-0301");
+
+    assertTrue(customerManager.findCustomersByNamePrefix("frank", 10).isEmpty());
+    assertEquals(List.of(customer), customerManager.findCustomersByNamePrefix("grace", 10));
+    assertTrue(customerManager.findCustomersByContact("555-0300").isEmpty());
+    assertEquals(List.of(customer), customerManager.findCustomersByContact("5550301"));
+    assertEquals("Grace Moss", customer.getName());
+  }
+
+  @Test
+  void testCustomersPageByType() {
+    for (int i = 0; i < 5; i++) {
+      Customer customer =
+          i % 2 == 0
+              ? new PremiumCustomer("Premium" + i, 40, "Contact", "Address")
+              : new RegularCustomer("Regular" + i, 40, "Contact", "Address");
+      customerManager.addCustomer(customer);
+    }
+
+    Page<Customer> page = customerManager.getCustomersPageByType("premium", Page.FIRST, 2);
+
+    assertEquals(3, customerManager.getCustomerCount("Premium"));
+    assertEquals(2, customerManager.getCustomerCount("REGULAR"));
+    assertEquals("Premium0", page.items().get(0).getName());
+    assertEquals("Premium2", page.items().get(1).getName());
+    assertTrue(page.hasMore());
+    assertEquals(
+        "Premium4",
+        customerManager
+            .getCustomersPageByType("Premium", page.nextCursor(), 2)
+            .items()
+            .get(0)
+            .getName());
+    assertEquals(0, customerManager.getCustomerCount("Corporate"));
   }
 }
@@ -0,0 +1,238 @@
+package main;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import accounts.AccountManager;
+import customers.CustomerManager;
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import transactions.Transaction;
+import transactions.TransactionManager;
+import transactions.TransactionType;
+
+/** Unit tests for CommandProcessor including each command, error lines, and the run summary. */
+class CommandProcessorTest {
+
+  private AccountManager accountManager;
+  private TransactionManager transactionManager;
+  private CommandProcessor processor;
+
+  @BeforeEach
+  void setUp() {
+    accountManager = new AccountManager();
+    transactionManager = new TransactionManager();
+    processor = new CommandProcessor(accountManager, new CustomerManager(), transactionManager);
+  }
+
+  @Test
+  void testScriptCreatesAccountsAndPostsTransactions() throws Exception {
+    StringBuilder out = new StringBuilder();
+    assertTrue(
+        processor.execute("customer regular \"Ada Lovelace\" 36 555-0100 \"1 Main St\"", out));
+    String customerId = out.substring("OK ".length());
+
+    out.setLength(0);
+    assertTrue(processor.execute("account checking " + customerId + " 100", out));
+    String accountNumber = out.substring("OK ".length(), out.indexOf(" ", 3));
+
+    String script =
+        String.join(
+            "\n",
+            "# comments and blank lines are skipped",
+            "",
+            "deposit " + accountNumber + " 50.25",
+            "withdraw " + accountNumber + " 20",
+            "statement " + accountNumber);
+    StringWriter results = new StringWriter();
+    CommandProcessor.Summary summary =
+        processor.run(new BufferedReader(new StringReader(script)), results);
+
+    String[] lines = results.toString().split(System.lineSeparator());
+    assertTrue(lines[0].matches("OK TXN\\d+ 150\\.25"));
+    assertTrue(lines[1].matches("OK TXN\\d+ 130\\.25"));
+    assertEquals(
+        "OK "
+            + accountNumber
+            + " deposits=50.25 withdrawals=20.00 fees=0.00 interest=0.00 transfersIn=0.00"
+            + " transfersOut=0.00 reversals=0.00 net=30.25 balance=130.25 count=2",
+        lines[2]);
+    assertTrue(lines[3].startsWith("SUMMARY commands=3 failures=0"));
+    assertEquals(3, summary.commands());
+    assertEquals(13025, accountManager.findAccount(accountNumber).getBalanceCents());
+    assertEquals(2, transactionManager.getTransactionCount());
+  }
+
+  @Test
+  void testPeriodCommandClosesEachMonthOnce() {
+    StringBuilder out = new StringBuilder();
+    processor.execute("customer regular Kim 52 555-0170 \"6 Mill Ln\"", out);
+    String customerId = out.substring("OK ".length());
+    out.setLength(0);
+    assertTrue(processor.execute("account checking " + customerId + " 100", out));
+
+    out.setLength(0);
+    assertTrue(processor.execute("period 2024-03", out));
+    assertEquals("OK 2024-03 accounts=1 fees=1/10.00 interest=0/0.00 skipped=0", out.toString());
+    out.setLength(0);
+    assertTrue(processor.execute("period 2024-03", out));
+    assertTrue(out.toString().endsWith("fees=0/0.00 interest=0/0.00 skipped=1"));
+    out.setLength(0);
+    assertFalse(processor.execute("period March", out));
+    assertEquals("ERR Invalid period: March", out.toString());
+  }
+
+  @Test
+  void testTransferCommandMovesMoneyBetweenAccounts() throws Exception {
+    StringBuilder out = new StringBuilder();
+    processor.execute("customer regular Ada 41 555-0171 \"2 Elm St\"", out);
+    String customerId = out.substring("OK ".length());
+    out.setLength(0);
+    processor.execute("account checking " + customerId + " 100", out);
+    String from = out.toString().split(" ")[1];
+    out.setLength(0);
+    processor.execute("account checking " + customerId + " 0", out);
+    String to = out.toString().split(" ")[1];
+
+    out.setLength(0);
+    assertTrue(processor.execute("transfer " + from + " " + to + " 30.50", out));
+    assertTrue(out.toString().matches("OK TXN\\d+ TXN\\d+ 69\\.50 30\\.50"), out.toString());
+    assertEquals(3050, accountManager.findAccount(to).getBalanceCents());
+    assertEquals(2, transactionManager.getTransactionCount());
+
+    out.setLength(0);
+    assertFalse(processor.execute("transfer " + from + " " + to + " 5000", out));
+    assertTrue(out.toString().startsWith("ERR "), out.toString());
+    assertEquals(6950, accountManager.findAccount(from).getBalanceCents());
+    assertEquals(2, transactionManager.getTransactionCount());
+  }
+
+  @Test
+  void testFeeAndReverseCommandsPostTypedTransactions() throws Exception {
+    StringBuilder out = new StringBuilder();
+    processor.execute("customer regular Lin 29 555-0172 \"3 Oak St\"", out);
+    String customerId = out.substring("OK ".length());
+    out.setLength(0);
+    processor.execute("account checking " + customerId + " 100", out);
+    String number = out.toString().split(" ")[1];
+
+    out.setLength(0);
+    assertTrue(processor.execute("fee " + number + " 2.50", out));
+    String feeId = out.toString().split(" ")[1];
+    assertEquals("97.50", out.toString().split(" ")[2]);
+
+    out.setLength(0);
+    assertTrue(processor.execute("reverse " + number + " " + feeId, out), out.toString());
+    assertEquals("100.00", out.toString().split(" ")[2]);
+    assertEquals(250, transactionManager.getTotalCents(TransactionType.FEE));
+    assertEquals(250, transactionManager.getTotalCents(number, TransactionType.REVERSAL));
+    out.setLength(0);
+    assertFalse(processor.execute("reverse " + number + " " + feeId, out));
+    assertTrue(out.toString().contains("already reversed"), out.toString());
+
+    out.setLength(0);
+    assertTrue(processor.execute("withdraw " + number + " 40", out));
+    String withdrawalId = out.toString().split(" ")[1];
+    out.setLength(0);
+    assertTrue(processor.execute("reverse " + number + " " + withdrawalId, out));
+    assertEquals(10_000, accountManager.findAccount(number).getBalanceCents());
+    assertEquals(4_250, transactionManager.getTotalCents(TransactionType.REVERSAL));
+
+    out.setLength(0);
+    assertFalse(processor.execute("reverse " + number + " TXN_MISSING", out));
+    assertTrue(out.toString().startsWith("ERR Transaction TXN_MISSING not found"), out.toString());
+    assertEquals(4, transactionManager.getTransactionCount());
+  }
+
+  @Test
+  void testConcurrentPostingsRecordBalancesInOrder() throws Exception {
+    StringBuilder out = new StringBuilder();
+    processor.execute("customer regular \"Ivy Chen\" 29 555-0186 \"6 Elm St\"", out);
+    String customerId = out.substring("OK ".length());
+    out.setLength(0);
+    processor.execute("account checking " + customerId + " 0", out);
+    String number = out.substring("OK ".length(), out.indexOf(" ", 3));
+
+    int workers = 4;
+    int postings = 2_000;
+    ExecutorService pool = Executors.newFixedThreadPool(workers);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int w = 0; w < workers; w++) {
+        futures.add(
+            pool.submit(
+                () -> {
+                  CommandProcessor teller =
+                      new CommandProcessor(
+                          accountManager, new CustomerManager(), transactionManager);
+                  StringBuilder line = new StringBuilder();
+                  for (int i = 0; i < postings; i++) {
+                    line.setLength(0);
+                    assertTrue(teller.execute("deposit " + number + " 0.01", line));
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> future : futures) future.get(60, TimeUnit.SECONDS);
+    } finally {
+      pool.shutdownNow();
+    }
+
+    Transaction[] newestFirst = transactionManager.getTransactionsForAccount(number);
+    assertEquals(workers * postings, newestFirst.length);
+    for (int i = 0; i < newestFirst.length; i++) {
+      assertEquals(newestFirst.length - i, newestFirst[i].getBalanceAfterCents());
+    }
+  }
+
+  @Test
+  void testFindCommandSearchesCustomersByNameAndContact() {
+    StringBuilder out = new StringBuilder();
+    processor.execute("customer regular \"Mia Wong\" 33 555-0180 \"8 Bay Rd\"", out);
+    String mia = out.substring("OK ".length());
+    out.setLength(0);
+    processor.execute("customer premium \"Milo Park\" 61 555-0181 \"9 Bay Rd\"", out);
+    String milo = out.substring("OK ".length());
+
+    out.setLength(0);
+    assertTrue(processor.execute("find name mi", out));
+    assertEquals("OK 2 " + mia + " " + milo, out.toString());
+    out.setLength(0);
+    assertTrue(processor.execute("find name \"mi\" 1", out));
+    assertEquals("OK 1 " + mia, out.toString());
+    out.setLength(0);
+    assertTrue(processor.execute("find contact (555)0181", out));
+    assertEquals("OK 1 " + milo, out.toString());
+    out.setLength(0);
+    assertFalse(processor.execute("find address Bay", out));
+  }
+
+  @Test
+  void testFailedCommandsReportErrorsAndRecordNothing() {
+    StringBuilder out = new StringBuilder();
+
+    assertFalse(processor.execute("deposit ACC_MISSING 10", out));
+    assertTrue(out.toString().startsWith("ERR "));
+
+    out.setLength(0);
+    assertFalse(processor.execute("deposit ACC001 1.234", out));
+    out.setLength(0);
+    assertFalse(processor.execute("audit ACC001", out));
+    assertEquals("ERR Unknown command: audit", out.toString());
+    out.setLength(0);
+    assertFalse(processor.execute("transfer ACC_MISSING ACC_OTHER 5", out));
+    assertTrue(out.toString().startsWith("ERR "));
+    out.setLength(0);
+    assertFalse(processor.execute("customer regular \"Unterminated 30", out));
+
+    assertEquals(0, transactionManager.getTransactionCount());
+  }
+}
@@ -0,0 +1,71 @@
+package metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for LatencyHistogram including bucket precision, percentiles, and allocation. */
+class LatencyHistogramTest {
+
+  @Test
+  void testBucketsBoundValuesWithinOneSixteenth() {
+    for (long value = 0; value < 1_000_000; value = value * 3 / 2 + 1) {
+      assertBucketHolds(value);
+    }
+    assertBucketHolds(Long.MAX_VALUE);
+    assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+  }
+
+  @Test
+  void testPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long micros = 1; micros <= 1000; micros++) histogram.record(micros * 1000);
+
+    assertEquals(1000, histogram.getCount());
+    assertEquals(1_000_000, histogram.getMax());
+    assertEquals(500_500, histogram.getMean(), 0.001);
+    assertWithinBucket(500_000, histogram.getP50());
+    assertWithinBucket(990_000, histogram.getP99());
+    assertWithinBucket(999_000, histogram.getP999());
+    assertEquals(1_000_000, histogram.percentile(1.0));
+    assertThrows(IllegalArgumentException.class, () -> histogram.percentile(1.5));
+  }
+
+  @Test
+  void testEmptyHistogramAndNegativeDurations() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getP99());
+    assertEquals(0, histogram.getMean());
+
+    histogram.record(-5);
+    assertEquals(1, histogram.getCount());
+    assertEquals(0, histogram.getMax());
+  }
+
+  @Test
+  void testRecordDoesNotAllocate() {
+    var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 0; i < 100_000; i++) histogram.recordSince(System.nanoTime() - i);
+
+    long thread = Thread.currentThread().getId();
+    long before = threads.getThreadAllocatedBytes(thread);
+    for (int i = 0; i < 100_000; i++) histogram.recordSince(System.nanoTime() - i);
+    long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+    assertTrue(allocated < 1024, "record allocated " + allocated + " bytes");
+  }
+
+  private static void assertBucketHolds(long value) {
+    long upper = LatencyHistogram.upperBound(LatencyHistogram.bucketOf(value));
+    assertTrue(upper >= value, value + " above its bucket's bound " + upper);
+    assertTrue(upper - value <= value / 16, value + " too far below its bucket's bound " + upper);
+  }
+
+  private static void assertWithinBucket(long expected, long actual) {
+    assertTrue(
+        actual >= expected && actual - expected <= expected / 16,
+        "expected about " + expected + " but was " + actual);
+  }
+}
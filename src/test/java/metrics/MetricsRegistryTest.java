@@ -0,0 +1,95 @@
+package metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import accounts.AccountManager;
+import exceptions.AccountNotFoundException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for MetricsRegistry including text exposition, the HTTP endpoint, and JMX. */
+class MetricsRegistryTest {
+
+  @Test
+  void testTextExposition() {
+    MetricsRegistry registry = new MetricsRegistry();
+    registry.counter("test_events_total").add(3);
+    registry.gauge("test_queue_depth", () -> 7);
+    LatencyHistogram histogram = registry.histogram("test_latency_nanos");
+    histogram.record(100);
+    histogram.record(300);
+
+    String text = registry.writeText(new StringBuilder()).toString();
+
+    assertTrue(text.contains("# TYPE test_events_total counter\ntest_events_total 3\n"), text);
+    assertTrue(text.contains("test_queue_depth 7\n"), text);
+    assertTrue(text.contains("test_latency_nanos{quantile=\"0.5\"} 103\n"), text);
+    assertTrue(text.contains("test_latency_nanos{quantile=\"0.999\"} 300\n"), text);
+    assertTrue(text.contains("test_latency_nanos_count 2\ntest_latency_nanos_sum 400\n"), text);
+    assertSame(histogram, registry.histogram("test_latency_nanos"));
+    assertThrows(IllegalArgumentException.class, () -> registry.counter("Bad Name"));
+  }
+
+  @Test
+  void testHttpEndpoint() throws Exception {
+    MetricsRegistry registry = new MetricsRegistry();
+    AtomicLong depth = new AtomicLong(1);
+    registry.gauge("test_depth", depth::get);
+
+    try (MetricsHttpServer server = MetricsHttpServer.start(registry, 0)) {
+      HttpClient client = HttpClient.newHttpClient();
+      HttpRequest request =
+          HttpRequest.newBuilder(
+                  URI.create("http://localhost:" + server.getPort() + MetricsHttpServer.PATH))
+              .build();
+      depth.set(42);
+      HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+      assertEquals(200, response.statusCode());
+      assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/plain"));
+      assertTrue(response.body().contains("test_depth 42\n"), response.body());
+    }
+  }
+
+  @Test
+  void testJmxPublishing() throws Exception {
+    MetricsRegistry registry = new MetricsRegistry();
+    registry.histogram("test_jmx_before_nanos").record(1000);
+    registry.publishToJmx();
+    registry.counter("test_jmx_after_total").increment();
+    registry.gauge("test_jmx_gauge", () -> 1);
+    registry.gauge("test_jmx_gauge", () -> 2);
+
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    assertEquals(
+        1000L,
+        server.getAttribute(
+            new ObjectName("bank:type=Histogram,name=test_jmx_before_nanos"), "P99"));
+    assertEquals(
+        1L,
+        server.getAttribute(
+            new ObjectName("bank:type=Counter,name=test_jmx_after_total"), "Count"));
+    assertEquals(
+        2L, server.getAttribute(new ObjectName("bank:type=Gauge,name=test_jmx_gauge"), "Value"));
+  }
+
+  @Test
+  void testAccountLookupsAreRecorded() {
+    MetricsRegistry global = MetricsRegistry.global();
+    long lookups = global.histogram("account_lookup_nanos").getCount();
+    long misses = global.counter("account_lookup_misses_total").getCount();
+
+    assertThrows(
+        AccountNotFoundException.class, () -> new AccountManager().findAccount("ACC999999"));
+
+    assertEquals(lookups + 1, global.histogram("account_lookup_nanos").getCount());
+    assertEquals(misses + 1, global.counter("account_lookup_misses_total").getCount());
+  }
+}
@@ -0,0 +1,227 @@
+package persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import accounts.Account;
+import accounts.AccountManager;
+import accounts.CheckingAccount;
+import accounts.PeriodEndProcessor;
+import accounts.SavingsAccount;
+import customers.Customer;
+import customers.CustomerManager;
+import customers.PremiumCustomer;
+import customers.RegularCustomer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import transactions.Transaction;
+import transactions.TransactionManager;
+
+/** Unit tests for BankSnapshot and DataDirectory including round trip, recovery, and CRC checks. */
+class BankSnapshotTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void testRoundTripRestoresCustomersAndAccounts() throws Exception {
+    CustomerManager customers = new CustomerManager();
+    AccountManager accounts = new AccountManager();
+    Customer alice = new RegularCustomer("Alice", 30, "555-0100", "1 Main St");
+    Customer bob = new PremiumCustomer("Bob Ünal", 52, "555-0101", "2 High St");
+    customers.addCustomer(alice);
+    customers.addCustomer(bob);
+    SavingsAccount savings = new SavingsAccount(alice, 750.25);
+    CheckingAccount checking = new CheckingAccount(bob, 12000.0);
+    checking.setLastClosedPeriod(24289);
+    accounts.addAccount(savings);
+    accounts.addAccount(checking);
+
+    Path file = directory.resolve("snapshot.bin");
+    BankSnapshot.write(file, accounts, customers, 42);
+
+    CustomerManager restoredCustomers = new CustomerManager();
+    AccountManager restoredAccounts = new AccountManager();
+    BankSnapshot.Contents contents = BankSnapshot.load(file, restoredAccounts, restoredCustomers);
+
+    assertEquals(new BankSnapshot.Contents(42, 2, 2), contents);
+    Customer restoredBob = restoredCustomers.findCustomer(bob.getCustomerId());
+    assertInstanceOf(PremiumCustomer.class, restoredBob);
+    assertEquals("Bob Ünal", restoredBob.getName());
+    assertEquals("2 High St", restoredBob.getAddress());
+
+    SavingsAccount restoredSavings =
+        (SavingsAccount) restoredAccounts.findAccount(savings.getAccountNumber());
+    assertEquals(75025, restoredSavings.getBalanceCents());
+    assertEquals(savings.getInterestRate(), restoredSavings.getInterestRate());
+    assertEquals(savings.getMinimumBalanceCents(), restoredSavings.getMinimumBalanceCents());
+    assertEquals(alice.getCustomerId(), restoredSavings.getCustomer().getCustomerId());
+
+    CheckingAccount restoredChecking =
+        (CheckingAccount) restoredAccounts.findAccount(checking.getAccountNumber());
+    assertEquals(checking.getOverdraftLimitCents(), restoredChecking.getOverdraftLimitCents());
+    assertEquals(checking.getMonthlyFeeCents(), restoredChecking.getMonthlyFeeCents());
+    assertEquals(checking.getStatus(), restoredChecking.getStatus());
+    assertEquals(24289, restoredChecking.getLastClosedPeriod());
+    assertSame(restoredBob, restoredChecking.getCustomer());
+  }
+
+  @Test
+  void testLoadAdvancesCountersPastSavedIds() throws IOException {
+    AccountManager accounts = new AccountManager();
+    Customer customer = new RegularCustomer("Carol", 41, "555-0102", "3 Low St");
+    Account account = new CheckingAccount(customer, 10.0);
+    accounts.addAccount(account);
+    Path file = directory.resolve("snapshot.bin");
+    BankSnapshot.write(file, accounts, new CustomerManager(), 0);
+
+    BankSnapshot.load(file, new AccountManager(), new CustomerManager());
+
+    assertTrue(Account.getAccountCounter() >= account.getId());
+    assertTrue(new CheckingAccount(customer, 0.0).getId() > account.getId());
+    assertTrue(new RegularCustomer("Dave", 20, "555", "4 St").getId() > customer.getId());
+  }
+
+  @Test
+  void testCorruptSnapshotIsRejected() throws IOException {
+    CustomerManager customers = new CustomerManager();
+    customers.addCustomer(new RegularCustomer("Erin", 28, "555-0103", "5 Side St"));
+    Path file = directory.resolve("snapshot.bin");
+    BankSnapshot.write(file, new AccountManager(), customers, 0);
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {'X'}), 70);
+    }
+
+    IOException e =
+        assertThrows(
+            IOException.class,
+            () -> BankSnapshot.load(file, new AccountManager(), new CustomerManager()));
+    assertTrue(e.getMessage().contains("checksum"));
+  }
+
+  @Test
+  void testDataDirectoryRestoresFullHistoryAndBalancesAfterCheckpoint() throws Exception {
+    AccountManager accounts = new AccountManager();
+    CustomerManager customers = new CustomerManager();
+    TransactionManager transactions = new TransactionManager();
+    DataDirectory crashed = DataDirectory.open(directory, accounts, customers, transactions);
+    Customer customer = new RegularCustomer("Finn", 35, "555-0104", "6 Top St");
+    customers.addCustomer(customer);
+    Account account = new CheckingAccount(customer, 0.0);
+    accounts.addAccount(account);
+    post(account, transactions, 100_00);
+    crashed.checkpoint();
+    post(account, transactions, 20_00);
+    post(account, transactions, 3_00);
+
+    // Reopen without closing, as after a crash: the snapshot covers the first deposit only.
+    AccountManager restoredAccounts = new AccountManager();
+    TransactionManager restoredTransactions = new TransactionManager();
+    try (DataDirectory data =
+        DataDirectory.open(
+            directory, restoredAccounts, new CustomerManager(), restoredTransactions)) {
+      assertEquals(1, data.getRecovery().snapshot().journalSequence());
+      assertEquals(3, data.getRecovery().replay().replayed());
+      assertEquals(2, data.getRecovery().replay().balancesApplied());
+      assertEquals(0, data.getRecovery().replay().unknownAccounts());
+      assertEquals(3, restoredTransactions.getTransactionCount());
+      assertEquals(123_00, restoredTransactions.getTotalDepositsCents(account.getAccountNumber()));
+      assertEquals(
+          123_00, restoredAccounts.findAccount(account.getAccountNumber()).getBalanceCents());
+    } finally {
+      crashed.close();
+    }
+  }
+
+  @Test
+  void testAccountOpenedAfterCheckpointSurvivesACrash() throws Exception {
+    AccountManager accounts = new AccountManager();
+    CustomerManager customers = new CustomerManager();
+    TransactionManager transactions = new TransactionManager();
+    DataDirectory crashed = DataDirectory.open(directory, accounts, customers, transactions);
+    Customer customer = new PremiumCustomer("Hana", 29, "555-0106", "8 Mid St");
+    customers.addCustomer(customer);
+    Account account = new SavingsAccount(customer, 1.0);
+    accounts.addAccount(account);
+    post(account, transactions, 500_00);
+
+    // Reopen without closing: no snapshot holds the customer or account, only the logs do.
+    AccountManager restoredAccounts = new AccountManager();
+    CustomerManager restoredCustomers = new CustomerManager();
+    TransactionManager restoredTransactions = new TransactionManager();
+    try (DataDirectory data =
+        DataDirectory.open(directory, restoredAccounts, restoredCustomers, restoredTransactions)) {
+      assertEquals(new RegistrationLog.ReplayResult(1, 1), data.getRecovery().registrations());
+      assertEquals(0, data.getRecovery().replay().unknownAccounts());
+      Customer restoredCustomer = restoredCustomers.findCustomer(customer.getCustomerId());
+      assertEquals("Hana", restoredCustomer.getName());
+      Account restored = restoredAccounts.findAccount(account.getAccountNumber());
+      assertSame(restoredCustomer, restored.getCustomer());
+      assertEquals(501_00, restored.getBalanceCents());
+
+      Account next = new CheckingAccount(restoredCustomer, 1.0);
+      restoredAccounts.addAccount(next);
+      assertNotEquals(account.getAccountNumber(), next.getAccountNumber());
+      assertEquals(
+          0, restoredTransactions.getTransactionsForAccount(next.getAccountNumber()).length);
+    } finally {
+      crashed.close();
+    }
+
+    // The reopened directory checkpointed on close, so a third open finds both in the snapshot.
+    AccountManager reloaded = new AccountManager();
+    try (DataDirectory data =
+        DataDirectory.open(directory, reloaded, new CustomerManager(), new TransactionManager())) {
+      assertEquals(new RegistrationLog.ReplayResult(0, 0), data.getRecovery().registrations());
+      assertEquals(501_00, reloaded.findAccount(account.getAccountNumber()).getBalanceCents());
+    }
+  }
+
+  @Test
+  void testJournaledPeriodCloseSurvivesACrash() throws Exception {
+    AccountManager accounts = new AccountManager();
+    CustomerManager customers = new CustomerManager();
+    TransactionManager transactions = new TransactionManager();
+    DataDirectory crashed = DataDirectory.open(directory, accounts, customers, transactions);
+    Customer customer = new RegularCustomer("Gus", 41, "555-0105", "7 Low St");
+    customers.addCustomer(customer);
+    Account account = new CheckingAccount(customer, 100.0);
+    accounts.addAccount(account);
+    crashed.checkpoint();
+    YearMonth period = YearMonth.of(2024, 3);
+    assertEquals(
+        1, new PeriodEndProcessor(accounts, transactions).closePeriod(period).feesCharged());
+
+    // Reopen without closing: the snapshot predates the close, so only the journal knows it.
+    AccountManager restoredAccounts = new AccountManager();
+    TransactionManager restoredTransactions = new TransactionManager();
+    try (DataDirectory data =
+        DataDirectory.open(
+            directory, restoredAccounts, new CustomerManager(), restoredTransactions)) {
+      Account restored = restoredAccounts.findAccount(account.getAccountNumber());
+      assertEquals(PeriodEndProcessor.periodIndex(period), restored.getLastClosedPeriod());
+      assertEquals(1, data.getRecovery().replay().replayed());
+
+      PeriodEndProcessor.Result rerun =
+          new PeriodEndProcessor(restoredAccounts, restoredTransactions).closePeriod(period);
+      assertEquals(1, rerun.skipped());
+      assertEquals(0, rerun.feesCharged());
+      assertEquals(account.getBalanceCents(), restored.getBalanceCents());
+    } finally {
+      crashed.close();
+    }
+  }
+
+  private static void post(Account account, TransactionManager transactions, long cents)
+      throws Exception {
+    account.processTransactionCents(cents, "DEPOSIT");
+    transactions.addTransaction(
+        Transaction.ofCents(
+            account.getAccountNumber(), "DEPOSIT", cents, account.getBalanceCents()));
+  }
+}
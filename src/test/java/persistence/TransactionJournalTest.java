@@ -0,0 +1,162 @@
+package persistence;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import accounts.Account;
+import accounts.AccountManager;
+import accounts.CheckingAccount;
+import customers.RegularCustomer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import transactions.Transaction;
+import transactions.TransactionManager;
+
+/** Unit tests for TransactionJournal including replay, segment rolling, and torn-tail recovery. */
+class TransactionJournalTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void testAppendAndReplayRestoresHistoryAndBalances() throws IOException {
+    Account account = new CheckingAccount(new RegularCustomer("Dan", 33, "555", "1 St"), 0.0);
+    try (TransactionJournal journal = TransactionJournal.open(directory)) {
+      journal.append(Transaction.ofCents(account.getAccountNumber(), "DEPOSIT", 150_00, 150_00));
+      journal.append(Transaction.ofCents(account.getAccountNumber(), "WITHDRAWAL", 25_50, 124_50));
+      journal.append(Transaction.ofCents("ACC_GONE", "DEPOSIT", 1_00, 1_00));
+    }
+
+    AccountManager accountManager = new AccountManager();
+    accountManager.addAccount(account);
+    TransactionManager transactionManager = new TransactionManager();
+    try (TransactionJournal journal = TransactionJournal.open(directory)) {
+      TransactionJournal.ReplayResult result = journal.replay(accountManager, transactionManager);
+
+      assertEquals(2, result.replayed());
+      assertEquals(1, result.unknownAccounts());
+      assertEquals(3, journal.getLastSequence());
+    }
+    assertEquals(2, transactionManager.getTransactionCount());
+    assertEquals(124_50, account.getBalanceCents());
+    assertEquals(150.0, transactionManager.calculateTotalDeposits());
+  }
+
+  @Test
+  void testRecordsOfUnregisteredAccountsAreQuarantined() throws IOException {
+    Account lost = newAccount();
+    Transaction deposit = Transaction.ofCents(lost.getAccountNumber(), "DEPOSIT", 500_00, 501_00);
+    // A number above any issued so far, as if a previous process had opened many more accounts.
+    String unseen = "ACC" + (Account.getAccountCounter() + 5000);
+    try (TransactionJournal journal = TransactionJournal.open(directory)) {
+      journal.append(deposit);
+      journal.append(Transaction.ofCents(unseen, "DEPOSIT", 1_00, 1_00));
+    }
+
+    TransactionManager transactionManager = new TransactionManager();
+    try (TransactionJournal journal = TransactionJournal.open(directory)) {
+      TransactionJournal.ReplayResult result =
+          journal.replay(new AccountManager(), transactionManager);
+      assertEquals(0, result.replayed());
+      assertEquals(2, result.unknownAccounts());
+    }
+    assertEquals(0, transactionManager.getTransactionCount());
+    assertNull(
+        transactionManager.findTransaction(lost.getAccountNumber(), deposit.getTransactionId()));
+
+    Account next = newAccount();
+    assertTrue(next.getId() > Long.parseLong(unseen.substring(3)));
+    assertEquals(0, transactionManager.getTransactionsForAccount(next.getAccountNumber()).length);
+  }
+
+  @Test
+  void testReplayAcrossRolledSegments() throws IOException {
+    Account account = newAccount();
+    try (TransactionJournal journal = TransactionJournal.open(directory, 4)) {
+      for (int i = 1; i <= 10; i++) {
+        journal.append(Transaction.ofCents(account.getAccountNumber(), "DEPOSIT", 1_00, i * 1_00L));
+      }
+    }
+    try (var files = Files.list(directory)) {
+      assertEquals(3, files.count());
+    }
+
+    TransactionManager transactionManager = new TransactionManager();
+    try (TransactionJournal journal = TransactionJournal.open(directory, 4)) {
+      assertEquals(10, journal.getLastSequence());
+      journal.replay(managerOf(account), transactionManager);
+      journal.append(Transaction.ofCents(account.getAccountNumber(), "DEPOSIT", 1_00, 11_00));
+      assertEquals(11, journal.getLastSequence());
+    }
+    assertEquals(10.0, transactionManager.calculateTotalDeposits());
+  }
+
+  @Test
+  void testTornTailRecordIsTruncated() throws IOException {
+    Account account = newAccount();
+    try (TransactionJournal journal = TransactionJournal.open(directory, 8)) {
+      journal.append(Transaction.ofCents(account.getAccountNumber(), "DEPOSIT", 1_00, 1_00));
+      journal.append(Transaction.ofCents(account.getAccountNumber(), "DEPOSIT", 2_00, 3_00));
+    }
+    // Simulate a crash halfway through writing the second record.
+    Path segment = directory.resolve("journal-00000000.seg");
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {0x7f}), TransactionJournal.RECORD_SIZE + 20);
+    }
+
+    TransactionManager transactionManager = new TransactionManager();
+    try (TransactionJournal journal = TransactionJournal.open(directory, 8)) {
+      assertEquals(1, journal.getLastSequence());
+      assertTrue(journal.getTruncatedBytes() > 0);
+      assertEquals(1, journal.replay(managerOf(account), transactionManager).replayed());
+
+      journal.append(Transaction.ofCents(account.getAccountNumber(), "DEPOSIT", 5_00, 6_00));
+      assertEquals(2, journal.getLastSequence());
+    }
+    assertEquals(1, transactionManager.getTransactionCount());
+  }
+
+  @Test
+  void testReplayKeepsTheReversalLink() throws IOException {
+    Account account = newAccount();
+    Transaction fee = Transaction.ofCents(account.getAccountNumber(), "FEE", 2_50, 97_50);
+    Transaction reversal = Transaction.reversalOf(fee, 100_00);
+    try (TransactionJournal journal = TransactionJournal.open(directory)) {
+      journal.append(fee);
+      journal.append(reversal);
+    }
+
+    TransactionManager transactionManager = new TransactionManager();
+    try (TransactionJournal journal = TransactionJournal.open(directory)) {
+      journal.replay(managerOf(account), transactionManager);
+    }
+    Transaction restored =
+        transactionManager.findTransaction(account.getAccountNumber(), reversal.getTransactionId());
+    assertEquals(fee.getId(), restored.getReversedId());
+    assertTrue(transactionManager.isReversed(fee));
+  }
+
+  @Test
+  void testAttachedJournalRecordsManagerTransactions() throws IOException {
+    TransactionManager transactionManager = new TransactionManager();
+    try (TransactionJournal journal = TransactionJournal.open(directory)) {
+      transactionManager.setTransactionLog(journal);
+      transactionManager.addTransaction(new Transaction("ACC001", "DEPOSIT", 10.0, 10.0));
+      assertEquals(1, journal.getLastSequence());
+    }
+  }
+
+  private static Account newAccount() {
+    return new CheckingAccount(new RegularCustomer("Eve", 40, "555", "2 St"), 0.0);
+  }
+
+  private static AccountManager managerOf(Account account) {
+    AccountManager accountManager = new AccountManager();
+    accountManager.addAccount(account);
+    return accountManager;
+  }
+}
@@ -0,0 +1,104 @@
+package reports;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import accounts.Account;
+import accounts.AccountManager;
+import accounts.CheckingAccount;
+import accounts.SavingsAccount;
+import customers.Customer;
+import customers.RegularCustomer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import transactions.Transaction;
+import transactions.TransactionColumns;
+import transactions.TransactionManager;
+
+/** Unit tests for ColumnarExporter and ColumnarReader including round trips and corruption. */
+class ColumnarExporterTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void testExportedColumnsReadBackThroughMappedReader() throws IOException {
+    AccountManager accountManager = new AccountManager();
+    TransactionManager transactionManager = new TransactionManager();
+    Customer customer = new RegularCustomer("Mia", 39, "555-0190", "8 Mill Ln");
+    Account savings = new SavingsAccount(customer, 700.0);
+    Account checking = new CheckingAccount(customer, 25.0);
+    accountManager.addAccount(savings);
+    accountManager.addAccount(checking);
+    // Span more than one chunk so chunked copies are exercised.
+    int rows = TransactionColumns.CHUNK_SIZE + 10;
+    for (int i = 0; i < rows; i++) {
+      Account account = i % 3 == 0 ? checking : savings;
+      String type = i % 2 == 0 ? "DEPOSIT" : "WITHDRAWAL";
+      transactionManager.addTransaction(
+          Transaction.ofCents(account.getAccountNumber(), type, i + 1, 1_000L * i));
+    }
+
+    Path file = directory.resolve("bank.cols");
+    ColumnarExporter.Result result =
+        new ColumnarExporter(accountManager, transactionManager).export(file);
+    assertEquals(2, result.accounts());
+    assertEquals(rows, result.transactions());
+
+    try (ColumnarReader reader = ColumnarReader.open(file)) {
+      assertEquals(List.of("accounts", "transactions"), List.copyOf(reader.getTables()));
+      assertEquals(rows, reader.getRowCount("transactions"));
+
+      LongBuffer amounts = reader.mapLongColumn("transactions", "amount_cents");
+      ByteBuffer types = reader.mapByteColumn("transactions", "type");
+      String[] typeNames = reader.getDictionary("transactions", "type");
+      long deposits = 0;
+      for (int i = 0; i < rows; i++) {
+        if (typeNames[types.get(i)].equals("DEPOSIT")) deposits += amounts.get(i);
+      }
+      assertEquals(transactionManager.calculateTotalDepositsCents(), deposits);
+
+      IntBuffer accounts = reader.mapIntColumn("transactions", "account");
+      String[] numbers = reader.getDictionary("transactions", "account");
+      assertEquals(checking.getAccountNumber(), numbers[accounts.get(rows - 1 - (rows - 1) % 3)]);
+      assertEquals(
+          1_000L * (rows - 1),
+          reader.mapLongColumn("transactions", "balance_after_cents").get(rows - 1));
+
+      LongBuffer balances = reader.mapLongColumn("accounts", "balance_cents");
+      assertEquals(savings.getBalanceCents(), balances.get(0));
+      assertEquals(checking.getBalanceCents(), balances.get(1));
+      assertEquals(
+          "Checking",
+          reader
+              .getDictionary("accounts", "type")[reader.mapByteColumn("accounts", "type").get(1)]);
+      assertNull(reader.getDictionary("accounts", "balance_cents"));
+      assertThrows(
+          IllegalArgumentException.class, () -> reader.mapIntColumn("accounts", "balance_cents"));
+    }
+  }
+
+  @Test
+  void testCorruptFooterIsRejected() throws IOException {
+    Path file = directory.resolve("empty.cols");
+    ColumnarExporter.Result result =
+        new ColumnarExporter(new AccountManager(), new TransactionManager()).export(file);
+    assertEquals(0, result.transactions());
+    try (ColumnarReader reader = ColumnarReader.open(file)) {
+      assertEquals(0, reader.getRowCount("transactions"));
+      assertEquals(0, reader.mapLongColumn("transactions", "id").capacity());
+    }
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {'X'}), result.bytes() - 30);
+    }
+    IOException e = assertThrows(IOException.class, () -> ColumnarReader.open(file));
+    assertTrue(e.getMessage().contains("checksum"));
+  }
+}
@@ -0,0 +1,102 @@
+package reports;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import accounts.Account;
+import accounts.AccountManager;
+import accounts.CheckingAccount;
+import accounts.SavingsAccount;
+import customers.Customer;
+import customers.RegularCustomer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import transactions.Transaction;
+import transactions.TransactionManager;
+
+/** Unit tests for StatementGenerator including statement totals, file layout, and resuming. */
+class StatementGeneratorTest {
+
+  @TempDir Path directory;
+
+  private AccountManager accountManager;
+  private TransactionManager transactionManager;
+  private Account checking;
+
+  @BeforeEach
+  void setUp() {
+    accountManager = new AccountManager();
+    transactionManager = new TransactionManager();
+    Customer customer = new RegularCustomer("Lena", 47, "555-0180", "7 Mill Ln");
+    checking = new CheckingAccount(customer, 0.0);
+    accountManager.addAccount(checking);
+    accountManager.addAccount(new SavingsAccount(customer, 600.0));
+    post(checking, "DEPOSIT", 200_00);
+    post(checking, "WITHDRAWAL", 45_50);
+    post(checking, "FEE", 10_00);
+  }
+
+  @Test
+  void testStatementListsHistoryAndTotals() throws IOException {
+    StatementGenerator.Result result =
+        new StatementGenerator(accountManager, transactionManager, 2).generate(directory);
+
+    assertEquals(2, result.written());
+    assertEquals(0, result.skipped());
+    String statement = Files.readString(directory.resolve(checking.getAccountNumber() + ".txt"));
+    assertTrue(statement.startsWith("STATEMENT " + checking.getAccountNumber()));
+    assertTrue(statement.indexOf("DEPOSIT") < statement.indexOf("WITHDRAWAL"));
+    assertTrue(statement.contains("-$10.00"));
+    assertTrue(statement.contains("Transactions: 3"));
+    assertTrue(statement.contains("Total Deposits: $200.00"));
+    assertTrue(statement.contains("Total Withdrawals: $55.50"));
+    assertTrue(statement.contains("Opening Balance: $0.00"));
+    assertTrue(statement.contains("Closing Balance: $144.50"));
+  }
+
+  @Test
+  void testLongTypeNamesAndLargeAmountsAreNotTruncated() throws IOException {
+    post(checking, "DEPOSIT", 9_000_000_000_000_000_00L);
+    post(checking, "TRANSFER_OUT", 1_00);
+
+    new StatementGenerator(accountManager, transactionManager, 1).generate(directory);
+
+    String statement = Files.readString(directory.resolve(checking.getAccountNumber() + ".txt"));
+    assertTrue(statement.contains("TRANSFER_OUT "), statement);
+    assertTrue(statement.contains("+$9000000000000000.00 "), statement);
+  }
+
+  @Test
+  void testRerunSkipsCompletedStatementsAndReplacesPartialOnes() throws IOException {
+    String savingsNumber = accountManager.getAccountsPage(0, 2).items().get(1).getAccountNumber();
+    new StatementGenerator(accountManager, transactionManager, 1).generate(directory);
+    Files.delete(directory.resolve(savingsNumber + ".txt"));
+    Files.writeString(directory.resolve(savingsNumber + ".txt.tmp"), "torn");
+
+    StatementGenerator.Result resumed =
+        new StatementGenerator(accountManager, transactionManager, 3).generate(directory);
+
+    assertEquals(1, resumed.written());
+    assertEquals(1, resumed.skipped());
+    try (Stream<Path> files = Files.list(directory)) {
+      assertEquals(2, files.count());
+    }
+    assertTrue(
+        Files.readString(directory.resolve(savingsNumber + ".txt"))
+            .contains("Closing Balance: $600.00"));
+  }
+
+  private void post(Account account, String type, long cents) {
+    long balance =
+        type.equals("DEPOSIT")
+            ? account.getBalanceCents() + cents
+            : account.getBalanceCents() - cents;
+    account.setBalanceCents(balance);
+    transactionManager.addTransaction(
+        Transaction.ofCents(account.getAccountNumber(), type, cents, balance));
+  }
+}
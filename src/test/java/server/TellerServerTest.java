@@ -0,0 +1,201 @@
+package server;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import accounts.AccountManager;
+import customers.CustomerManager;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import metrics.LatencyHistogram;
+import metrics.MetricsRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import transactions.TransactionManager;
+
+/**
+ * Unit tests for TellerServer including the session protocol, shared state across sessions, and a
+ * localhost load test with idle sessions. Raise {@code teller.load.idleSessions} to rehearse larger
+ * deployments, e.g. 10000; each idle session needs two file descriptors in this process.
+ */
+class TellerServerTest {
+
+  private static final int IDLE_SESSIONS = Integer.getInteger("teller.load.idleSessions", 1000);
+  private static final int ACTIVE_CLIENTS = 16;
+  private static final int REQUESTS_PER_CLIENT = 1000;
+
+  private AccountManager accountManager;
+  private TransactionManager transactionManager;
+  private TellerServer server;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    accountManager = new AccountManager();
+    transactionManager = new TransactionManager();
+    server = TellerServer.start(0, accountManager, new CustomerManager(), transactionManager);
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.close();
+  }
+
+  @Test
+  void testSessionRunsCommandsAndPrintsHistory() throws IOException {
+    try (Client teller = new Client(server.getPort())) {
+      String customer = teller.call("customer regular \"Ann Lee\" 33 555-0150 \"4 Oak Rd\"");
+      String account = teller.call("account checking " + customer.substring(3) + " 100");
+      String number = account.split(" ")[1];
+      assertTrue(teller.call("deposit " + number + " 25.50").endsWith(" 125.50"));
+      assertTrue(teller.call("withdraw " + number + " 999999").startsWith("ERR "));
+      assertTrue(teller.call("withdraw " + number + " 5").endsWith(" 120.50"));
+
+      teller.send("history " + number);
+      List<String> table = new ArrayList<>();
+      String line;
+      while (!(line = teller.readLine()).startsWith("OK ")) table.add(line);
+      assertEquals("OK " + number + " 120.50 count=2", line);
+      assertTrue(table.get(1).contains("TRANSACTION ID"));
+      assertTrue(
+          table.stream().anyMatch(row -> row.contains("DEPOSIT") && row.contains("+$25.50")));
+      assertTrue(
+          table.stream().anyMatch(row -> row.contains("WITHDRAWAL") && row.contains("-$5.00")));
+
+      assertTrue(teller.call("history ACC_MISSING").startsWith("ERR "));
+      assertEquals("ERR Unknown command: statements", teller.call("statements /tmp"));
+      assertEquals("ERR Unknown command: export", teller.call("export /tmp/bank.col"));
+      assertEquals("ERR Unknown command: period", teller.call("period 2024-01"));
+      assertEquals("BYE", teller.call("quit"));
+      assertNull(teller.readLine());
+    }
+  }
+
+  @Test
+  void testSessionsShareOneBank() throws IOException {
+    try (Client first = new Client(server.getPort());
+        Client second = new Client(server.getPort())) {
+      String customer = first.call("customer premium Bo 50 555-0151 \"5 Elm St\"").substring(3);
+      String number = second.call("account savings " + customer + " 20000").split(" ")[1];
+      first.call("withdraw " + number + " 1000");
+
+      assertEquals(1_900_000, accountManager.findAccount(number).getBalanceCents());
+      assertTrue(second.call("statement " + number).contains("withdrawals=1000.00"));
+    } catch (Exception e) {
+      fail(e);
+    }
+  }
+
+  @Test
+  void testLoadWithIdleSessions() throws Exception {
+    String[] numbers = new String[ACTIVE_CLIENTS];
+    try (Client setup = new Client(server.getPort())) {
+      String customer = setup.call("customer regular Load 40 555-0152 \"6 Pine Ct\"").substring(3);
+      for (int i = 0; i < ACTIVE_CLIENTS; i++) {
+        numbers[i] = setup.call("account checking " + customer + " 0").split(" ")[1];
+      }
+    }
+
+    List<Socket> idle = new ArrayList<>(IDLE_SESSIONS);
+    ExecutorService clients = Executors.newFixedThreadPool(ACTIVE_CLIENTS);
+    try {
+      for (int i = 0; i < IDLE_SESSIONS; i++) {
+        idle.add(new Socket(InetAddress.getLoopbackAddress(), server.getPort()));
+      }
+      waitForSessions(IDLE_SESSIONS);
+
+      LatencyHistogram latency = new MetricsRegistry().histogram("load_round_trip_nanos");
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<?>> futures = new ArrayList<>();
+      for (String number : numbers) {
+        futures.add(
+            clients.submit(
+                () -> {
+                  try (Client teller = new Client(server.getPort())) {
+                    start.await();
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                      long sent = System.nanoTime();
+                      String reply = teller.call("deposit " + number + " 1");
+                      latency.recordSince(sent);
+                      if (!reply.startsWith("OK ")) throw new AssertionError(reply);
+                    }
+                  }
+                  return null;
+                }));
+      }
+      long started = System.nanoTime();
+      start.countDown();
+      for (Future<?> future : futures) future.get(120, TimeUnit.SECONDS);
+      long elapsed = System.nanoTime() - started;
+
+      for (String number : numbers) {
+        assertEquals(
+            REQUESTS_PER_CLIENT * 100L, accountManager.findAccount(number).getBalanceCents());
+      }
+      assertEquals(ACTIVE_CLIENTS * REQUESTS_PER_CLIENT, transactionManager.getTransactionCount());
+      System.out.printf(
+          "Teller load: %d idle sessions on %s threads, %d clients, %.0f requests/s, %s%n",
+          IDLE_SESSIONS,
+          server.usesVirtualThreads() ? "virtual" : "platform",
+          ACTIVE_CLIENTS,
+          ACTIVE_CLIENTS * REQUESTS_PER_CLIENT * 1e9 / elapsed,
+          latency);
+    } finally {
+      clients.shutdownNow();
+      for (Socket socket : idle) socket.close();
+    }
+  }
+
+  private void waitForSessions(int expected) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+    while (server.getSessionCount() < expected) {
+      assertTrue(System.nanoTime() < deadline, "only " + server.getSessionCount() + " sessions");
+      Thread.sleep(10);
+    }
+  }
+
+  /** A teller connection that sends one command line and reads one result line at a time. */
+  private static final class Client implements AutoCloseable {
+    private final Socket socket;
+    private final OutputStream out;
+    private final BufferedReader in;
+
+    Client(int port) throws IOException {
+      socket = new Socket(InetAddress.getLoopbackAddress(), port);
+      socket.setTcpNoDelay(true);
+      out = socket.getOutputStream();
+      in =
+          new BufferedReader(
+              new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    void send(String command) throws IOException {
+      out.write((command + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    String readLine() throws IOException {
+      return in.readLine();
+    }
+
+    String call(String command) throws IOException {
+      send(command);
+      return readLine();
+    }
+
+    @Override
+    public void close() throws IOException {
+      socket.close();
+    }
+  }
+}
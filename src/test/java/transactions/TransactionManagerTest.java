@@ -2,8 +2,11 @@ package transactions;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import utils.Page;
 
 /** Unit tests for TransactionManager including add, totals, and capacity limit operations. */
 class TransactionManagerTest {
@@ -47,15 +50,106 @@ class TransactionManagerTest {
   }
 
   @Test
-  void testTransactionLimit() {
-    // Assuming limit is 200 based on code reading
-    for (int i = 0; i < 200; i++) {
+  void testHistoryGrowsWithoutDroppingTransactions() {
+    for (int i = 0; i < 1_000; i++) {
       transactionManager.addTransaction(new Transaction("ACC001", "DEPOSIT", 1.0, 1.0));
     }
-    assertEquals(200, transactionManager.getTransactionCount());
+    assertEquals(1_000, transactionManager.getTransactionCount());
+    assertEquals(1_000.0, transactionManager.calculateTotalDeposits());
+  }
+
+  @Test
+  void testGetTransactionsForAccountReturnsOnlyThatAccountNewestFirst() {
+    transactionManager.addTransaction(new Transaction("ACC001", "DEPOSIT", 100.0, 100.0));
+    transactionManager.addTransaction(new Transaction("ACC002", "DEPOSIT", 10.0, 10.0));
+    transactionManager.addTransaction(new Transaction("ACC001", "WITHDRAWAL", 40.0, 60.0));
+
+    Transaction[] history = transactionManager.getTransactionsForAccount("ACC001");
+
+    assertEquals(2, history.length);
+    assertEquals("WITHDRAWAL", history[0].getType());
+    assertEquals("DEPOSIT", history[1].getType());
+    assertEquals(0, transactionManager.getTransactionsForAccount("ACC999").length);
+  }
+
+  @Test
+  void testPerAccountTotalsAndCounts() {
+    transactionManager.addTransaction(new Transaction("ACC001", "DEPOSIT", 100.0, 100.0));
+    transactionManager.addTransaction(new Transaction("ACC002", "DEPOSIT", 10.0, 10.0));
+    transactionManager.addTransaction(new Transaction("ACC001", "WITHDRAWAL", 40.0, 60.0));
+
+    assertEquals(100.0, transactionManager.getTotalDeposits("ACC001"));
+    assertEquals(40.0, transactionManager.getTotalWithdrawals("ACC001"));
+    assertEquals(2, transactionManager.getTransactionCount("ACC001"));
+    assertEquals(0, transactionManager.getTransactionCount("ACC999"));
+    assertEquals(0.0, transactionManager.getTotalDeposits("ACC999"));
+    assertTrue(transactionManager.verifyAggregates().isEmpty());
+  }
+
+  @Test
+  void testTotalsCoverEveryKindAndNetMatchesTheBalance() {
+    transactionManager.addTransaction(Transaction.ofCents("ACC001", "DEPOSIT", 100_00, 100_00));
+    transactionManager.addTransaction(Transaction.ofCents("ACC001", "FEE", 2_50, 97_50));
+    transactionManager.addTransaction(Transaction.ofCents("ACC001", "INTEREST", 1_25, 98_75));
+    transactionManager.addTransaction(Transaction.ofCents("ACC001", "TRANSFER_OUT", 20_00, 78_75));
+    transactionManager.addTransaction(Transaction.ofCents("ACC001", "REVERSAL", 2_50, 81_25));
+    transactionManager.addTransaction(Transaction.ofCents("ACC002", "TRANSFER_IN", 20_00, 20_00));
+
+    long[] totals = transactionManager.getTotalsCents("ACC001");
+    assertEquals(2_50, totals[TransactionType.FEE.code()]);
+    assertEquals(20_00, totals[TransactionType.TRANSFER_OUT.code()]);
+    assertEquals(0, totals[TransactionType.TRANSFER_IN.code()]);
+    assertEquals(81_25, TransactionType.netOf(totals));
+    assertEquals(101_25, TransactionType.netOf(transactionManager.getTotalsCents()));
+    assertEquals(0, TransactionType.netOf(transactionManager.getTotalsCents("ACC999")));
+  }
+
+  @Test
+  void testAttachedLogRecordsEachTransaction() {
+    List<Transaction> logged = new ArrayList<>();
+    transactionManager.setTransactionLog(logged::add);
+
+    Transaction transaction = new Transaction("ACC001", "DEPOSIT", 100.0, 100.0);
+    transactionManager.addTransaction(transaction);
+
+    assertEquals(List.of(transaction), logged);
+  }
+
+  @Test
+  void testRefusedTransactionIsNotLogged() {
+    List<Transaction> logged = new ArrayList<>();
+    transactionManager.setTransactionLog(logged::add);
+    Transaction fee = Transaction.ofCents("ACC001", "FEE", 2_50, 97_50);
+    transactionManager.addTransaction(fee);
+    transactionManager.addTransaction(Transaction.reversalOf(fee, 100_00));
+    transactionManager.addTransaction(Transaction.ofCents("ACC001", "DEPOSIT", Long.MAX_VALUE, 0));
+
+    assertThrows(
+        IllegalStateException.class,
+        () -> transactionManager.addTransaction(Transaction.reversalOf(fee, 100_00)));
+    assertThrows(
+        ArithmeticException.class,
+        () -> transactionManager.addTransaction(Transaction.ofCents("ACC002", "DEPOSIT", 1, 1)));
+    assertEquals(3, logged.size());
+    assertEquals(3, transactionManager.getTransactionCount());
+  }
+
+  @Test
+  void testTransactionsPageWalksHistoryInAppendOrder() {
+    for (int i = 1; i <= 5; i++) {
+      transactionManager.addTransaction(Transaction.ofCents("ACC001", "DEPOSIT", i, i));
+    }
+
+    Page<Transaction> first = transactionManager.getTransactionsPage(Page.FIRST, 3);
+    transactionManager.addTransaction(Transaction.ofCents("ACC002", "DEPOSIT", 6, 6));
+    Page<Transaction> second = transactionManager.getTransactionsPage(first.nextCursor(), 3);
+    Page<Transaction> last = transactionManager.getTransactionsPage(second.nextCursor(), 3);
 
-    // Try adding one more
-    transactionManager.addTransaction(new Transaction("ACC001", "DEPOSIT", 1.0, 1.0));
-    assertEquals(200, transactionManager.getTransactionCount());
+    assertEquals(3, first.items().size());
+    assertEquals(4, second.items().get(0).getAmountCents());
+    assertEquals(6, second.items().get(2).getAmountCents());
+    assertFalse(second.hasMore());
+    assertTrue(last.items().isEmpty());
+    assertEquals(6, last.nextCursor());
   }
 }
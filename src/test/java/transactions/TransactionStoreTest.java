@@ -0,0 +1,81 @@
+package transactions;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for TransactionStore including chunked growth, materialisation, and scans. */
+class TransactionStoreTest {
+
+  private TransactionStore store;
+
+  @BeforeEach
+  void setUp() {
+    store = new TransactionStore();
+  }
+
+  @Test
+  void testMaterializeRoundTripsEveryColumn() {
+    Transaction original = Transaction.ofCents("ACC001", "DEPOSIT", 12_34, 56_78);
+    int position = store.append(original);
+
+    Transaction copy = store.materialize(position);
+
+    assertEquals(original.getTransactionId(), copy.getTransactionId());
+    assertEquals("ACC001", copy.getAccountNumber());
+    assertEquals("DEPOSIT", copy.getType());
+    assertEquals(12_34, copy.getAmountCents());
+    assertEquals(56_78, copy.getBalanceAfterCents());
+    assertEquals(original.getEpochMillis(), copy.getEpochMillis());
+  }
+
+  @Test
+  void testAppendGrowsAcrossChunks() {
+    for (int i = 0; i < 100_000; i++) {
+      store.append(Transaction.ofCents("ACC" + (i % 7), "DEPOSIT", i, i));
+    }
+
+    assertEquals(100_000, store.size());
+    assertEquals(99_999, store.materialize(99_999).getAmountCents());
+    assertEquals("ACC3", store.materialize(99_999 - 99_999 % 7 + 3).getAccountNumber());
+  }
+
+  @Test
+  void testTypeNamesResolveToOpCodesIgnoringCase() {
+    store.append(Transaction.ofCents("ACC001", "DEPOSIT", 100, 100));
+    store.append(Transaction.ofCents("ACC002", "Deposit", 50, 50));
+    store.append(Transaction.ofCents("ACC001", "WITHDRAWAL", 30, 70));
+
+    assertEquals(150, store.totalAmount(TransactionType.DEPOSIT));
+    assertEquals(30, store.totalAmount(TransactionType.WITHDRAWAL));
+    assertEquals(100, store.totalAmount(store.accountIndexOf("ACC001"), TransactionType.DEPOSIT));
+    assertEquals("DEPOSIT", store.materialize(1).getType());
+    assertEquals(-1, store.accountIndexOf("ACC999"));
+  }
+
+  @Test
+  void testAccountRowsTrackOnlyThatAccountInAppendOrder() {
+    for (int i = 0; i < 1_000; i++) {
+      store.append(Transaction.ofCents(i % 10 == 0 ? "ACC001" : "ACC002", "DEPOSIT", i, i));
+    }
+
+    int accountIndex = store.accountIndexOf("ACC001");
+    assertEquals(100, store.accountRowCount(accountIndex));
+    for (int nth = 0; nth < 100; nth++) {
+      assertEquals(nth * 10, store.accountRowAt(accountIndex, nth));
+    }
+    assertEquals(49_500, store.totalAmount(accountIndex, TransactionType.DEPOSIT));
+  }
+
+  @Test
+  void testVerifyAggregatesReportsNoDriftForConsistentHistory() {
+    for (int i = 0; i < 50_000; i++) {
+      store.append(
+          Transaction.ofCents("ACC" + (i % 13), i % 3 == 0 ? "WITHDRAWAL" : "DEPOSIT", i, 0));
+    }
+
+    assertTrue(store.verifyAggregates().isEmpty());
+    assertEquals(16_667, store.totalCount(TransactionType.WITHDRAWAL));
+  }
+}
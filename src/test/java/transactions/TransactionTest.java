@@ -2,9 +2,12 @@ package transactions;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
 import org.junit.jupiter.api.Test;
 
-/** Unit tests for Transaction including ID generation and timestamp creation. */
+/** Unit tests for Transaction including ID generation, the pluggable clock, and timestamps. */
 class TransactionTest {
 
   @Test
@@ -19,4 +22,24 @@ class TransactionTest {
     assertEquals(200.0, transaction.getBalanceAfter());
     assertNotNull(transaction.getTimestamp());
   }
+
+  @Test
+  void testTimestampComesFromClockAndIsRenderedInItsZone() {
+    Clock original = Transaction.getClock();
+    Instant instant = Instant.parse("2024-03-05T14:07:09.250Z");
+    try {
+      Transaction.setClock(Clock.fixed(instant, ZoneOffset.UTC));
+      Transaction first = Transaction.ofCents("ACC001", "DEPOSIT", 100, 100);
+      Transaction second = Transaction.ofCents("ACC001", "DEPOSIT", 100, 200);
+
+      assertEquals(instant.toEpochMilli(), first.getEpochMillis());
+      assertEquals("05-03-2024 14:07:09", first.getTimestamp());
+      assertSame(first.getTimestamp(), second.getTimestamp());
+
+      Transaction.setClock(Clock.fixed(instant, ZoneOffset.ofHours(2)));
+      assertEquals("05-03-2024 16:07:09", first.getTimestamp());
+    } finally {
+      Transaction.setClock(original);
+    }
+  }
 }
@@ -0,0 +1,59 @@
+package transactions;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for TransactionType including name lookup, op-codes, and balance direction. */
+class TransactionTypeTest {
+
+  @Test
+  void testOfResolvesEveryNameIgnoringCase() {
+    for (TransactionType type : TransactionType.values()) {
+      assertSame(type, TransactionType.of(type.name()));
+      assertSame(type, TransactionType.of(type.name().toLowerCase()));
+    }
+    assertSame(TransactionType.DEPOSIT, TransactionType.of("Deposit"));
+    assertSame(TransactionType.REVERSAL, TransactionType.of("reversal"));
+    assertSame(TransactionType.INTEREST, TransactionType.of("Interest"));
+  }
+
+  @Test
+  void testOfRejectsUnknownNames() {
+    assertNull(TransactionType.of(""));
+    assertNull(TransactionType.of("Transfer"));
+    assertNull(TransactionType.of("DEPOSITS"));
+    assertNull(TransactionType.of("INTERESX"));
+    assertThrows(IllegalArgumentException.class, () -> TransactionType.parse("Refund"));
+  }
+
+  @Test
+  void testCodesRoundTripAndFitTheCount() {
+    assertEquals(TransactionType.COUNT, TransactionType.values().length);
+    for (TransactionType type : TransactionType.values()) {
+      assertSame(type, TransactionType.fromCode(type.code()));
+    }
+    assertThrows(IllegalArgumentException.class, () -> TransactionType.fromCode(-1));
+    assertThrows(
+        IllegalArgumentException.class, () -> TransactionType.fromCode(TransactionType.COUNT));
+  }
+
+  @Test
+  void testSignedAmountFollowsDirection() {
+    assertEquals(500, TransactionType.INTEREST.signedAmount(500));
+    assertEquals(-500, TransactionType.FEE.signedAmount(500));
+    assertEquals(-500, TransactionType.TRANSFER_OUT.signedAmount(500));
+    assertEquals(-500, TransactionType.REVERSAL.signedAmount(-500));
+    assertFalse(TransactionType.REVERSAL.isCredit());
+    assertFalse(TransactionType.REVERSAL.isDebit());
+    assertTrue(TransactionType.TRANSFER_IN.isCredit());
+  }
+
+  @Test
+  void testNamesFitTheJournalTypeColumn() {
+    for (TransactionType type : TransactionType.values()) {
+      assertTrue(type.name().length() <= 12, type.name());
+    }
+    assertEquals("TRANSFER_OUT".length(), TransactionType.MAX_NAME_LENGTH);
+  }
+}
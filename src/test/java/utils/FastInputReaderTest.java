@@ -0,0 +1,61 @@
+package utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for FastInputReader including parsing, validation retries, and chunk boundaries. */
+class FastInputReaderTest {
+
+  @Test
+  void testReadsOneValuePerLine() {
+    FastInputReader reader = readerOver("  42 \r\n-7.25\nAda Lovelace\n\n3", 1 << 16);
+
+    assertEquals(42, reader.readInt("", 0, 100));
+    assertEquals(-7.25, reader.readDouble("", -10));
+    assertEquals("Ada Lovelace", reader.readString(""));
+    reader.waitForEnter();
+    assertEquals(3, reader.readInt("", 0, 100));
+    assertThrows(NoSuchElementException.class, () -> reader.readInt("", 0, 100));
+  }
+
+  @Test
+  void testInvalidValuesAreSkippedUntilOneIsValid() {
+    FastInputReader reader = readerOver("abc\n99999999999\n500\n5\n\n1e2\n0.1\n", 1 << 16);
+
+    assertEquals(5, reader.readInt("", 0, 10));
+    assertEquals(100.0, reader.readDouble("", 50));
+    assertEquals(0.1, reader.readDouble("", 0));
+  }
+
+  @Test
+  void testLinesSpanningReadsAndBufferGrowth() {
+    String longName = "x".repeat(200_000);
+    FastInputReader reader = readerOver("12345\n" + longName + "\n678.5\n", 3);
+
+    assertEquals(12345, reader.readInt("", 0, Integer.MAX_VALUE));
+    assertEquals(longName, reader.readString(""));
+    assertEquals(678.5, reader.readDouble("", 0));
+  }
+
+  /**
+   * Returns a quiet reader whose underlying stream hands out at most {@code chunk} bytes a read.
+   */
+  private static FastInputReader readerOver(String input, int chunk) {
+    InputStream in =
+        new FilterInputStream(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))) {
+          @Override
+          public int read(byte[] b, int off, int len) throws IOException {
+            return super.read(b, off, Math.min(len, chunk));
+          }
+        };
+    return new FastInputReader(Channels.newChannel(in), true);
+  }
+}
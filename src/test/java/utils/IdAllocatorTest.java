@@ -0,0 +1,86 @@
+package utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for IdAllocator including block reservation, restore, formatting, and parsing. */
+class IdAllocatorTest {
+
+  @Test
+  void testOneThreadGetsConsecutiveIdsAcrossBlocks() {
+    IdAllocator allocator = new IdAllocator("ACC", 4);
+    for (long expected = 1; expected <= 10; expected++) {
+      assertEquals(expected, allocator.next());
+    }
+    assertEquals(12, allocator.getHighWaterMark());
+  }
+
+  @Test
+  void testConcurrentThreadsNeverShareAnId() throws InterruptedException {
+    IdAllocator allocator = new IdAllocator("TXN", 16);
+    int threads = 8;
+    int perThread = 10_000;
+    long[][] issued = new long[threads][perThread];
+    List<Thread> workers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      long[] mine = issued[t];
+      Thread worker =
+          new Thread(
+              () -> {
+                for (int i = 0; i < perThread; i++) mine[i] = allocator.next();
+              });
+      workers.add(worker);
+      worker.start();
+    }
+    for (Thread worker : workers) worker.join();
+
+    Set<Long> seen = new HashSet<>();
+    for (long[] mine : issued) {
+      for (long id : mine) assertTrue(seen.add(id), "duplicate id " + id);
+    }
+    assertEquals(threads * perThread, seen.size());
+  }
+
+  @Test
+  void testAdvancePastSkipsRestoredIdsEvenInsideAReservedBlock() {
+    IdAllocator allocator = new IdAllocator("CUS", 100);
+    assertEquals(1, allocator.next());
+
+    allocator.advancePast(500);
+
+    assertEquals(501, allocator.next());
+    assertTrue(allocator.getHighWaterMark() >= 501);
+  }
+
+  @Test
+  void testFormatPadsToThreeDigitsAndGrowsBeyond() {
+    IdAllocator allocator = new IdAllocator("ACC");
+    assertEquals("ACC007", allocator.format(7));
+    assertEquals("ACC999", allocator.format(999));
+    assertEquals("ACC1000", allocator.format(1000));
+    assertEquals("ACC" + Long.MAX_VALUE, allocator.format(Long.MAX_VALUE));
+  }
+
+  @Test
+  void testParseRoundTripsAndRejectsForeignValues() {
+    IdAllocator allocator = new IdAllocator("ACC");
+    assertEquals(7, allocator.parse("ACC007"));
+    assertEquals(123456789, allocator.parse(allocator.format(123456789)));
+    assertEquals(-1, allocator.parse("CUS007"));
+    assertEquals(-1, allocator.parse("ACC"));
+    assertEquals(-1, allocator.parse("ACC12x"));
+    assertEquals(-1, allocator.parse("ACC99999999999999999999"));
+    assertEquals(-1, allocator.parse(null));
+    assertEquals(-1, allocator.parse("ACC0001"));
+    assertEquals(-1, allocator.parse("ACC000000001"));
+    assertEquals(-1, allocator.parse("ACC07"));
+    assertEquals(-1, allocator.parse("ACC01234"));
+    assertEquals(1234, allocator.parse("ACC1234"));
+    assertEquals(0, allocator.parse(allocator.format(0)));
+  }
+}
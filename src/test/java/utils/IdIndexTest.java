@@ -0,0 +1,40 @@
+package utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for IdIndex including lookup across growth, insertion order, and misses. */
+class IdIndexTest {
+
+  private record Item(long id) {}
+
+  @Test
+  void testFindsEveryItemAcrossResizes() {
+    IdIndex<Item> index = new IdIndex<>(new Item[2], Item::id);
+    for (long id = 1; id <= 1_000; id++) index.add(new Item(id * 7));
+
+    assertEquals(1_000, index.size());
+    for (long id = 1; id <= 1_000; id++) {
+      assertEquals(id * 7, index.find(id * 7).id());
+    }
+    assertNull(index.find(8));
+    assertNull(index.find(-1));
+  }
+
+  @Test
+  void testCopiesKeepInsertionOrderAndStorageType() {
+    IdIndex<Item> index = new IdIndex<>(new Item[4], Item::id);
+    index.ensureCapacity(100);
+    index.add(new Item(30));
+    index.add(new Item(10));
+    index.add(new Item(20));
+
+    Item[] middle = index.copyOfRange(1, 3);
+    assertEquals(2, middle.length);
+    assertEquals(10, middle[0].id());
+    assertEquals(20, middle[1].id());
+    assertEquals(Item[].class, middle.getClass());
+    assertEquals(30, index.find(30).id());
+  }
+}
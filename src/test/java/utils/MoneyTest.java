@@ -0,0 +1,70 @@
+package utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for Money including conversion, overflow checks, and formatting. */
+class MoneyTest {
+
+  @Test
+  void testFromDoubleRoundsToNearestCent() {
+    assertEquals(1234, Money.fromDouble(12.34));
+    assertEquals(10, Money.fromDouble(0.1));
+    assertEquals(-1235, Money.fromDouble(-12.345));
+  }
+
+  @Test
+  void testFromDoubleRejectsOutOfRangeValues() {
+    assertThrows(ArithmeticException.class, () -> Money.fromDouble(Double.NaN));
+    assertThrows(ArithmeticException.class, () -> Money.fromDouble(Double.POSITIVE_INFINITY));
+    assertThrows(ArithmeticException.class, () -> Money.fromDouble(1e18));
+  }
+
+  @Test
+  void testArithmeticIsOverflowChecked() {
+    assertThrows(ArithmeticException.class, () -> Money.add(Long.MAX_VALUE, 1));
+    assertThrows(ArithmeticException.class, () -> Money.subtract(Long.MIN_VALUE, 1));
+    assertTrue(Money.addOverflows(Long.MAX_VALUE, 1));
+    assertTrue(Money.addOverflows(Long.MIN_VALUE, -1));
+    assertFalse(Money.addOverflows(Long.MAX_VALUE, -1));
+    assertTrue(Money.subtractOverflows(Long.MIN_VALUE, 1));
+    assertTrue(Money.subtractOverflows(0, Long.MIN_VALUE));
+    assertFalse(Money.subtractOverflows(-1, Long.MIN_VALUE));
+  }
+
+  @Test
+  void testRunningTotalReconcilesToTheCent() {
+    long total = 0;
+    double drifting = 0;
+    for (int i = 0; i < 1_000_000; i++) {
+      total = Money.add(total, Money.fromDouble(0.10));
+      drifting += 0.10;
+    }
+    assertEquals(100_000_00, total);
+    assertNotEquals(100_000.0, drifting);
+  }
+
+  @Test
+  void testFormat() {
+    assertEquals("0.00", Money.format(0));
+    assertEquals("12.05", Money.format(1205));
+    assertEquals("-0.05", Money.format(-5));
+    assertEquals("-12.50", Money.format(-1250));
+    assertEquals(Money.format(Long.MIN_VALUE).length(), Money.MAX_FORMATTED_LENGTH);
+    assertTrue(Money.format(Long.MAX_VALUE).length() <= Money.MAX_FORMATTED_LENGTH);
+  }
+
+  @Test
+  void testParseIsExact() {
+    assertEquals(1234, Money.parse("12.34"));
+    assertEquals(1250, Money.parse("12.5"));
+    assertEquals(1200, Money.parse("12"));
+    assertEquals(5, Money.parse(".05"));
+    assertEquals(-305, Money.parse("-3.05"));
+    assertThrows(NumberFormatException.class, () -> Money.parse("1.234"));
+    assertThrows(NumberFormatException.class, () -> Money.parse("12a"));
+    assertThrows(NumberFormatException.class, () -> Money.parse("-"));
+    assertThrows(ArithmeticException.class, () -> Money.parse("99999999999999999999"));
+  }
+}
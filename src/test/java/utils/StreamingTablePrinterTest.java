@@ -0,0 +1,86 @@
+package utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for StreamingTablePrinter including layout, sampling, paging, and large tables. */
+class StreamingTablePrinterTest {
+
+  private static final String[] HEADERS = {"ID", "NAME"};
+  private static final String NL = System.lineSeparator();
+
+  @Test
+  void testPrintsBordersHeadersAndPaddedCells() {
+    StringWriter out = new StringWriter();
+    new StreamingTablePrinter(out, 16)
+        .printTable(HEADERS, new String[][] {{"1", "Alice"}, {"22", null}});
+
+    String expected =
+        "+----+-------+"
+            + NL
+            + "| ID | NAME  |"
+            + NL
+            + "+----+-------+"
+            + NL
+            + "| 1  | Alice |"
+            + NL
+            + "| 22 |       |"
+            + NL
+            + "+----+-------+"
+            + NL;
+    assertEquals(expected, out.toString());
+  }
+
+  @Test
+  void testCellsWiderThanTheSampledWidthAreTruncated() {
+    StringWriter out = new StringWriter();
+    Iterator<String[]> rows =
+        List.of(new String[] {"1", "Bob"}, new String[] {"2", "Bartholomew"}).iterator();
+
+    assertEquals(2, new StreamingTablePrinter(out, 1).printTable(HEADERS, rows));
+    assertTrue(out.toString().contains("| 2  | Bart |" + NL));
+  }
+
+  @Test
+  void testPagesContinueFromTheSameIterator() {
+    StringWriter out = new StringWriter();
+    StreamingTablePrinter printer = new StreamingTablePrinter(out, 16);
+    Iterator<String[]> rows =
+        List.of(new String[] {"1", "A"}, new String[] {"2", "B"}, new String[] {"3", "C"})
+            .iterator();
+
+    assertEquals(2, printer.printPage(HEADERS, rows, 2));
+    assertEquals(1, printer.printPage(HEADERS, rows, 2));
+    assertEquals(0, printer.printPage(HEADERS, rows, 2));
+    assertTrue(
+        out.toString().endsWith("| No data available. |" + NL + "+----+---------------+" + NL));
+  }
+
+  @Test
+  void testStreamsAMillionRowsWithDeclaredWidths() {
+    Iterator<String[]> rows =
+        new Iterator<>() {
+          private final String[] row = {"TXN000", "ACC001"};
+          private int remaining = 1_000_000;
+
+          @Override
+          public boolean hasNext() {
+            return remaining > 0;
+          }
+
+          @Override
+          public String[] next() {
+            remaining--;
+            return row;
+          }
+        };
+
+    StreamingTablePrinter printer = new StreamingTablePrinter(Writer.nullWriter(), 0);
+    assertEquals(1_000_000, printer.printTable(HEADERS, new int[] {10, 10}, rows));
+  }
+}